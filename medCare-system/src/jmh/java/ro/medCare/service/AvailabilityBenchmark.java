@@ -0,0 +1,84 @@
+package ro.medCare.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ro.medCare.model.Doctor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int PROBES = 4096;
+    private static final int SERVICES = 10;
+
+    @Param({"50"})
+    private int doctors;
+
+    @Param({"10000", "100000"})
+    private int appointments;
+
+    private SyntheticData.Clinic clinic;
+    private DoctorService doctorService;
+    private Long[] probeDoctors;
+    private LocalDateTime[] probeTimes;
+    private String[] workHours;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clinic = SyntheticData.clinic(doctors, SERVICES, appointments);
+        doctorService = clinic.bean(DoctorService.class);
+        List<Doctor> synthetic = clinic.data().doctors();
+
+        SplittableRandom random = SyntheticData.random();
+        probeDoctors = new Long[PROBES];
+        probeTimes = new LocalDateTime[PROBES];
+        workHours = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            probeDoctors[i] = synthetic.get(random.nextInt(synthetic.size())).getId();
+            probeTimes[i] = clinic.firstUpcomingDay().plusDays(random.nextInt(clinic.upcomingDays())).atTime(7, 0)
+                    .plusMinutes(15L * random.nextInt(40));
+            workHours[i] = SyntheticData.workHours(i);
+        }
+        for (Doctor doctor : synthetic) {
+            doctorService.isWithinWorkHours(doctor.getId(), probeTimes[0], SyntheticData.SLOT_MINUTES);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clinic.close();
+    }
+
+    @Benchmark
+    public boolean checkAvailability() {
+        int probe = next++ & (PROBES - 1);
+        return doctorService.checkAvailability(probeDoctors[probe], probeTimes[probe], SyntheticData.SLOT_MINUTES);
+    }
+
+    @Benchmark
+    public void parseWorkHours(Blackhole blackhole) {
+        blackhole.consume(WorkHours.parse(workHours[next++ & (PROBES - 1)]));
+    }
+}
@@ -0,0 +1,80 @@
+package ro.medCare.service;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ro.medCare.model.User;
+import ro.medCare.model.UserRole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenBenchmark {
+
+    private static final String SECRET = "synthetic-benchmark-secret-with-at-least-256-bits";
+    private static final long EXPIRATION_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"1024"})
+    private int tokens;
+
+    private AnnotationConfigApplicationContext cachedContext;
+    private AnnotationConfigApplicationContext uncachedContext;
+    private JwtTokenService cachedTokens;
+    private JwtTokenService uncachedTokens;
+    private String[] issued;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cachedContext = tokenService(tokens * 2L);
+        uncachedContext = tokenService(0);
+        cachedTokens = cachedContext.getBean(JwtTokenService.class);
+        uncachedTokens = uncachedContext.getBean(JwtTokenService.class);
+
+        issued = new String[Integer.highestOneBit(tokens)];
+        for (int i = 0; i < issued.length; i++) {
+            UserRole role = i % 2 == 0 ? UserRole.RECEPTIONIST : UserRole.ADMIN;
+            issued[i] = cachedTokens.generateToken(new User((long) i, "User " + i, "user" + i, "password", role));
+            cachedTokens.verify(issued[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cachedContext.close();
+        uncachedContext.close();
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cachedTokens.verify(issued[next++ & (issued.length - 1)]);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncachedTokens.verify(issued[next++ & (issued.length - 1)]);
+    }
+
+    private static AnnotationConfigApplicationContext tokenService(long cacheMaxSize) {
+        return SyntheticData.components(Map.of("jwt.secret", SECRET, "jwt.expiration", EXPIRATION_MILLIS,
+                "jwt.cache.max-size", cacheMaxSize), JwtTokenService.class);
+    }
+}
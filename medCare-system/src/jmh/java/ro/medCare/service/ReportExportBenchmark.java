@@ -0,0 +1,71 @@
+package ro.medCare.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.medCare.dto.AppointmentRow;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportExportBenchmark {
+
+    @Param({"1024", "65536"})
+    private int rows;
+
+    private final CSVReportExporter csvExporter = new CSVReportExporter();
+    private final XMLReportExporter xmlExporter = new XMLReportExporter();
+
+    private AppointmentRow[] appointments;
+    private CsvRowWriter csv;
+    private XMLStreamWriter xml;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, XMLStreamException {
+        List<AppointmentRow> synthetic = SyntheticData.rows(Integer.highestOneBit(rows));
+        appointments = synthetic.toArray(AppointmentRow[]::new);
+
+        csv = csvExporter.open(OutputStream.nullOutputStream());
+        csvExporter.writeAppointmentHeader(csv);
+        xml = xmlExporter.open(OutputStream.nullOutputStream());
+        xmlExporter.startAppointments(xml);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, XMLStreamException {
+        csv.flush();
+        xmlExporter.endAppointments(xml);
+        xmlExporter.close(xml);
+    }
+
+    @Benchmark
+    public void csvRow() throws IOException {
+        csvExporter.writeAppointment(appointments[next++ & (appointments.length - 1)], csv);
+    }
+
+    @Benchmark
+    public void xmlRow() throws XMLStreamException {
+        xmlExporter.writeAppointment(appointments[next++ & (appointments.length - 1)], xml);
+    }
+}
@@ -0,0 +1,74 @@
+package ro.medCare.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ro.medCare.dto.StatisticsSummaryDTO;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsGroupingBenchmark {
+
+    private static final int SERVICES = 20;
+
+    @Param({"200"})
+    private int doctors;
+
+    @Param({"100000"})
+    private int appointments;
+
+    private SyntheticData.Clinic clinic;
+    private AppointmentService appointmentService;
+    private AppointmentStatisticsStore statisticsStore;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clinic = SyntheticData.clinic(doctors, SERVICES, appointments);
+        appointmentService = clinic.bean(AppointmentService.class);
+        statisticsStore = clinic.bean(AppointmentStatisticsStore.class);
+        start = clinic.data().firstDay().atStartOfDay();
+        end = start.plusDays(clinic.data().days());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clinic.close();
+    }
+
+    @Benchmark
+    public Map<Doctor, Long> mostRequestedDoctors() {
+        return appointmentService.getMostRequestedDoctors(start, end, doctors);
+    }
+
+    @Benchmark
+    public Map<MedicalService, Long> mostRequestedServices() {
+        return appointmentService.getMostRequestedServices(start, end, SERVICES);
+    }
+
+    @Benchmark
+    public StatisticsSummaryDTO summary() {
+        return statisticsStore.getSummary();
+    }
+}
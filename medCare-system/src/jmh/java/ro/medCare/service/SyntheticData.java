@@ -0,0 +1,103 @@
+package ro.medCare.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import ro.medCare.MedCareSystemApplication;
+import ro.medCare.controller.ClinicDataGenerator;
+import ro.medCare.dto.AppointmentRow;
+import ro.medCare.model.AppointmentStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class SyntheticData {
+
+    static final LocalDateTime START = LocalDate.now().plusDays(1).atTime(8, 0);
+    static final int SLOT_MINUTES = 30;
+
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Dermatology", "General", "Neurology", "Pediatrics"};
+    private static final String[] WORK_HOURS = {"08:00-16:00", "09:00-17:00", "07:30-15:30", "10:00-18:00"};
+    private static final AppointmentStatus[] STATUSES = AppointmentStatus.values();
+    private static final long SEED = 42;
+    private static final AtomicInteger NEXT_DATABASE = new AtomicInteger();
+
+    private SyntheticData() {
+    }
+
+    // The whole application on its own in-memory database, seeded the way the load test seeds it.
+    static Clinic clinic(int doctors, int services, int appointments, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:medCareJmh" + NEXT_DATABASE.incrementAndGet()
+                        + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(properties));
+        ConfigurableApplicationContext context =
+                new SpringApplication(MedCareSystemApplication.class).run(args.toArray(String[]::new));
+        return new Clinic(context, ClinicDataGenerator.of(context).generate(doctors, services, appointments, SEED));
+    }
+
+    // Only the given components and a meter registry, for code that needs neither the database nor the web tier.
+    static AnnotationConfigApplicationContext components(Map<String, Object> properties, Class<?>... components) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(components);
+        context.refresh();
+        return context;
+    }
+
+    static SplittableRandom random() {
+        return new SplittableRandom(SEED);
+    }
+
+    static String workHours(int index) {
+        return WORK_HOURS[index % WORK_HOURS.length];
+    }
+
+    static List<AppointmentRow> rows(int count) {
+        SplittableRandom random = random();
+        List<AppointmentRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new AppointmentRow((long) i + 1, "Patient \"" + i + "\", synthetic", (long) random.nextInt(50) + 1,
+                    "Dr. Synthetic " + random.nextInt(50), SPECIALIZATIONS[random.nextInt(SPECIALIZATIONS.length)],
+                    START.plusMinutes((long) SLOT_MINUTES * i), (long) random.nextInt(20) + 1,
+                    "Service " + random.nextInt(20), 50 + random.nextInt(500) + random.nextInt(100) / 100.0, SLOT_MINUTES,
+                    STATUSES[random.nextInt(STATUSES.length)]));
+        }
+        return rows;
+    }
+
+    record Clinic(ConfigurableApplicationContext context, ClinicDataGenerator.ClinicData data) implements AutoCloseable {
+
+        <T> T bean(Class<T> type) {
+            return context.getBean(type);
+        }
+
+        // The generator centres its range on today, so its second half is still ahead.
+        LocalDate firstUpcomingDay() {
+            return data.firstDay().plusDays(data.days() / 2);
+        }
+
+        int upcomingDays() {
+            return data.days() - data.days() / 2;
+        }
+
+        @Override
+        public void close() {
+            context.close();
+        }
+    }
+}
@@ -3,6 +3,8 @@ package ro.medCare.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
+import ro.medCare.service.AppointmentStatisticsStore;
+import ro.medCare.service.DoctorScheduleIndex;
 
 import jakarta.annotation.PostConstruct;
 
@@ -10,14 +12,23 @@ import jakarta.annotation.PostConstruct;
 public class AppInitializer {
 
     private final ApplicationContext context;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final AppointmentStatisticsStore statisticsStore;
+    private final IdGeneratorAligner idGeneratorAligner;
 
     @Autowired
-    public AppInitializer(ApplicationContext context) {
+    public AppInitializer(ApplicationContext context, DoctorScheduleIndex scheduleIndex,
+                          AppointmentStatisticsStore statisticsStore, IdGeneratorAligner idGeneratorAligner) {
         this.context = context;
+        this.scheduleIndex = scheduleIndex;
+        this.statisticsStore = statisticsStore;
+        this.idGeneratorAligner = idGeneratorAligner;
     }
 
     @PostConstruct
     public void initializeApp() {
-
+        idGeneratorAligner.alignAppointmentIds();
+        scheduleIndex.rebuild();
+        statisticsStore.reconcile();
     }
 }
\ No newline at end of file
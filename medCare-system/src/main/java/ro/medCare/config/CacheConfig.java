@@ -0,0 +1,25 @@
+package ro.medCare.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    // Evictions from a write are held until its transaction commits, otherwise a read racing the
+    // write re-caches the old rows right after they were evicted and keeps them until they expire.
+    @Bean
+    public CacheManager cacheManager(@Value("${spring.cache.cache-names}") List<String> cacheNames,
+                                     @Value("${spring.cache.caffeine.spec}") String specification) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheSpecification(specification);
+        caffeine.setCacheNames(cacheNames);
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
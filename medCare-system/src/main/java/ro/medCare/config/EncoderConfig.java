@@ -1,5 +1,8 @@
 package ro.medCare.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,8 +11,37 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class EncoderConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(EncoderConfig.class);
+
+    private static final int MIN_STRENGTH = 4;
+    private static final int MAX_STRENGTH = 16;
+
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${medcare.auth.bcrypt.strength:10}") int strength,
+                                           @Value("${medcare.auth.bcrypt.calibrate:false}") boolean calibrate,
+                                           @Value("${medcare.auth.bcrypt.target-ms:250}") long targetMillis) {
+        int effectiveStrength = calibrate ? calibrate(targetMillis) : strength;
+        return new BCryptPasswordEncoder(effectiveStrength);
+    }
+
+    private static int calibrate(long targetMillis) {
+        new BCryptPasswordEncoder(MIN_STRENGTH).encode("calibration");
+
+        int chosen = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            if (elapsedMillis > targetMillis) {
+                break;
+            }
+            chosen = strength;
+        }
+
+        logger.info("BCrypt strength calibrated to {} for a target of {} ms", chosen, targetMillis);
+        return chosen;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package ro.medCare.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ro.medCare.model.Appointment;
+
+@Component
+public class IdGeneratorAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAligner.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public IdGeneratorAligner(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void alignAppointmentIds() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM appointments), "
+                + "(SELECT COALESCE(MAX(id), 0) FROM archived_appointments))", Long.class);
+        long required = maxId + Appointment.ID_ALLOCATION_SIZE + 1;
+
+        String table = Appointment.ID_GENERATOR_TABLE;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + table + " SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                required, Appointment.ID_GENERATOR_KEY, required);
+
+        if (updated == 0) {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + table + " WHERE sequence_name = ?", Integer.class, Appointment.ID_GENERATOR_KEY);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO " + table + " (sequence_name, next_val) VALUES (?, ?)",
+                        Appointment.ID_GENERATOR_KEY, required);
+                updated = 1;
+            }
+        }
+
+        if (updated > 0) {
+            logger.info("Appointment id generator aligned past existing id {}", maxId);
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package ro.medCare.config;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -47,12 +47,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
             try {
-                username = jwtTokenService.extractUsername(jwt);
+                Claims claims = jwtTokenService.verify(jwt);
+                username = claims.getSubject();
                 logger.debug("Extracted username: {}", username);
 
                 if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    String role = jwtTokenService.extractAllClaims(jwt).get("role").toString();
+                    String role = String.valueOf(claims.get("role"));
                     logger.debug("User role: {}", role);
 
                     UserDetails userDetails = new User(
@@ -61,16 +62,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
                     );
 
-                    if (jwtTokenService.validateToken(jwt, username)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                        logger.debug("Authentication successful for user: {}", username);
-                    }
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    logger.debug("Authentication successful for user: {}", username);
                 }
             } catch (ExpiredJwtException e) {
                 logger.error("JWT Token has expired: {}", e.getMessage());
-            } catch (UnsupportedJwtException | MalformedJwtException | IllegalArgumentException e) {
+            } catch (JwtException | IllegalArgumentException e) {
                 logger.error("JWT Token error: {}", e.getMessage());
             }
         } else {
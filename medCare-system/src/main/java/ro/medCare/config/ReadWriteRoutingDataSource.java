@@ -0,0 +1,55 @@
+package ro.medCare.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesWindow readYourWrites;
+    private final Counter readWrite;
+    private final Counter readYourWritesReads;
+    private final Counter readOnly;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow readYourWrites,
+                                      MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.readWrite = counter(meterRegistry, Route.PRIMARY, "read-write");
+        this.readYourWritesReads = counter(meterRegistry, Route.PRIMARY, "read-your-writes");
+        this.readOnly = counter(meterRegistry, Route.REPLICA, "read-only");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readWrite.increment();
+            return Route.PRIMARY;
+        }
+        if (readYourWrites.requiresPrimary()) {
+            readYourWritesReads.increment();
+            return Route.PRIMARY;
+        }
+        readOnly.increment();
+        return Route.REPLICA;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder("medcare.datasource.connections")
+                .description("Connections handed out by the read/write routing datasource")
+                .tag("route", route.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package ro.medCare.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+@Component
+public class ReadYourWritesWindow {
+
+    private static final String PINNED_ATTRIBUTE = ReadYourWritesWindow.class.getName() + ".PINNED";
+
+    private final Cache<String, Boolean> recentWriters;
+
+    @Autowired
+    public ReadYourWritesWindow(@Value("${medcare.datasource.read-your-writes-ms:5000}") long windowMillis) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void recordWrite() {
+        ServletRequestAttributes request = currentRequest();
+        if (request == null) {
+            return;
+        }
+        request.setAttribute(PINNED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        recentWriters.put(client(request), Boolean.TRUE);
+    }
+
+    public boolean requiresPrimary() {
+        ServletRequestAttributes request = currentRequest();
+        if (request == null) {
+            return false;
+        }
+        return request.getAttribute(PINNED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null
+                || recentWriters.getIfPresent(client(request)) != null;
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes ? attributes : null;
+    }
+
+    private static String client(ServletRequestAttributes request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "address:" + request.getRequest().getRemoteAddr();
+    }
+}
@@ -2,15 +2,27 @@ package ro.medCare.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ro.medCare.dto.CursorPage;
+import ro.medCare.dto.AppointmentChangeDTO;
+import ro.medCare.exception.BookingConflictException;
 import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.exception.TooManyRequestsException;
 import ro.medCare.exception.ValidationException;
 import ro.medCare.model.Appointment;
 import ro.medCare.model.AppointmentStatus;
+import ro.medCare.service.AppointmentChangeLog;
+import ro.medCare.service.AppointmentEventBroadcaster;
+import ro.medCare.service.AppointmentImportService;
 import ro.medCare.service.AppointmentService;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,10 +32,17 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final AppointmentImportService importService;
+    private final AppointmentChangeLog changeLog;
+    private final AppointmentEventBroadcaster eventBroadcaster;
 
     @Autowired
-    public AppointmentController(AppointmentService appointmentService) {
+    public AppointmentController(AppointmentService appointmentService, AppointmentImportService importService,
+                                 AppointmentChangeLog changeLog, AppointmentEventBroadcaster eventBroadcaster) {
         this.appointmentService = appointmentService;
+        this.importService = importService;
+        this.changeLog = changeLog;
+        this.eventBroadcaster = eventBroadcaster;
     }
 
     @GetMapping
@@ -32,6 +51,48 @@ public class AppointmentController {
         return ResponseEntity.ok(appointments);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getAppointmentsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) AppointmentStatus status) {
+        try {
+            CursorPage<Appointment> page =
+                    appointmentService.getAppointmentsPage(cursor, size, direction, start, end, status);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<?> getAppointmentChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<AppointmentChangeDTO> changes = changeLog.getChanges(since, size);
+            return ResponseEntity.ok(changes);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamAppointmentEvents(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        try {
+            return ResponseEntity.ok(eventBroadcaster.subscribe(doctorId, day));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Appointment> getAppointmentById(@PathVariable Long id) {
         try {
@@ -47,6 +108,8 @@ public class AppointmentController {
         try {
             Appointment createdAppointment = appointmentService.createAppointment(appointment);
             return ResponseEntity.status(HttpStatus.CREATED).body(createdAppointment);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (ValidationException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -54,6 +117,28 @@ public class AppointmentController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importAppointmentsFromCsv(InputStream body) {
+        try {
+            return ResponseEntity.ok(importService.importCsv(body));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error importing appointments: " + e.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importAppointmentsFromJson(InputStream body) {
+        try {
+            return ResponseEntity.ok(importService.importJson(body));
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error importing appointments: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateAppointment(@PathVariable Long id, @RequestBody Appointment appointment) {
         try {
@@ -62,6 +147,8 @@ public class AppointmentController {
             return ResponseEntity.ok(updatedAppointment);
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (ValidationException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
@@ -76,6 +163,8 @@ public class AppointmentController {
             return ResponseEntity.ok(updatedAppointment);
         } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error updating appointment status: " + e.getMessage());
         }
@@ -1,15 +1,19 @@
 package ro.medCare.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import ro.medCare.dto.LoginRequest;
 import ro.medCare.dto.LoginResponse;
+import ro.medCare.exception.TooManyRequestsException;
 import ro.medCare.exception.ValidationException;
-import ro.medCare.model.User;
 import ro.medCare.service.UserService;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
@@ -23,23 +27,33 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
         try {
+            return userService.authenticate(loginRequest.getUsername(), loginRequest.getPassword())
+                    .<ResponseEntity<?>>thenApply(user -> ResponseEntity.ok(new LoginResponse(
+                            user.getId(),
+                            user.getUsername(),
+                            user.getName(),
+                            user.getRole(),
+                            "dummy-token"
+                    )))
+                    .exceptionally(AuthController::loginFailed);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(loginFailed(e));
+        }
+    }
 
-            User user = userService.authenticate(loginRequest.getUsername(), loginRequest.getPassword());
-            LoginResponse response = new LoginResponse(
-                    user.getId(),
-                    user.getUsername(),
-                    user.getName(),
-                    user.getRole(),
-                    "dummy-token" 
-            );
-
-            return ResponseEntity.ok(response);
-        } catch (ValidationException e) {
+    private static ResponseEntity<?> loginFailed(Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        if (e instanceof ValidationException) {
             return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Authentication failed: " + e.getMessage());
         }
+        if (e instanceof TooManyRequestsException tooManyRequests) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(tooManyRequests.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        }
+        return ResponseEntity.internalServerError().body("Authentication failed: " + e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -5,10 +5,15 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.dto.CursorPage;
+import ro.medCare.dto.FreeSlotDTO;
 import ro.medCare.exception.ValidationException;
 import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
 import ro.medCare.service.DoctorService;
+import ro.medCare.service.MedicalServiceService;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,18 +24,35 @@ import java.util.List;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final MedicalServiceService medicalServiceService;
 
     @Autowired
-    public DoctorController(DoctorService doctorService) {
+    public DoctorController(DoctorService doctorService, MedicalServiceService medicalServiceService) {
         this.doctorService = doctorService;
+        this.medicalServiceService = medicalServiceService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
+    public ResponseEntity<List<Doctor>> getAllDoctors(WebRequest request) {
+        if (request.checkNotModified(doctorService.getDoctorsETag())) {
+            return null;
+        }
         List<Doctor> doctors = doctorService.getAllDoctors();
         return ResponseEntity.ok(doctors);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getDoctorsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Doctor> page = doctorService.getDoctorsPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Doctor> getDoctorById(@PathVariable Long id) {
         try {
@@ -81,7 +103,11 @@ public class DoctorController {
     }
 
     @GetMapping("/specialization/{specialization}")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialization(@PathVariable String specialization) {
+    public ResponseEntity<List<Doctor>> getDoctorsBySpecialization(@PathVariable String specialization,
+                                                                   WebRequest request) {
+        if (request.checkNotModified(doctorService.getDoctorsETag())) {
+            return null;
+        }
         List<Doctor> doctors = doctorService.getDoctorsBySpecialization(specialization);
         return ResponseEntity.ok(doctors);
     }
@@ -94,4 +120,22 @@ public class DoctorController {
         boolean isAvailable = doctorService.checkAvailability(id, dateTime, duration);
         return ResponseEntity.ok(isAvailable);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/slots")
+    public ResponseEntity<?> findFreeSlots(
+            @RequestParam(required = false) String specialization,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam Long serviceId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            MedicalService service = medicalServiceService.getMedicalServiceById(serviceId);
+            List<FreeSlotDTO> slots = doctorService.findFreeSlots(specialization, from, to, service.getDuration(), limit);
+            return ResponseEntity.ok(slots);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ro.medCare.dto.CursorPage;
 import ro.medCare.exception.ResourceNotFoundException;
 import ro.medCare.exception.ValidationException;
 import ro.medCare.model.MedicalService;
@@ -24,11 +26,26 @@ public class MedicalServiceController {
     }
 
     @GetMapping
-    public ResponseEntity<List<MedicalService>> getAllMedicalServices() {
+    public ResponseEntity<List<MedicalService>> getAllMedicalServices(WebRequest request) {
+        if (request.checkNotModified(medicalServiceService.getMedicalServicesETag())) {
+            return null;
+        }
         List<MedicalService> services = medicalServiceService.getAllMedicalServices();
         return ResponseEntity.ok(services);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getMedicalServicesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<MedicalService> page = medicalServiceService.getMedicalServicesPage(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MedicalService> getMedicalServiceById(@PathVariable Long id) {
         try {
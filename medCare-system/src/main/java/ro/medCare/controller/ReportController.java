@@ -1,18 +1,28 @@
 package ro.medCare.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ro.medCare.dto.ReportDTO;
+import ro.medCare.dto.ReportFormat;
+import ro.medCare.dto.ReportJobDTO;
+import ro.medCare.dto.StatisticsSummaryDTO;
+import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.exception.ValidationException;
+import ro.medCare.service.ReportCache;
+import ro.medCare.service.ReportJobService;
 import ro.medCare.service.ReportService;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -20,10 +30,12 @@ import java.time.LocalDateTime;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
 
     @Autowired
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, ReportJobService reportJobService) {
         this.reportService = reportService;
+        this.reportJobService = reportJobService;
     }
 
     @GetMapping
@@ -35,51 +47,119 @@ public class ReportController {
         return ResponseEntity.ok(report);
     }
 
+    @GetMapping("/statistics")
+    public ResponseEntity<StatisticsSummaryDTO> getStatisticsSummary() {
+        return ResponseEntity.ok(reportService.getStatisticsSummary());
+    }
+
     @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportToCSV(
+    public ResponseEntity<StreamingResponseBody> exportToCSV(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            WebRequest request) {
 
-        try {
-            ReportDTO report = reportService.generateReport(startDate, endDate);
-            File csvFile = reportService.exportToCSV(report);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        headers.setContentDispositionFormData("attachment", "report.csv");
 
-            byte[] fileContent = Files.readAllBytes(csvFile.toPath());
-            csvFile.delete(); // Șterge fișierul temporar
+        return export(reportService.cachedCSV(startDate, endDate), gzip, headers, request,
+                outputStream -> reportService.exportCSV(startDate, endDate, outputStream));
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "report.csv");
+    @GetMapping("/export/xml")
+    public ResponseEntity<StreamingResponseBody> exportToXML(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeAppointments,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            WebRequest request) {
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(fileContent);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/xml"));
+        headers.setContentDispositionFormData("attachment", "report.xml");
+
+        return export(reportService.cachedXML(startDate, endDate, includeAppointments), gzip, headers, request,
+                outputStream -> reportService.exportXML(startDate, endDate, includeAppointments, outputStream));
     }
 
-    @GetMapping("/export/xml")
-    public ResponseEntity<byte[]> exportToXML(
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean includeAppointments) {
+        try {
+            ReportJobDTO job = reportJobService.submit(startDate, endDate, ReportFormat.parse(format), includeAppointments);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reports/jobs/" + job.getId()))
+                    .body(job);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable String id) {
         try {
-            ReportDTO report = reportService.generateReport(startDate, endDate);
-            File xmlFile = reportService.exportToXML(report);
+            return ResponseEntity.ok(reportJobService.getJob(id));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 
-            byte[] fileContent = Files.readAllBytes(xmlFile.toPath());
-            xmlFile.delete(); // Șterge fișierul temporar
+    @GetMapping("/jobs/{id}/download")
+    public ResponseEntity<?> downloadReportJob(@PathVariable String id) {
+        try {
+            ReportJobService.ReportJobResult result = reportJobService.getResult(id);
 
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/xml"));
-            headers.setContentDispositionFormData("attachment", "report.xml");
+            headers.setContentType(MediaType.parseMediaType(result.format().getContentType()));
+            headers.setContentDispositionFormData("attachment", "report." + result.format().getExtension());
+            headers.setContentLength(result.sizeBytes());
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(new FileSystemResource(result.file()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
 
+    private static ResponseEntity<StreamingResponseBody> export(ReportCache.CachedReport cached, boolean gzip,
+                                                                HttpHeaders headers, WebRequest request,
+                                                                StreamingResponseBody writer) {
+        if (cached == null) {
             return ResponseEntity.ok()
                     .headers(headers)
-                    .body(fileContent);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+                    .body(stream(gzip, headers, writer));
         }
+
+        String etag = "\"" + cached.etag() + (gzip ? "-gzip" : "") + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (!gzip) {
+            headers.setContentLength(cached.body().length);
+        }
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(stream(gzip, headers, outputStream -> outputStream.write(cached.body())));
+    }
+
+    private static StreamingResponseBody stream(boolean gzip, HttpHeaders headers, StreamingResponseBody writer) {
+        if (!gzip) {
+            return writer;
+        }
+
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return outputStream -> {
+            GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192);
+            writer.writeTo(gzipStream);
+            gzipStream.finish();
+        };
     }
-}
\ No newline at end of file
+}
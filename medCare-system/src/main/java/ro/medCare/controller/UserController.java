@@ -1,15 +1,21 @@
 package ro.medCare.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ro.medCare.dto.CursorPage;
 import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.exception.TooManyRequestsException;
 import ro.medCare.exception.ValidationException;
 import ro.medCare.model.User;
 import ro.medCare.service.UserService;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/users")
@@ -24,12 +30,28 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<User>> getAllUsers(WebRequest request) {
+        if (request.checkNotModified(userService.getUsersETag())) {
+            return null;
+        }
         List<User> users = userService.getAllUsers();
         users.forEach(user -> user.setPassword(null));
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<?> getUsersPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<User> page = userService.getUsersPage(cursor, size);
+            page.getItems().forEach(user -> user.setPassword(null));
+            return ResponseEntity.ok(page);
+        } catch (ValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         try {
@@ -42,31 +64,31 @@ public class UserController {
     }
 
     @PostMapping
-    public ResponseEntity<?> createUser(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<?>> createUser(@RequestBody User user) {
         try {
-            User createdUser = userService.createUser(user);
-            createdUser.setPassword(null);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
-        } catch (ValidationException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error creating user: " + e.getMessage());
+            return userService.createUser(user)
+                    .<ResponseEntity<?>>thenApply(createdUser -> {
+                        createdUser.setPassword(null);
+                        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+                    })
+                    .exceptionally(e -> writeFailed(e, "Error creating user: "));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(writeFailed(e, "Error creating user: "));
         }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody User user) {
+    public CompletableFuture<ResponseEntity<?>> updateUser(@PathVariable Long id, @RequestBody User user) {
         try {
             user.setId(id);
-            User updatedUser = userService.updateUser(user);
-            updatedUser.setPassword(null);
-            return ResponseEntity.ok(updatedUser);
-        } catch (ResourceNotFoundException e) {
-            return ResponseEntity.notFound().build();
-        } catch (ValidationException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error updating user: " + e.getMessage());
+            return userService.updateUser(user)
+                    .<ResponseEntity<?>>thenApply(updatedUser -> {
+                        updatedUser.setPassword(null);
+                        return ResponseEntity.ok(updatedUser);
+                    })
+                    .exceptionally(e -> writeFailed(e, "Error updating user: "));
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(writeFailed(e, "Error updating user: "));
         }
     }
 
@@ -81,4 +103,21 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error deleting user: " + e.getMessage());
         }
     }
+
+    private static ResponseEntity<?> writeFailed(Throwable error, String message) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+
+        if (e instanceof ResourceNotFoundException) {
+            return ResponseEntity.notFound().build();
+        }
+        if (e instanceof ValidationException) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (e instanceof TooManyRequestsException tooManyRequests) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(tooManyRequests.getRetryAfterSeconds()))
+                    .body(e.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(message + e.getMessage());
+    }
 }
\ No newline at end of file
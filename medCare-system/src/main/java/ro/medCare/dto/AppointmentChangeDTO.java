@@ -0,0 +1,20 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ro.medCare.event.AppointmentChangeType;
+import ro.medCare.model.Appointment;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentChangeDTO {
+
+    private Long appointmentId;
+    private AppointmentChangeType type;
+    private LocalDateTime changedAt;
+    private Appointment appointment;
+}
@@ -0,0 +1,23 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ro.medCare.event.AppointmentChangeType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentChangeRow {
+    private Long id;
+    private Long appointmentId;
+    private AppointmentChangeType type;
+    private LocalDateTime changedAt;
+    private Long doctorId;
+    private LocalDate day;
+    private Long previousDoctorId;
+    private LocalDate previousDay;
+}
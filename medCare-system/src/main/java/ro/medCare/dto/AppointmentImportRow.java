@@ -0,0 +1,18 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentImportRow {
+
+    private String patientName;
+    private Long doctorId;
+    private Long serviceId;
+    private LocalDateTime dateTime;
+}
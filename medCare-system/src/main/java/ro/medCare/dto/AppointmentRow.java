@@ -0,0 +1,26 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ro.medCare.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentRow {
+
+    private Long id;
+    private String patientName;
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private LocalDateTime dateTime;
+    private Long serviceId;
+    private String serviceName;
+    private double price;
+    private int duration;
+    private AppointmentStatus status;
+}
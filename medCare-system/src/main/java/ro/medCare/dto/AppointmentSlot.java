@@ -0,0 +1,22 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSlot {
+    private Long id;
+    private Long doctorId;
+    private Long serviceId;
+    private LocalDateTime dateTime;
+    private int duration;
+
+    public LocalDateTime getEndDateTime() {
+        return dateTime.plusMinutes(duration);
+    }
+}
@@ -0,0 +1,18 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotDTO {
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,24 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowResult {
+
+    private int row;
+    private ImportRowStatus status;
+    private Long appointmentId;
+    private String message;
+
+    public static ImportRowResult created(int row, Long appointmentId) {
+        return new ImportRowResult(row, ImportRowStatus.CREATED, appointmentId, null);
+    }
+
+    public static ImportRowResult rejected(int row, String message) {
+        return new ImportRowResult(row, ImportRowStatus.REJECTED, null, message);
+    }
+}
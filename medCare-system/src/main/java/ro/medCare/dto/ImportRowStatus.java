@@ -0,0 +1,6 @@
+package ro.medCare.dto;
+
+public enum ImportRowStatus {
+    CREATED,
+    REJECTED
+}
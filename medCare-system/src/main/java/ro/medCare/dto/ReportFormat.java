@@ -0,0 +1,36 @@
+package ro.medCare.dto;
+
+import ro.medCare.exception.ValidationException;
+
+import java.util.Locale;
+
+public enum ReportFormat {
+
+    JSON("application/json", "json"),
+    CSV("text/csv", "csv"),
+    XML("application/xml", "xml");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ReportFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new ValidationException("Unsupported report format: " + value);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+
+    private String id;
+    private ReportJobStatus status;
+    private ReportFormat format;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private boolean includeAppointments;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+    private Long sizeBytes;
+    private String error;
+}
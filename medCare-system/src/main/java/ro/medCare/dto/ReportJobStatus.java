@@ -0,0 +1,8 @@
+package ro.medCare.dto;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,23 @@
+package ro.medCare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ro.medCare.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsSummaryDTO {
+
+    private long totalAppointments;
+    private Map<AppointmentStatus, Long> appointmentsByStatus;
+    private Map<Long, Long> appointmentsByDoctor;
+    private Map<Long, Long> appointmentsByService;
+    private long bookedMinutes;
+    private double revenue;
+    private LocalDateTime reconciledAt;
+}
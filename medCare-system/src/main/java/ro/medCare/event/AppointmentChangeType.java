@@ -0,0 +1,13 @@
+package ro.medCare.event;
+
+public enum AppointmentChangeType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED,
+    ARCHIVED;
+
+    public boolean isTombstone() {
+        return this == DELETED || this == ARCHIVED;
+    }
+}
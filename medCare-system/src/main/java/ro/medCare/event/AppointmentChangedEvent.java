@@ -0,0 +1,29 @@
+package ro.medCare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AppointmentChangedEvent {
+
+    private final AppointmentChangeType type;
+    private final AppointmentSnapshot previous;
+    private final AppointmentSnapshot current;
+
+    public static AppointmentChangedEvent created(AppointmentSnapshot current) {
+        return new AppointmentChangedEvent(AppointmentChangeType.CREATED, null, current);
+    }
+
+    public static AppointmentChangedEvent updated(AppointmentSnapshot previous, AppointmentSnapshot current) {
+        return new AppointmentChangedEvent(AppointmentChangeType.UPDATED, previous, current);
+    }
+
+    public static AppointmentChangedEvent statusChanged(AppointmentSnapshot previous, AppointmentSnapshot current) {
+        return new AppointmentChangedEvent(AppointmentChangeType.STATUS_CHANGED, previous, current);
+    }
+
+    public static AppointmentChangedEvent deleted(AppointmentSnapshot previous) {
+        return new AppointmentChangedEvent(AppointmentChangeType.DELETED, previous, null);
+    }
+}
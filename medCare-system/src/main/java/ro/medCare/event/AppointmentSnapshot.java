@@ -0,0 +1,41 @@
+package ro.medCare.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSnapshot {
+
+    private Long id;
+    private String patientName;
+    private Long doctorId;
+    private Long serviceId;
+    private LocalDateTime dateTime;
+    private int duration;
+    private double price;
+    private AppointmentStatus status;
+
+    public static AppointmentSnapshot of(Appointment appointment) {
+        return new AppointmentSnapshot(
+                appointment.getId(),
+                appointment.getPatientName(),
+                appointment.getDoctor().getId(),
+                appointment.getService().getId(),
+                appointment.getDateTime(),
+                appointment.getService().getDuration(),
+                appointment.getService().getPrice(),
+                appointment.getStatus()
+        );
+    }
+
+    public LocalDateTime getEndDateTime() {
+        return dateTime.plusMinutes(duration);
+    }
+}
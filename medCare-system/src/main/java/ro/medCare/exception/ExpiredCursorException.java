@@ -0,0 +1,12 @@
+package ro.medCare.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class ExpiredCursorException extends RuntimeException {
+
+    public ExpiredCursorException(String message) {
+        super(message);
+    }
+}
@@ -3,5 +3,10 @@ package ro.medCare.model;
 public enum AppointmentStatus {
     NEW,
     IN_PROGRESS,
-    COMPLETED
-}
\ No newline at end of file
+    COMPLETED,
+    CANCELED;
+
+    public boolean holdsSlot() {
+        return this != CANCELED;
+    }
+}
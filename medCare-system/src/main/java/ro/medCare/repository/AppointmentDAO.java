@@ -1,18 +1,87 @@
 package ro.medCare.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ro.medCare.dto.AppointmentRow;
+import ro.medCare.dto.AppointmentSlot;
+import ro.medCare.dto.GroupCount;
 import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
+@Transactional(readOnly = true)
 public interface AppointmentDAO extends JpaRepository<Appointment, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"doctor", "service"})
+    List<Appointment> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"doctor", "service"})
+    Optional<Appointment> findById(Long id);
+
+    @EntityGraph(attributePaths = {"doctor", "service"})
     List<Appointment> findByDateTimeBetween(LocalDateTime start, LocalDateTime end);
 
-    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = ?1 AND a.dateTime BETWEEN ?2 AND ?3")
+    @EntityGraph(attributePaths = {"doctor", "service"})
+    List<Appointment> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.service " +
+            "WHERE a.doctor.id = ?1 AND a.dateTime BETWEEN ?2 AND ?3")
     List<Appointment> findByDoctorIdAndDateTimeBetween(Long doctorId, LocalDateTime startDateTime, LocalDateTime endDateTime);
-}
\ No newline at end of file
+
+    @Query("SELECT new ro.medCare.dto.AppointmentSlot(a.id, a.doctor.id, a.service.id, a.dateTime, a.service.duration) " +
+            "FROM Appointment a WHERE a.dateTime >= ?1 " +
+            "AND a.status <> ro.medCare.model.AppointmentStatus.CANCELED")
+    List<AppointmentSlot> findSlotsFrom(LocalDateTime from);
+
+    @Query("SELECT new ro.medCare.dto.AppointmentSlot(a.id, a.doctor.id, a.service.id, a.dateTime, a.service.duration) " +
+            "FROM Appointment a WHERE a.doctor.id = ?1 AND a.dateTime >= ?2 AND a.dateTime < ?3 " +
+            "AND a.status <> ro.medCare.model.AppointmentStatus.CANCELED")
+    List<AppointmentSlot> findSlotsByDoctorIdAndDateTimeRange(Long doctorId, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT new ro.medCare.dto.AppointmentSlot(a.id, a.doctor.id, a.service.id, a.dateTime, a.service.duration) " +
+            "FROM Appointment a WHERE a.doctor.id IN ?1 AND a.dateTime >= ?2 AND a.dateTime < ?3 " +
+            "AND a.status <> ro.medCare.model.AppointmentStatus.CANCELED ORDER BY a.dateTime")
+    List<AppointmentSlot> findSlotsByDoctorIdInAndDateTimeRange(Collection<Long> doctorIds, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.service " +
+            "WHERE a.dateTime >= ?1 AND (a.dateTime > ?1 OR a.id > ?2) " +
+            "AND a.dateTime <= ?3 AND (?4 IS NULL OR a.status = ?4) ORDER BY a.dateTime, a.id")
+    List<Appointment> findPageAfter(LocalDateTime afterDateTime, Long afterId, LocalDateTime end,
+                                    AppointmentStatus status, Pageable pageable);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.service " +
+            "WHERE a.dateTime <= ?1 AND (a.dateTime < ?1 OR a.id < ?2) " +
+            "AND a.dateTime >= ?3 AND (?4 IS NULL OR a.status = ?4) ORDER BY a.dateTime DESC, a.id DESC")
+    List<Appointment> findPageBefore(LocalDateTime beforeDateTime, Long beforeId, LocalDateTime start,
+                                     AppointmentStatus status, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ro.medCare.dto.AppointmentRow(a.id, a.patientName, d.id, d.name, d.specialization, " +
+            "a.dateTime, s.id, s.name, s.price, s.duration, a.status) " +
+            "FROM Appointment a JOIN a.doctor d JOIN a.service s " +
+            "WHERE a.dateTime BETWEEN ?1 AND ?2 ORDER BY a.dateTime, a.id")
+    Stream<AppointmentRow> streamRowsByDateTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new ro.medCare.dto.GroupCount(a.doctor.id, COUNT(a)) FROM Appointment a " +
+            "WHERE a.dateTime BETWEEN ?1 AND ?2 GROUP BY a.doctor.id ORDER BY COUNT(a) DESC, a.doctor.id")
+    List<GroupCount> countByDoctorBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query("SELECT new ro.medCare.dto.GroupCount(a.service.id, COUNT(a)) FROM Appointment a " +
+            "WHERE a.dateTime BETWEEN ?1 AND ?2 GROUP BY a.service.id ORDER BY COUNT(a) DESC, a.service.id")
+    List<GroupCount> countByServiceBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
+}
@@ -0,0 +1,57 @@
+package ro.medCare.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ro.medCare.dto.AppointmentRow;
+import ro.medCare.dto.GroupCount;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.ArchivedAppointment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ArchivedAppointmentDAO extends JpaRepository<ArchivedAppointment, Long> {
+
+    @EntityGraph(attributePaths = {"doctor", "service"})
+    List<ArchivedAppointment> findByDateTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT a FROM ArchivedAppointment a JOIN FETCH a.doctor JOIN FETCH a.service " +
+            "WHERE a.dateTime >= ?1 AND (a.dateTime > ?1 OR a.id > ?2) " +
+            "AND a.dateTime <= ?3 AND (?4 IS NULL OR a.status = ?4) ORDER BY a.dateTime, a.id")
+    List<ArchivedAppointment> findPageAfter(LocalDateTime afterDateTime, Long afterId, LocalDateTime end,
+                                            AppointmentStatus status, Pageable pageable);
+
+    @Query("SELECT a FROM ArchivedAppointment a JOIN FETCH a.doctor JOIN FETCH a.service " +
+            "WHERE a.dateTime <= ?1 AND (a.dateTime < ?1 OR a.id < ?2) " +
+            "AND a.dateTime >= ?3 AND (?4 IS NULL OR a.status = ?4) ORDER BY a.dateTime DESC, a.id DESC")
+    List<ArchivedAppointment> findPageBefore(LocalDateTime beforeDateTime, Long beforeId, LocalDateTime start,
+                                             AppointmentStatus status, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ro.medCare.dto.AppointmentRow(a.id, a.patientName, d.id, d.name, d.specialization, " +
+            "a.dateTime, s.id, s.name, s.price, s.duration, a.status) " +
+            "FROM ArchivedAppointment a JOIN a.doctor d JOIN a.service s " +
+            "WHERE a.dateTime BETWEEN ?1 AND ?2 ORDER BY a.dateTime, a.id")
+    Stream<AppointmentRow> streamRowsByDateTimeBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new ro.medCare.dto.GroupCount(a.doctor.id, COUNT(a)) FROM ArchivedAppointment a " +
+            "WHERE a.dateTime BETWEEN ?1 AND ?2 GROUP BY a.doctor.id")
+    List<GroupCount> countByDoctorBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new ro.medCare.dto.GroupCount(a.service.id, COUNT(a)) FROM ArchivedAppointment a " +
+            "WHERE a.dateTime BETWEEN ?1 AND ?2 GROUP BY a.service.id")
+    List<GroupCount> countByServiceBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT MAX(a.dateTime) FROM ArchivedAppointment a")
+    LocalDateTime findLatestDateTime();
+}
@@ -1,12 +1,66 @@
 package ro.medCare.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ro.medCare.model.Doctor;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface DoctorDAO extends JpaRepository<Doctor, Long> {
+
+    String CACHE = "doctors";
+    String LIST_CACHE = "doctorLists";
+
+    @Override
+    @Cacheable(cacheNames = CACHE, key = "#p0")
+    Optional<Doctor> findById(Long id);
+
+    @Override
+    @Cacheable(cacheNames = LIST_CACHE, key = "'all'")
+    List<Doctor> findAll();
+
+    @Cacheable(cacheNames = LIST_CACHE, key = "'specialization:' + #p0")
     List<Doctor> findBySpecialization(String specialization);
-}
\ No newline at end of file
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE, key = "#result.id"),
+            @CacheEvict(cacheNames = LIST_CACHE, allEntries = true)
+    })
+    <S extends Doctor> S save(S doctor);
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE, allEntries = true),
+            @CacheEvict(cacheNames = LIST_CACHE, allEntries = true)
+    })
+    <S extends Doctor> List<S> saveAll(Iterable<S> doctors);
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE, key = "#p0"),
+            @CacheEvict(cacheNames = LIST_CACHE, allEntries = true)
+    })
+    void deleteById(Long id);
+
+    List<Doctor> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Doctor d WHERE d.id = ?1")
+    Optional<Doctor> findByIdForUpdate(Long id);
+}
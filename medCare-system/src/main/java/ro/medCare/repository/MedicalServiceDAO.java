@@ -1,9 +1,60 @@
 package ro.medCare.repository;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ro.medCare.model.MedicalService;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
+@Transactional(readOnly = true)
 public interface MedicalServiceDAO extends JpaRepository<MedicalService, Long> {
-}
\ No newline at end of file
+
+    String CACHE = "medicalServices";
+    String LIST_CACHE = "medicalServiceLists";
+
+    @Override
+    @Cacheable(cacheNames = CACHE, key = "#p0")
+    Optional<MedicalService> findById(Long id);
+
+    @Override
+    @Cacheable(cacheNames = LIST_CACHE, key = "'all'")
+    List<MedicalService> findAll();
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE, key = "#result.id"),
+            @CacheEvict(cacheNames = LIST_CACHE, allEntries = true)
+    })
+    <S extends MedicalService> S save(S medicalService);
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE, allEntries = true),
+            @CacheEvict(cacheNames = LIST_CACHE, allEntries = true)
+    })
+    <S extends MedicalService> List<S> saveAll(Iterable<S> medicalServices);
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CACHE, key = "#p0"),
+            @CacheEvict(cacheNames = LIST_CACHE, allEntries = true)
+    })
+    void deleteById(Long id);
+
+    List<MedicalService> findByIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    @Cacheable(cacheNames = LIST_CACHE, key = "'longestDuration'")
+    @Query("SELECT COALESCE(MAX(s.duration), 0) FROM MedicalService s")
+    int findLongestDuration();
+}
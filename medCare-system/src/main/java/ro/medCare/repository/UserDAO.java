@@ -1,8 +1,14 @@
 package ro.medCare.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ro.medCare.model.User;
+
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +17,11 @@ public interface UserDAO extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = ?3 WHERE u.id = ?1 AND u.password = ?2")
+    int updatePassword(Long id, String currentPassword, String newPassword);
+
+    List<User> findByIdGreaterThanOrderById(Long id, Pageable pageable);
 }
\ No newline at end of file
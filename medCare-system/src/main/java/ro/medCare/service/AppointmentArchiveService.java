@@ -0,0 +1,230 @@
+package ro.medCare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.dto.AppointmentRow;
+import ro.medCare.dto.GroupCount;
+import ro.medCare.event.AppointmentChangeType;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.ArchivedAppointment;
+import ro.medCare.repository.ArchivedAppointmentDAO;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class AppointmentArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentArchiveService.class);
+
+    private static final String COLUMNS = "id, patient_name, doctor_id, date_time, service_id, status, version";
+    private static final String JOB = "appointment-archive";
+
+    private final ArchivedAppointmentDAO archivedAppointmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportCache reportCache;
+    private final AppointmentChangeLog changeLog;
+    private final JobLeases jobLeases;
+    private final Counter archivedAppointments;
+    private final boolean enabled;
+    private final int minAgeDays;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final int maxBatchesPerRun;
+    private final Duration lease;
+    // Latest archived date_time as last read by this node, LocalDateTime.MIN when the archive is empty.
+    private volatile LocalDateTime horizon;
+
+    @Autowired
+    public AppointmentArchiveService(ArchivedAppointmentDAO archivedAppointmentRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     ReportCache reportCache,
+                                     AppointmentChangeLog changeLog,
+                                     JobLeases jobLeases,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${medcare.archive.enabled:true}") boolean enabled,
+                                     @Value("${medcare.archive.min-age-days:365}") int minAgeDays,
+                                     @Value("${medcare.archive.batch-size:500}") int batchSize,
+                                     @Value("${medcare.archive.pause-ms:200}") long pauseMillis,
+                                     @Value("${medcare.archive.max-batches-per-run:2000}") int maxBatchesPerRun,
+                                     @Value("${medcare.archive.lease-ms:600000}") long leaseMillis) {
+        if (minAgeDays < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Archive age and batch size must be positive!");
+        }
+        this.archivedAppointmentRepository = archivedAppointmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.reportCache = reportCache;
+        this.changeLog = changeLog;
+        this.jobLeases = jobLeases;
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.archivedAppointments = Counter.builder("medcare.archive.appointments")
+                .description("Completed appointments moved from the hot table into the archive")
+                .register(meterRegistry);
+    }
+
+    public boolean covers(LocalDateTime start) {
+        LocalDateTime through = horizon != null ? horizon : refreshHorizon();
+        if (enabled) {
+            // Another node may have archived since the last refresh, but never past its age cutoff; a day of slack
+            // absorbs clock skew around midnight.
+            LocalDateTime cutoff = LocalDate.now().plusDays(1).minusDays(minAgeDays).atStartOfDay();
+            through = through.isAfter(cutoff) ? through : cutoff;
+        }
+        return !start.isAfter(through);
+    }
+
+    private LocalDateTime refreshHorizon() {
+        LocalDateTime through = archivedAppointmentRepository.findLatestDateTime();
+        horizon = through != null ? through : LocalDateTime.MIN;
+        return horizon;
+    }
+
+    public List<Appointment> findByDateTimeBetween(LocalDateTime start, LocalDateTime end) {
+        if (!covers(start)) {
+            return Collections.emptyList();
+        }
+        return archivedAppointmentRepository.findByDateTimeBetween(start, end).stream()
+                .map(ArchivedAppointment::toAppointment)
+                .toList();
+    }
+
+    public List<Appointment> findPageAfter(LocalDateTime afterDateTime, Long afterId, LocalDateTime end,
+                                          AppointmentStatus status, Pageable pageable) {
+        if (!covers(afterDateTime)) {
+            return Collections.emptyList();
+        }
+        return archivedAppointmentRepository.findPageAfter(afterDateTime, afterId, end, status, pageable).stream()
+                .map(ArchivedAppointment::toAppointment)
+                .toList();
+    }
+
+    public List<Appointment> findPageBefore(LocalDateTime beforeDateTime, Long beforeId, LocalDateTime start,
+                                           AppointmentStatus status, Pageable pageable) {
+        if (!covers(start)) {
+            return Collections.emptyList();
+        }
+        return archivedAppointmentRepository.findPageBefore(beforeDateTime, beforeId, start, status, pageable).stream()
+                .map(ArchivedAppointment::toAppointment)
+                .toList();
+    }
+
+    public Stream<AppointmentRow> streamRowsByDateTimeBetween(LocalDateTime start, LocalDateTime end) {
+        return covers(start) ? archivedAppointmentRepository.streamRowsByDateTimeBetween(start, end) : Stream.empty();
+    }
+
+    public List<GroupCount> countByDoctorBetween(LocalDateTime start, LocalDateTime end) {
+        return covers(start) ? archivedAppointmentRepository.countByDoctorBetween(start, end) : Collections.emptyList();
+    }
+
+    public List<GroupCount> countByServiceBetween(LocalDateTime start, LocalDateTime end) {
+        return covers(start) ? archivedAppointmentRepository.countByServiceBetween(start, end) : Collections.emptyList();
+    }
+
+    @Scheduled(cron = "${medcare.archive.cron:0 30 2 * * *}")
+    public void archiveCompleted() {
+        if (enabled) {
+            archive(LocalDate.now().minusDays(minAgeDays).atStartOfDay());
+        }
+    }
+
+    public int archive(LocalDateTime olderThan) {
+        if (!jobLeases.acquire(JOB, lease)) {
+            return 0;
+        }
+        // The previous holder may have been another node.
+        refreshHorizon();
+
+        int archived = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                Integer moved = transactionTemplate.execute(tx -> moveBatch(olderThan));
+                if (moved > 0) {
+                    refreshHorizon();
+                }
+                archived += moved;
+                if (moved < batchSize || !pause() || !jobLeases.renew(JOB, lease)) {
+                    break;
+                }
+            }
+        } finally {
+            jobLeases.release(JOB);
+            if (archived > 0) {
+                reportCache.invalidateAll();
+            }
+        }
+
+        if (archived > 0) {
+            logger.info("Archived {} completed appointments older than {}", archived, olderThan);
+        }
+        return archived;
+    }
+
+    private int moveBatch(LocalDateTime olderThan) {
+        String completed = AppointmentStatus.COMPLETED.name();
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM appointments WHERE status = ? AND date_time < ? ORDER BY date_time, id LIMIT ? FOR UPDATE",
+                Long.class, completed, Timestamp.valueOf(olderThan), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> arguments = new ArrayList<>(ids.size() + 1);
+        arguments.add(completed);
+        arguments.addAll(ids);
+
+        List<Object> insertArguments = new ArrayList<>(arguments.size() + 1);
+        insertArguments.add(Timestamp.valueOf(LocalDateTime.now()));
+        insertArguments.addAll(arguments);
+        int copied = jdbcTemplate.update("INSERT INTO archived_appointments (" + COLUMNS + ", archived_at) SELECT "
+                + COLUMNS + ", ? FROM appointments WHERE status = ? AND id IN (" + placeholders + ")",
+                insertArguments.toArray());
+
+        int deleted = jdbcTemplate.update("DELETE FROM appointments WHERE status = ? AND id IN (" + placeholders + ")",
+                arguments.toArray());
+        if (deleted != copied) {
+            throw new IllegalStateException("Archived " + copied + " appointments but removed " + deleted + "!");
+        }
+
+        changeLog.record(ids, AppointmentChangeType.ARCHIVED);
+        archivedAppointments.increment(deleted);
+        return deleted;
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package ro.medCare.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.dto.AppointmentChangeDTO;
+import ro.medCare.dto.AppointmentChangeRow;
+import ro.medCare.dto.CursorPage;
+import ro.medCare.event.AppointmentChangeType;
+import ro.medCare.event.AppointmentChangedEvent;
+import ro.medCare.event.AppointmentSnapshot;
+import ro.medCare.exception.ExpiredCursorException;
+import ro.medCare.model.Appointment;
+import ro.medCare.repository.AppointmentDAO;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class AppointmentChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentChangeLog.class);
+
+    private static final String FEED = "appointments";
+    private static final int DELETE_BATCH_SIZE = 500;
+    private static final int SEQUENCE_BATCH_SIZE = 1000;
+    private static final String SELECT_CHANGES = "SELECT seq, appointment_id, change_type, changed_at, doctor_id, slot_date, "
+            + "previous_doctor_id, previous_slot_date FROM appointment_changes ";
+    private static final RowMapper<AppointmentChangeRow> CHANGE_ROW = (rs, rowNum) -> new AppointmentChangeRow(
+            rs.getLong(1), rs.getLong(2), AppointmentChangeType.valueOf(rs.getString(3)),
+            rs.getTimestamp(4).toLocalDateTime(), rs.getObject(5, Long.class), rs.getObject(6, LocalDate.class),
+            rs.getObject(7, Long.class), rs.getObject(8, LocalDate.class));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AppointmentDAO appointmentRepository;
+    private final CursorPaging paging;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int supersededGraceMinutes;
+
+    @Autowired
+    public AppointmentChangeLog(JdbcTemplate jdbcTemplate,
+                                AppointmentDAO appointmentRepository,
+                                CursorPaging paging,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${medcare.changes.retention-days:7}") int retentionDays,
+                                @Value("${medcare.changes.superseded-grace-minutes:1}") int supersededGraceMinutes) {
+        if (retentionDays < 1) {
+            throw new IllegalArgumentException("Change feed retention must be positive!");
+        }
+        if (supersededGraceMinutes < 0) {
+            throw new IllegalArgumentException("Superseded change grace period must not be negative!");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.appointmentRepository = appointmentRepository;
+        this.paging = paging;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = retentionDays;
+        this.supersededGraceMinutes = supersededGraceMinutes;
+    }
+
+    @EventListener
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        AppointmentSnapshot previous = event.getPrevious();
+        AppointmentSnapshot current = event.getCurrent() != null ? event.getCurrent() : previous;
+        AppointmentSnapshot left = previous != null && !sameDoctorAndDay(previous, current) ? previous : null;
+        AppointmentSnapshot counted = event.getCurrent();
+
+        append(List.<Object[]>of(new Object[]{current.getId(), event.getType().name(), current.getDoctorId(),
+                current.getDateTime().toLocalDate(), left != null ? left.getDoctorId() : null,
+                left != null ? left.getDateTime().toLocalDate() : null,
+                counted != null ? counted.getServiceId() : null, counted != null ? counted.getStatus().name() : null,
+                previous != null ? previous.getServiceId() : null, previous != null ? previous.getStatus().name() : null}));
+    }
+
+    public void record(Collection<Long> appointmentIds, AppointmentChangeType type) {
+        List<Object[]> rows = new ArrayList<>(appointmentIds.size());
+        appointmentIds.forEach(id -> rows.add(new Object[]{id, type.name(), null, null, null, null, null, null, null, null}));
+        append(rows);
+    }
+
+    private void append(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(rows);
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.addAll(rows);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentChangeDTO> getChanges(String since, Integer size) {
+        Pageable limit = paging.limit(size);
+        if (since == null) {
+            return new CursorPage<>(Collections.emptyList(), paging.encode(head()), false);
+        }
+
+        long after = paging.decodeId(since);
+        if (after < compactedThrough()) {
+            throw new ExpiredCursorException("Change cursor has expired, reload all appointments!");
+        }
+
+        List<AppointmentChangeRow> rows = readAfter(after, limit.getPageSize());
+        boolean hasMore = rows.size() == limit.getPageSize();
+        if (hasMore) {
+            rows = rows.subList(0, rows.size() - 1);
+        }
+        if (rows.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), since, false);
+        }
+
+        Collection<AppointmentChangeRow> latest = latestPerAppointment(rows);
+        Map<Long, Appointment> appointments = findLiveAppointments(latest);
+
+        List<AppointmentChangeDTO> changes = new ArrayList<>(latest.size());
+        for (AppointmentChangeRow row : latest) {
+            changes.add(toDTO(row, appointments.get(row.getAppointmentId())));
+        }
+        return new CursorPage<>(changes, paging.encode(rows.get(rows.size() - 1).getId()), hasMore);
+    }
+
+    @Transactional(readOnly = true)
+    public long head() {
+        return jdbcTemplate.queryForObject(
+                "SELECT sequenced_through FROM change_feed_horizons WHERE feed = ?", Long.class, FEED);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppointmentChangeRow> readAfter(long after, int limit) {
+        return jdbcTemplate.query(SELECT_CHANGES + "WHERE seq > ? ORDER BY seq LIMIT ?", CHANGE_ROW, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Appointment> findLiveAppointments(Collection<AppointmentChangeRow> changes) {
+        List<Long> liveIds = changes.stream()
+                .filter(row -> !row.getType().isTombstone())
+                .map(AppointmentChangeRow::getAppointmentId)
+                .distinct()
+                .toList();
+        return liveIds.isEmpty() ? Collections.emptyMap()
+                : appointmentRepository.findByIdIn(liveIds).stream()
+                .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+    }
+
+    public static Collection<AppointmentChangeRow> latestPerAppointment(List<AppointmentChangeRow> rows) {
+        Map<Long, AppointmentChangeRow> latest = new LinkedHashMap<>();
+        for (AppointmentChangeRow row : rows) {
+            latest.remove(row.getAppointmentId());
+            latest.put(row.getAppointmentId(), row);
+        }
+        return latest.values();
+    }
+
+    public static AppointmentChangeDTO toDTO(AppointmentChangeRow row, Appointment appointment) {
+        AppointmentChangeType type = row.getType().isTombstone() || appointment != null
+                ? row.getType() : AppointmentChangeType.DELETED;
+        return new AppointmentChangeDTO(row.getAppointmentId(), type, row.getChangedAt(), appointment);
+    }
+
+    @Scheduled(fixedDelayString = "${medcare.changes.sequence-ms:200}")
+    public void sequenceChanges() {
+        transactionTemplate.executeWithoutResult(tx -> sequence());
+    }
+
+    private void sequence() {
+        long sequencedThrough = jdbcTemplate.queryForObject(
+                "SELECT sequenced_through FROM change_feed_horizons WHERE feed = ? FOR UPDATE", Long.class, FEED);
+        List<Long> committed = jdbcTemplate.queryForList(
+                "SELECT id FROM appointment_changes WHERE seq IS NULL ORDER BY id LIMIT ?", Long.class, SEQUENCE_BATCH_SIZE);
+        if (committed.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> positions = new ArrayList<>(committed.size());
+        for (Long id : committed) {
+            positions.add(new Object[]{++sequencedThrough, id});
+        }
+        jdbcTemplate.batchUpdate("UPDATE appointment_changes SET seq = ? WHERE id = ? AND seq IS NULL", positions);
+        jdbcTemplate.update("UPDATE change_feed_horizons SET sequenced_through = ? WHERE feed = ?", sequencedThrough, FEED);
+    }
+
+    @Scheduled(cron = "${medcare.changes.compact-cron:0 */10 * * * *}")
+    public void compactChanges() {
+        Timestamp now = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP(6)", Timestamp.class);
+        compact(now.toLocalDateTime().minusDays(retentionDays));
+    }
+
+    public int compact(LocalDateTime retainAfter) {
+        // Superseded entries are kept for a grace period so that statistics stores tailing the log usually see them;
+        // one that falls further behind finds its position below superseded_through and reconciles.
+        Timestamp settled = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP(6)", Timestamp.class);
+        List<long[]> superseded = jdbcTemplate.query(
+                "SELECT DISTINCT older.id, older.seq FROM appointment_changes older JOIN appointment_changes newer "
+                        + "ON newer.appointment_id = older.appointment_id AND newer.seq > older.seq "
+                        + "WHERE older.changed_at < ?", (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                Timestamp.valueOf(settled.toLocalDateTime().minusMinutes(supersededGraceMinutes)));
+        int removed = transactionTemplate.execute(tx -> removeSuperseded(superseded));
+        removed += transactionTemplate.execute(tx -> expire(retainAfter));
+
+        if (removed > 0) {
+            logger.info("Compacted {} appointment change log entries", removed);
+        }
+        return removed;
+    }
+
+    private int removeSuperseded(List<long[]> superseded) {
+        if (superseded.isEmpty()) {
+            return 0;
+        }
+        long horizon = superseded.stream().mapToLong(entry -> entry[1]).max().getAsLong();
+        jdbcTemplate.update("UPDATE change_feed_horizons SET superseded_through = ? "
+                + "WHERE feed = ? AND superseded_through < ?", horizon, FEED, horizon);
+        return deleteByIds(superseded.stream().map(entry -> entry[0]).toList());
+    }
+
+    private int expire(LocalDateTime retainAfter) {
+        Long horizon = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(seq), 0) FROM appointment_changes WHERE changed_at < ?",
+                Long.class, Timestamp.valueOf(retainAfter));
+        if (horizon == 0) {
+            return 0;
+        }
+        jdbcTemplate.update("UPDATE change_feed_horizons SET compacted_through = ? "
+                + "WHERE feed = ? AND compacted_through < ?", horizon, FEED, horizon);
+        return jdbcTemplate.update("DELETE FROM appointment_changes WHERE seq <= ?", horizon);
+    }
+
+    private long compactedThrough() {
+        return jdbcTemplate.queryForObject(
+                "SELECT compacted_through FROM change_feed_horizons WHERE feed = ?", Long.class, FEED);
+    }
+
+    private int deleteByIds(List<Long> ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size()));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            deleted += jdbcTemplate.update("DELETE FROM appointment_changes WHERE id IN (" + placeholders + ")",
+                    batch.toArray());
+        }
+        return deleted;
+    }
+
+    private static boolean sameDoctorAndDay(AppointmentSnapshot previous, AppointmentSnapshot current) {
+        return previous.getDoctorId().equals(current.getDoctorId())
+                && previous.getDateTime().toLocalDate().equals(current.getDateTime().toLocalDate());
+    }
+
+    private void insert(List<Object[]> changes) {
+        jdbcTemplate.batchUpdate("INSERT INTO appointment_changes (appointment_id, change_type, doctor_id, slot_date, "
+                + "previous_doctor_id, previous_slot_date, service_id, status, previous_service_id, previous_status) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", changes);
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<Object[]> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AppointmentChangeLog.this);
+        }
+    }
+}
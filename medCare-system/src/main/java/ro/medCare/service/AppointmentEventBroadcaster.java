@@ -0,0 +1,360 @@
+package ro.medCare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ro.medCare.dto.AppointmentChangeRow;
+import ro.medCare.exception.TooManyRequestsException;
+import ro.medCare.model.Appointment;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class AppointmentEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentEventBroadcaster.class);
+
+    private static final String BUSY_MESSAGE = "Too many event subscribers, please retry shortly!";
+    private static final String RESYNC_EVENT = "RESYNC";
+    private static final long NOT_POLLING = -1;
+
+    private final AppointmentChangeLog changeLog;
+    private final CursorPaging paging;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long retryAfterSeconds;
+    private final int pollLimit;
+    private final int coalesceThreshold;
+    private final long stallNanos;
+    private final Counter resyncs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    private long polledThrough = NOT_POLLING;
+
+    @Autowired
+    public AppointmentEventBroadcaster(AppointmentChangeLog changeLog,
+                                       CursorPaging paging,
+                                       ObjectMapper objectMapper,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${medcare.events.timeout-ms:1800000}") long timeoutMillis,
+                                       @Value("${medcare.events.buffer-size:64}") int bufferSize,
+                                       @Value("${medcare.events.max-subscribers:5000}") int maxSubscribers,
+                                       @Value("${medcare.events.retry-after-seconds:5}") long retryAfterSeconds,
+                                       @Value("${medcare.events.poll-limit:500}") int pollLimit,
+                                       @Value("${medcare.events.coalesce-threshold:20}") int coalesceThreshold,
+                                       @Value("${medcare.events.stall-timeout-ms:60000}") long stallTimeoutMillis) {
+        this(changeLog, paging, objectMapper, meterRegistry,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("appointment-events-", 1).factory()),
+                timeoutMillis, bufferSize, maxSubscribers, retryAfterSeconds, pollLimit, coalesceThreshold,
+                stallTimeoutMillis);
+    }
+
+    AppointmentEventBroadcaster(AppointmentChangeLog changeLog,
+                                CursorPaging paging,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                Executor executor,
+                                long timeoutMillis,
+                                int bufferSize,
+                                int maxSubscribers,
+                                long retryAfterSeconds,
+                                int pollLimit,
+                                int coalesceThreshold,
+                                long stallTimeoutMillis) {
+        if (bufferSize < 2 || maxSubscribers < 1 || pollLimit < 1 || coalesceThreshold < 1) {
+            throw new IllegalArgumentException(
+                    "Event buffer size must be at least 2, subscriber, poll and coalescing limits must be positive!");
+        }
+        this.changeLog = changeLog;
+        this.paging = paging;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.pollLimit = pollLimit;
+        this.coalesceThreshold = coalesceThreshold;
+        this.stallNanos = TimeUnit.MILLISECONDS.toNanos(stallTimeoutMillis);
+        this.resyncs = Counter.builder("medcare.events.resyncs")
+                .description("Appointment event streams told to reload instead of receiving individual changes")
+                .register(meterRegistry);
+        Gauge.builder("medcare.events.subscribers", subscribers, Set::size)
+                .description("Open appointment event streams")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long doctorId, LocalDate day) {
+        if (reserved.incrementAndGet() > maxSubscribers) {
+            reserved.decrementAndGet();
+            throw new TooManyRequestsException(BUSY_MESSAGE, retryAfterSeconds);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, doctorId, day);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(error -> close(subscriber));
+        subscribers.add(subscriber);
+        startPolling();
+        subscriber.enqueue(SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${medcare.events.poll-ms:500}")
+    public synchronized void poll() {
+        if (subscribers.isEmpty()) {
+            polledThrough = NOT_POLLING;
+            return;
+        }
+        startPolling();
+
+        List<AppointmentChangeRow> rows = changeLog.readAfter(polledThrough, pollLimit + 1);
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (rows.size() > pollLimit) {
+            polledThrough = changeLog.head();
+            Set<DataWithMediaType> resync = resyncFrame();
+            subscribers.forEach(subscriber -> subscriber.resync(resync));
+            return;
+        }
+        polledThrough = rows.get(rows.size() - 1).getId();
+
+        Collection<AppointmentChangeRow> changes = AppointmentChangeLog.latestPerAppointment(rows);
+        Map<Subscriber, List<AppointmentChangeRow>> matched = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            List<AppointmentChangeRow> matching = changes.stream().filter(subscriber::matches).toList();
+            if (!matching.isEmpty()) {
+                matched.put(subscriber, matching);
+            }
+        }
+        if (matched.isEmpty()) {
+            return;
+        }
+
+        Set<DataWithMediaType> resync = resyncFrame();
+        List<AppointmentChangeRow> delivered = new ArrayList<>();
+        matched.forEach((subscriber, matching) -> {
+            if (matching.size() > coalesceThreshold) {
+                subscriber.resync(resync);
+            } else {
+                delivered.addAll(matching);
+            }
+        });
+        if (delivered.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Appointment> appointments = changeLog.findLiveAppointments(delivered);
+        Map<Long, Set<DataWithMediaType>> frames = new HashMap<>();
+        matched.forEach((subscriber, matching) -> {
+            if (matching.size() > coalesceThreshold) {
+                return;
+            }
+            for (AppointmentChangeRow row : matching) {
+                Set<DataWithMediaType> frame = frames.computeIfAbsent(row.getId(), id -> changeFrame(row, appointments));
+                if (frame != null) {
+                    subscriber.enqueue(frame);
+                }
+            }
+        });
+    }
+
+    private synchronized void startPolling() {
+        if (polledThrough == NOT_POLLING) {
+            polledThrough = changeLog.head();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${medcare.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                evict(subscriber, "slow-consumer");
+            } else {
+                subscriber.enqueue(heartbeat);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> evict(subscriber, "shutdown"));
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private Set<DataWithMediaType> changeFrame(AppointmentChangeRow row, Map<Long, Appointment> appointments) {
+        try {
+            return SseEmitter.event()
+                    .id(paging.encode(row.getId()))
+                    .name(row.getType().name())
+                    .data(objectMapper.writeValueAsString(
+                            AppointmentChangeLog.toDTO(row, appointments.get(row.getAppointmentId()))),
+                            MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize appointment change {}", row.getId(), e);
+            return null;
+        }
+    }
+
+    private Set<DataWithMediaType> resyncFrame() {
+        String cursor = paging.encode(polledThrough);
+        return SseEmitter.event().id(cursor).name(RESYNC_EVENT).data(cursor).build();
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        if (!close(subscriber)) {
+            return;
+        }
+        Counter.builder("medcare.events.evictions")
+                .description("Appointment event streams closed by the server")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        execute(subscriber.emitter::complete);
+    }
+
+    private boolean close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        if (!subscribers.remove(subscriber)) {
+            return false;
+        }
+        reserved.decrementAndGet();
+        return true;
+    }
+
+    private boolean execute(Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long doctorId;
+        private final LocalDate day;
+        private final ArrayBlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+        private volatile long lastProgress = System.nanoTime();
+
+        private Subscriber(SseEmitter emitter, Long doctorId, LocalDate day) {
+            this.emitter = emitter;
+            this.doctorId = doctorId;
+            this.day = day;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        private boolean matches(AppointmentChangeRow row) {
+            return matches(row.getDoctorId(), row.getDay())
+                    || row.getPreviousDoctorId() != null && matches(row.getPreviousDoctorId(), row.getPreviousDay());
+        }
+
+        private boolean matches(Long changedDoctorId, LocalDate changedDay) {
+            return (doctorId == null || doctorId.equals(changedDoctorId))
+                    && (day == null || day.equals(changedDay));
+        }
+
+        private boolean isStalled(long now) {
+            return !queue.isEmpty() && now - lastProgress > stallNanos;
+        }
+
+        private void enqueue(Set<DataWithMediaType> message) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                resync(resyncFrame());
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void resync(Set<DataWithMediaType> resync) {
+            if (closed) {
+                return;
+            }
+            synchronized (queue) {
+                queue.clear();
+                queue.offer(resync);
+            }
+            resyncs.increment();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true) && !execute(this::drain)) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> message;
+                while (!closed && (message = queue.poll()) != null) {
+                    emitter.send(message);
+                    lastProgress = System.nanoTime();
+                }
+            } catch (IOException | IllegalStateException e) {
+                evict(this, "disconnected");
+            } finally {
+                draining.set(false);
+            }
+
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package ro.medCare.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.dto.AppointmentImportRow;
+import ro.medCare.dto.AppointmentSlot;
+import ro.medCare.dto.ImportReportDTO;
+import ro.medCare.dto.ImportRowResult;
+import ro.medCare.dto.ImportRowStatus;
+import ro.medCare.event.AppointmentChangedEvent;
+import ro.medCare.event.AppointmentSnapshot;
+import ro.medCare.exception.ValidationException;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.AppointmentDAO;
+import ro.medCare.repository.DoctorDAO;
+import ro.medCare.repository.MedicalServiceDAO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Service
+public class AppointmentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentImportService.class);
+
+    private static final List<String> CSV_COLUMNS = List.of("patientName", "doctorId", "serviceId", "dateTime");
+
+    private final AppointmentDAO appointmentRepository;
+    private final DoctorDAO doctorRepository;
+    private final MedicalServiceDAO medicalServiceRepository;
+    private final DoctorService doctorService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public AppointmentImportService(AppointmentDAO appointmentRepository,
+                                    DoctorDAO doctorRepository,
+                                    MedicalServiceDAO medicalServiceRepository,
+                                    DoctorService doctorService,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ObjectMapper objectMapper,
+                                    @Value("${medcare.import.chunk-size:500}") int chunkSize) {
+        this.appointmentRepository = appointmentRepository;
+        this.doctorRepository = doctorRepository;
+        this.medicalServiceRepository = medicalServiceRepository;
+        this.doctorService = doctorService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public ImportReportDTO importCsv(InputStream input) throws IOException {
+        try (CSVReader reader = new CSVReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)))) {
+            String[] header = reader.readNext();
+            if (header == null) {
+                throw new ValidationException("CSV file is empty!");
+            }
+            int[] columns = csvColumns(header);
+
+            Batch batch = new Batch();
+            int row = 0;
+            String[] line;
+            while (true) {
+                try {
+                    line = reader.readNext();
+                } catch (CsvValidationException e) {
+                    batch.reject(row + 1, "Malformed CSV: " + e.getMessage());
+                    break;
+                }
+                if (line == null) {
+                    break;
+                }
+                if (line.length == 1 && line[0].isBlank()) {
+                    continue;
+                }
+
+                row++;
+                try {
+                    batch.add(row, parseCsvRow(line, columns));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    batch.reject(row, "Invalid row: " + e.getMessage());
+                }
+            }
+            return batch.finish();
+        } catch (CsvValidationException e) {
+            throw new ValidationException("Malformed CSV header: " + e.getMessage());
+        }
+    }
+
+    public ImportReportDTO importJson(InputStream input) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            JsonToken first;
+            try {
+                first = parser.nextToken();
+            } catch (JsonProcessingException e) {
+                throw new ValidationException("Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new ValidationException("Expected a JSON array of appointments!");
+            }
+
+            Batch batch = new Batch();
+            int row = 0;
+            while (true) {
+                JsonNode node;
+                try {
+                    if (parser.nextToken() == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    row++;
+                    node = objectMapper.readTree(parser);
+                } catch (JsonProcessingException e) {
+                    batch.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                }
+
+                try {
+                    batch.add(row, objectMapper.treeToValue(node, AppointmentImportRow.class));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    batch.reject(row, "Invalid row: " + (e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage()));
+                }
+            }
+            return batch.finish();
+        }
+    }
+
+    private List<ImportRowResult> importChunk(List<PendingRow> rows) {
+        try {
+            return transactionTemplate.execute(tx -> importChunkInTransaction(rows));
+        } catch (DataAccessException | PersistenceException e) {
+            logger.warn("Appointment import chunk of {} rows rejected", rows.size(), e);
+            return rows.stream()
+                    .map(pending -> ImportRowResult.rejected(pending.row(), "Import chunk could not be saved and was rolled back!"))
+                    .toList();
+        }
+    }
+
+    private List<ImportRowResult> importChunkInTransaction(List<PendingRow> rows) {
+        List<ImportRowResult> results = new ArrayList<>();
+        Map<Long, List<Candidate>> candidatesByDoctor = new TreeMap<>();
+        Map<Long, Optional<Doctor>> doctors = new HashMap<>();
+        Map<Long, Optional<MedicalService>> services = new HashMap<>();
+
+        for (PendingRow pending : rows) {
+            AppointmentImportRow data = pending.data();
+            Optional<Doctor> doctor = doctors.computeIfAbsent(data.getDoctorId(), doctorRepository::findById);
+            if (doctor.isEmpty()) {
+                results.add(ImportRowResult.rejected(pending.row(), "Doctor not found!"));
+                continue;
+            }
+            Optional<MedicalService> service = services.computeIfAbsent(data.getServiceId(), medicalServiceRepository::findById);
+            if (service.isEmpty()) {
+                results.add(ImportRowResult.rejected(pending.row(), "Medical service not found!"));
+                continue;
+            }
+            if (!doctorService.isWithinWorkHours(data.getDoctorId(), data.getDateTime(), service.get().getDuration())) {
+                results.add(ImportRowResult.rejected(pending.row(), "Doctor is not available in the specified time slot!"));
+                continue;
+            }
+
+            candidatesByDoctor.computeIfAbsent(data.getDoctorId(), id -> new ArrayList<>())
+                    .add(new Candidate(pending.row(), data, doctor.get(), service.get()));
+        }
+
+        List<Appointment> accepted = new ArrayList<>();
+        List<Integer> acceptedRows = new ArrayList<>();
+        int lookBack = candidatesByDoctor.isEmpty() ? 0 : medicalServiceRepository.findLongestDuration();
+
+        for (Map.Entry<Long, List<Candidate>> entry : candidatesByDoctor.entrySet()) {
+            Long doctorId = entry.getKey();
+            List<Candidate> candidates = entry.getValue();
+            candidates.sort(Comparator.comparing((Candidate candidate) -> candidate.data().getDateTime())
+                    .thenComparingInt(Candidate::row));
+
+            doctorService.lockDoctorForBooking(doctorId);
+
+            LocalDateTime from = candidates.get(0).data().getDateTime();
+            LocalDateTime to = candidates.stream().map(Candidate::end).max(Comparator.naturalOrder()).orElseThrow();
+            BusyIntervals busy = new BusyIntervals(
+                    appointmentRepository.findSlotsByDoctorIdAndDateTimeRange(doctorId, from.minusMinutes(lookBack), to));
+
+            for (Candidate candidate : candidates) {
+                LocalDateTime start = candidate.data().getDateTime();
+                if (busy.overlaps(start, candidate.end())) {
+                    results.add(ImportRowResult.rejected(candidate.row(), AppointmentService.SLOT_TAKEN_MESSAGE));
+                    continue;
+                }
+
+                busy.add(start, candidate.end());
+                accepted.add(new Appointment(null, candidate.data().getPatientName().trim(), candidate.doctor(),
+                        start, candidate.service(), AppointmentStatus.NEW, null));
+                acceptedRows.add(candidate.row());
+            }
+        }
+
+        appointmentRepository.saveAll(accepted);
+        entityManager.flush();
+
+        for (int i = 0; i < accepted.size(); i++) {
+            Appointment appointment = accepted.get(i);
+            results.add(ImportRowResult.created(acceptedRows.get(i), appointment.getId()));
+            eventPublisher.publishEvent(AppointmentChangedEvent.created(AppointmentSnapshot.of(appointment)));
+        }
+
+        entityManager.clear();
+        return results;
+    }
+
+    private static int[] csvColumns(String[] header) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            positions.putIfAbsent(name, i);
+        }
+
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            Integer position = positions.get(CSV_COLUMNS.get(i).toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new ValidationException("CSV header must contain the columns: " + String.join(", ", CSV_COLUMNS));
+            }
+            columns[i] = position;
+        }
+        return columns;
+    }
+
+    private static AppointmentImportRow parseCsvRow(String[] line, int[] columns) {
+        return new AppointmentImportRow(
+                csvValue(line, columns, 0),
+                Long.valueOf(csvValue(line, columns, 1)),
+                Long.valueOf(csvValue(line, columns, 2)),
+                LocalDateTime.parse(csvValue(line, columns, 3))
+        );
+    }
+
+    private static String csvValue(String[] line, int[] columns, int column) {
+        if (columns[column] >= line.length) {
+            throw new IllegalArgumentException("missing value for " + CSV_COLUMNS.get(column));
+        }
+        return line[columns[column]].trim();
+    }
+
+    private static String validate(AppointmentImportRow data) {
+        if (data == null) {
+            return "Row is empty!";
+        }
+        if (data.getPatientName() == null || data.getPatientName().isBlank()) {
+            return "Patient name is required!";
+        }
+        if (data.getDoctorId() == null) {
+            return "Doctor is required!";
+        }
+        if (data.getServiceId() == null) {
+            return "Medical service is required!";
+        }
+        if (data.getDateTime() == null) {
+            return "Date and time are required!";
+        }
+        return null;
+    }
+
+    private final class Batch {
+
+        private final List<ImportRowResult> results = new ArrayList<>();
+        private final List<PendingRow> pending = new ArrayList<>();
+
+        void add(int row, AppointmentImportRow data) {
+            String error = validate(data);
+            if (error != null) {
+                reject(row, error);
+                return;
+            }
+
+            pending.add(new PendingRow(row, data));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(int row, String message) {
+            results.add(ImportRowResult.rejected(row, message));
+        }
+
+        ImportReportDTO finish() {
+            flush();
+            results.sort(Comparator.comparingInt(ImportRowResult::getRow));
+
+            int created = (int) results.stream().filter(result -> result.getStatus() == ImportRowStatus.CREATED).count();
+            return new ImportReportDTO(results.size(), created, results.size() - created, results);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            results.addAll(importChunk(List.copyOf(pending)));
+            pending.clear();
+        }
+    }
+
+    private record PendingRow(int row, AppointmentImportRow data) {
+    }
+
+    private record Candidate(int row, AppointmentImportRow data, Doctor doctor, MedicalService service) {
+
+        LocalDateTime end() {
+            return data.getDateTime().plusMinutes(service.getDuration());
+        }
+    }
+
+    private static final class BusyIntervals {
+
+        private final NavigableMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+        private long longestMinutes;
+
+        BusyIntervals(List<AppointmentSlot> slots) {
+            slots.forEach(slot -> add(slot.getDateTime(), slot.getEndDateTime()));
+        }
+
+        void add(LocalDateTime start, LocalDateTime end) {
+            intervals.merge(start, end, (current, added) -> current.isAfter(added) ? current : added);
+            longestMinutes = Math.max(longestMinutes, Duration.between(start, end).toMinutes());
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            for (LocalDateTime busyEnd : intervals.subMap(start.minusMinutes(longestMinutes), true, end, false).values()) {
+                if (busyEnd.isAfter(start)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,78 +1,153 @@
 package ro.medCare.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.config.ReadYourWritesWindow;
+import ro.medCare.dto.AppointmentRow;
+import ro.medCare.dto.CursorPage;
+import ro.medCare.dto.GroupCount;
+import ro.medCare.event.AppointmentChangedEvent;
+import ro.medCare.event.AppointmentSnapshot;
+import ro.medCare.exception.BookingConflictException;
 import ro.medCare.exception.ResourceNotFoundException;
 import ro.medCare.exception.ValidationException;
 import ro.medCare.model.*;
 import ro.medCare.repository.AppointmentDAO;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AppointmentService {
 
+    static final String SLOT_TAKEN_MESSAGE = "Doctor already has an appointment in the specified time slot!";
+    private static final String SLOT_CONSTRAINT = "uk_appointments_doctor_active_slot";
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Comparator<Appointment> APPOINTMENT_ORDER =
+            Comparator.comparing(Appointment::getDateTime).thenComparing(Appointment::getId);
+    private static final Comparator<AppointmentRow> ROW_ORDER =
+            Comparator.comparing(AppointmentRow::getDateTime).thenComparing(AppointmentRow::getId);
+
     private final AppointmentDAO appointmentRepository;
     private final DoctorService doctorService;
+    private final MedicalServiceService medicalServiceService;
+    private final DoctorBookingLocks bookingLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CursorPaging paging;
+    private final AppointmentArchiveService archive;
+    private final ReadYourWritesWindow readYourWrites;
+    private final Counter bookingConflicts;
 
     @Autowired
-    public AppointmentService(AppointmentDAO appointmentRepository, DoctorService doctorService) {
+    public AppointmentService(AppointmentDAO appointmentRepository,
+                              DoctorService doctorService,
+                              MedicalServiceService medicalServiceService,
+                              DoctorBookingLocks bookingLocks,
+                              TransactionTemplate transactionTemplate,
+                              ApplicationEventPublisher eventPublisher,
+                              CursorPaging paging,
+                              AppointmentArchiveService archive,
+                              ReadYourWritesWindow readYourWrites,
+                              MeterRegistry meterRegistry) {
         this.appointmentRepository = appointmentRepository;
         this.doctorService = doctorService;
+        this.medicalServiceService = medicalServiceService;
+        this.bookingLocks = bookingLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.paging = paging;
+        this.archive = archive;
+        this.readYourWrites = readYourWrites;
+        this.bookingConflicts = Counter.builder("medcare.booking.conflicts")
+                .description("Bookings rejected because the doctor's slot was taken or busy")
+                .register(meterRegistry);
     }
 
     public Appointment createAppointment(Appointment appointment) {
 
-        if (!doctorService.checkAvailability(
-                appointment.getDoctor().getId(),
-                appointment.getDateTime(),
-                appointment.getService().getDuration())) {
-            throw new ValidationException("Doctor is not available in the specified time slot!");
-        }
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime dateTime = appointment.getDateTime();
+        int duration = appointment.getService().getDuration();
 
-        appointment.setStatus(AppointmentStatus.NEW);
+        try {
+            Appointment createdAppointment = withSlot(doctorId, dateTime, duration, null, () -> {
+                appointment.setStatus(AppointmentStatus.NEW);
 
-        return appointmentRepository.save(appointment);
-    }
+                Appointment savedAppointment = saveAndFlush(appointment);
+                eventPublisher.publishEvent(AppointmentChangedEvent.created(AppointmentSnapshot.of(savedAppointment)));
 
-    public Appointment updateAppointment(Appointment appointment) {
-        if (!appointmentRepository.existsById(appointment.getId())) {
-            throw new ResourceNotFoundException("Appointment not found!");
+                return savedAppointment;
+            });
+            readYourWrites.recordWrite();
+            return createdAppointment;
+        } catch (BookingConflictException e) {
+            bookingConflicts.increment();
+            throw e;
         }
+    }
 
-        Appointment existingAppointment = appointmentRepository.findById(appointment.getId()).orElse(null);
-
-        if (existingAppointment != null &&
-                ((!existingAppointment.getDateTime().equals(appointment.getDateTime())) ||
-                        (!existingAppointment.getDoctor().getId().equals(appointment.getDoctor().getId())) ||
-                        (!existingAppointment.getService().getId().equals(appointment.getService().getId())))) {
+    public Appointment updateAppointment(Appointment appointment) {
+        Appointment existingAppointment = appointmentRepository.findById(appointment.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found!"));
 
-            if (!doctorService.checkAvailability(
-                    appointment.getDoctor().getId(),
-                    appointment.getDateTime(),
-                    appointment.getService().getDuration())) {
-                throw new ValidationException("Doctor is not available in the specified time slot!");
-            }
+        if (existingAppointment.getDateTime().equals(appointment.getDateTime()) &&
+                existingAppointment.getDoctor().getId().equals(appointment.getDoctor().getId()) &&
+                existingAppointment.getService().getId().equals(appointment.getService().getId()) &&
+                !reactivates(existingAppointment, appointment.getStatus())) {
+            Appointment updatedAppointment = transactionTemplate.execute(tx -> applyUpdate(appointment));
+            readYourWrites.recordWrite();
+            return updatedAppointment;
         }
 
-        return appointmentRepository.save(appointment);
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime dateTime = appointment.getDateTime();
+        int duration = appointment.getService().getDuration();
+
+        Appointment updatedAppointment = withSlot(doctorId, dateTime, duration, appointment.getId(),
+                () -> applyUpdate(appointment));
+        readYourWrites.recordWrite();
+        return updatedAppointment;
     }
 
     public Appointment updateAppointmentStatus(Long id, AppointmentStatus status) {
-        Appointment appointment = appointmentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found!"));
+        Appointment existingAppointment = transactionTemplate.execute(tx -> getAppointmentById(id));
+        Long version = existingAppointment.getVersion();
 
-        appointment.setStatus(status);
-        return appointmentRepository.save(appointment);
+        Appointment updatedAppointment = reactivates(existingAppointment, status)
+                ? withSlot(existingAppointment.getDoctor().getId(), existingAppointment.getDateTime(),
+                existingAppointment.getService().getDuration(), id, () -> applyStatus(id, status, version))
+                : transactionTemplate.execute(tx -> applyStatus(id, status, version));
+        readYourWrites.recordWrite();
+        return updatedAppointment;
     }
 
     public void deleteAppointment(Long id) {
-        if (!appointmentRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Appointment not found!");
-        }
-        appointmentRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(tx -> {
+            Appointment appointment = appointmentRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Appointment not found!"));
+
+            appointmentRepository.delete(appointment);
+            eventPublisher.publishEvent(AppointmentChangedEvent.deleted(AppointmentSnapshot.of(appointment)));
+        });
+        readYourWrites.recordWrite();
     }
 
     public Appointment getAppointmentById(Long id) {
@@ -84,26 +159,218 @@ public class AppointmentService {
         return appointmentRepository.findAll();
     }
 
+    public CursorPage<Appointment> getAppointmentsPage(String cursor, Integer size, String direction,
+                                                       LocalDateTime start, LocalDateTime end,
+                                                       AppointmentStatus status) {
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        if (!descending && direction != null && !"asc".equalsIgnoreCase(direction)) {
+            throw new ValidationException("Sort direction must be 'asc' or 'desc'!");
+        }
+
+        LocalDateTime from = start != null ? start : EARLIEST;
+        LocalDateTime to = end != null ? end : LATEST;
+        if (from.isAfter(to)) {
+            throw new ValidationException("Start date must be before end date!");
+        }
+
+        LocalDateTime afterDateTime = descending ? to : from;
+        Long afterId = descending ? Long.MAX_VALUE : Long.MIN_VALUE;
+        if (cursor != null) {
+            String[] key = paging.decode(cursor, 2);
+            try {
+                afterDateTime = LocalDateTime.parse(key[0]);
+                afterId = Long.parseLong(key[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ValidationException("Invalid cursor!");
+            }
+        }
+
+        Pageable limit = paging.limit(size);
+        List<Appointment> rows = descending
+                ? merge(appointmentRepository.findPageBefore(afterDateTime, afterId, from, status, limit),
+                archive.findPageBefore(afterDateTime, afterId, from, status, limit), APPOINTMENT_ORDER.reversed(), limit)
+                : merge(appointmentRepository.findPageAfter(afterDateTime, afterId, to, status, limit),
+                archive.findPageAfter(afterDateTime, afterId, to, status, limit), APPOINTMENT_ORDER, limit);
+
+        return paging.page(rows, limit, appointment -> paging.encode(appointment.getDateTime(), appointment.getId()));
+    }
+
+    private static List<Appointment> merge(List<Appointment> appointments, List<Appointment> archived,
+                                           Comparator<Appointment> order, Pageable limit) {
+        if (archived.isEmpty()) {
+            return appointments;
+        }
+
+        Map<Long, Appointment> combined = new HashMap<>();
+        appointments.forEach(appointment -> combined.put(appointment.getId(), appointment));
+        archived.forEach(appointment -> combined.putIfAbsent(appointment.getId(), appointment));
+        return combined.values().stream().sorted(order).limit(limit.getPageSize()).toList();
+    }
+
     public List<Appointment> getAppointmentsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByDateTimeBetween(start, end);
+        List<Appointment> appointments = appointmentRepository.findByDateTimeBetween(start, end);
+        if (!archive.covers(start)) {
+            return appointments;
+        }
+
+        Map<Long, Appointment> combined = new HashMap<>();
+        appointments.forEach(appointment -> combined.put(appointment.getId(), appointment));
+        archive.findByDateTimeBetween(start, end).forEach(appointment -> combined.putIfAbsent(appointment.getId(), appointment));
+        return combined.values().stream().sorted(APPOINTMENT_ORDER).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachAppointmentInRange(LocalDateTime start, LocalDateTime end, Consumer<AppointmentRow> action) {
+        try (Stream<AppointmentRow> rows = appointmentRepository.streamRowsByDateTimeBetween(start, end);
+             Stream<AppointmentRow> archivedRows = archive.streamRowsByDateTimeBetween(start, end)) {
+            Iterator<AppointmentRow> hot = rows.iterator();
+            Iterator<AppointmentRow> cold = archivedRows.iterator();
+            AppointmentRow nextHot = hot.hasNext() ? hot.next() : null;
+            AppointmentRow nextCold = cold.hasNext() ? cold.next() : null;
+
+            while (nextHot != null || nextCold != null) {
+                int order = nextHot == null ? 1 : nextCold == null ? -1 : ROW_ORDER.compare(nextHot, nextCold);
+                if (order <= 0) {
+                    action.accept(nextHot);
+                    nextHot = hot.hasNext() ? hot.next() : null;
+                }
+                if (order >= 0) {
+                    if (order > 0) {
+                        action.accept(nextCold);
+                    }
+                    nextCold = cold.hasNext() ? cold.next() : null;
+                }
+            }
+        }
+    }
+
+    public Map<Doctor, Long> getMostRequestedDoctors(LocalDateTime start, LocalDateTime end, int limit) {
+
+        List<GroupCount> doctorCounts = topCounts(start, end, limit,
+                appointmentRepository::countByDoctorBetween, archive::countByDoctorBetween);
+        Map<Long, Doctor> doctors = doctorService
+                .getDoctorsByIds(doctorCounts.stream().map(GroupCount::getGroupId).toList()).stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+
+        Map<Doctor, Long> mostRequested = new LinkedHashMap<>();
+        doctorCounts.forEach(count -> mostRequested.put(doctors.get(count.getGroupId()), count.getTotal()));
+        return mostRequested;
+    }
+
+    public Map<MedicalService, Long> getMostRequestedServices(LocalDateTime start, LocalDateTime end, int limit) {
+
+        List<GroupCount> serviceCounts = topCounts(start, end, limit,
+                appointmentRepository::countByServiceBetween, archive::countByServiceBetween);
+        Map<Long, MedicalService> services = medicalServiceService
+                .getMedicalServicesByIds(serviceCounts.stream().map(GroupCount::getGroupId).toList()).stream()
+                .collect(Collectors.toMap(MedicalService::getId, Function.identity()));
+
+        Map<MedicalService, Long> mostRequested = new LinkedHashMap<>();
+        serviceCounts.forEach(count -> mostRequested.put(services.get(count.getGroupId()), count.getTotal()));
+        return mostRequested;
+    }
+
+    private List<GroupCount> topCounts(LocalDateTime start, LocalDateTime end, int limit, GroupCounter hotCounts,
+                                       BiFunction<LocalDateTime, LocalDateTime, List<GroupCount>> archivedCounts) {
+        if (!archive.covers(start)) {
+            return hotCounts.count(start, end, PageRequest.of(0, limit));
+        }
+
+        Map<Long, Long> totals = new HashMap<>();
+        hotCounts.count(start, end, Pageable.unpaged())
+                .forEach(count -> totals.merge(count.getGroupId(), count.getTotal(), Long::sum));
+        archivedCounts.apply(start, end)
+                .forEach(count -> totals.merge(count.getGroupId(), count.getTotal(), Long::sum));
+
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(entry -> new GroupCount(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private void checkSlot(Long doctorId, LocalDateTime dateTime, int duration, Long excludedAppointmentId) {
+        if (!doctorService.isWithinWorkHours(doctorId, dateTime, duration)) {
+            throw new ValidationException("Doctor is not available in the specified time slot!");
+        }
+        if (doctorService.hasKnownConflict(doctorId, dateTime, duration, excludedAppointmentId)) {
+            throw new BookingConflictException(SLOT_TAKEN_MESSAGE);
+        }
+    }
+
+    private Appointment withSlot(Long doctorId, LocalDateTime dateTime, int duration, Long excludedAppointmentId,
+                                 Supplier<Appointment> write) {
+        return bookingLocks.withLock(doctorId, () -> {
+            checkSlot(doctorId, dateTime, duration, excludedAppointmentId);
+
+            return transactionTemplate.execute(tx -> {
+                doctorService.lockDoctorForBooking(doctorId);
+                if (doctorService.hasConflictInDatabase(doctorId, dateTime, duration, excludedAppointmentId)) {
+                    throw new BookingConflictException(SLOT_TAKEN_MESSAGE);
+                }
+                return write.get();
+            });
+        });
+    }
+
+    private static boolean reactivates(Appointment existingAppointment, AppointmentStatus status) {
+        return !existingAppointment.getStatus().holdsSlot() && status != null && status.holdsSlot();
     }
 
-    public Map<Doctor, Long> getMostRequestedDoctors() {
+    private Appointment applyStatus(Long id, AppointmentStatus status, Long version) {
+        Appointment appointment = appointmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found!"));
+
+        if (!appointment.getVersion().equals(version)) {
+            throw new BookingConflictException("Appointment was modified by another user, please reload it!");
+        }
 
-        List<Appointment> appointments = appointmentRepository.findAll();
+        AppointmentSnapshot previous = AppointmentSnapshot.of(appointment);
 
-        Map<Doctor, Long> doctorCounts = appointments.stream()
-                .collect(Collectors.groupingBy(Appointment::getDoctor, Collectors.counting()));
+        appointment.setStatus(status);
+        Appointment saved = saveAndFlush(appointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.statusChanged(previous, AppointmentSnapshot.of(saved)));
 
-        return doctorCounts.entrySet().stream().sorted(Map.Entry.<Doctor, Long>comparingByValue().reversed()).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+        return saved;
     }
 
-    public Map<MedicalService, Long> getMostRequestedServices() {
-        List<Appointment> appointments = appointmentRepository.findAll();
+    private Appointment applyUpdate(Appointment appointment) {
+        Appointment existingAppointment = appointmentRepository.findById(appointment.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found!"));
 
-        Map<MedicalService, Long> serviceCounts = appointments.stream()
-                .collect(Collectors.groupingBy(Appointment::getService, Collectors.counting()));
+        if (appointment.getVersion() != null && !appointment.getVersion().equals(existingAppointment.getVersion())) {
+            throw new BookingConflictException("Appointment was modified by another user, please reload it!");
+        }
+
+        AppointmentSnapshot previous = AppointmentSnapshot.of(existingAppointment);
+
+        existingAppointment.setPatientName(appointment.getPatientName());
+        existingAppointment.setDoctor(appointment.getDoctor());
+        existingAppointment.setDateTime(appointment.getDateTime());
+        existingAppointment.setService(appointment.getService());
+        existingAppointment.setStatus(appointment.getStatus());
+
+        Appointment updatedAppointment = saveAndFlush(existingAppointment);
+        eventPublisher.publishEvent(AppointmentChangedEvent.updated(previous, AppointmentSnapshot.of(updatedAppointment)));
+
+        return updatedAppointment;
+    }
+
+    private Appointment saveAndFlush(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new BookingConflictException("Appointment was modified by another user, please reload it!");
+        } catch (DataIntegrityViolationException e) {
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (cause.toLowerCase().contains(SLOT_CONSTRAINT)) {
+                throw new BookingConflictException(SLOT_TAKEN_MESSAGE);
+            }
+            throw e;
+        }
+    }
 
-        return serviceCounts.entrySet().stream().sorted(Map.Entry.<MedicalService, Long>comparingByValue().reversed()).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+    private interface GroupCounter {
+        List<GroupCount> count(LocalDateTime start, LocalDateTime end, Pageable pageable);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package ro.medCare.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ro.medCare.dto.StatisticsSummaryDTO;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.MedicalServiceDAO;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class AppointmentStatisticsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentStatisticsStore.class);
+
+    private static final int REFRESH_BATCH_SIZE = 1000;
+    private static final String SNAPSHOT = "SELECT 'COUNT' AS kind, doctor_id, service_id, status, COUNT(*) AS total "
+            + "FROM appointments GROUP BY doctor_id, service_id, status "
+            + "UNION ALL SELECT 'COUNT', doctor_id, service_id, status, COUNT(*) "
+            + "FROM archived_appointments GROUP BY doctor_id, service_id, status "
+            + "UNION ALL SELECT 'HEAD', 0, 0, '', sequenced_through FROM change_feed_horizons WHERE feed = 'appointments' "
+            + "UNION ALL SELECT 'PENDING', 0, 0, '', id FROM appointment_changes WHERE seq IS NULL";
+    private static final String TAIL = "SELECT seq, id, doctor_id, service_id, status, "
+            + "COALESCE(previous_doctor_id, doctor_id), previous_service_id, previous_status "
+            + "FROM appointment_changes WHERE seq > ? ORDER BY seq LIMIT ?";
+    private static final String TRUNCATED = "SELECT GREATEST(compacted_through, superseded_through) "
+            + "FROM change_feed_horizons WHERE feed = 'appointments'";
+    private static final RowMapper<LoggedChange> LOGGED_CHANGE = (rs, rowNum) -> new LoggedChange(
+            rs.getLong(1), rs.getLong(2),
+            counted(rs.getObject(3, Long.class), rs.getObject(4, Long.class), rs.getString(5)),
+            counted(rs.getObject(6, Long.class), rs.getObject(7, Long.class), rs.getString(8)));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MedicalServiceDAO medicalServiceRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long total;
+    private Map<Long, Long> byDoctor = new HashMap<>();
+    private Map<Long, Long> byService = new HashMap<>();
+    private Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+
+    private long appliedThrough = -1;
+    private Set<Long> covered = new HashSet<>();
+    private volatile LocalDateTime reconciledAt;
+
+    @Autowired
+    public AppointmentStatisticsStore(JdbcTemplate jdbcTemplate, MedicalServiceDAO medicalServiceRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.medicalServiceRepository = medicalServiceRepository;
+    }
+
+    // One statement reads the counts and the change log position they cover, so the tail never counts a change twice.
+    @Scheduled(cron = "${medcare.statistics.reconcile-cron:0 */15 * * * *}")
+    public synchronized void reconcile() {
+        Map<Long, Long> doctors = new HashMap<>();
+        Map<Long, Long> services = new HashMap<>();
+        Map<AppointmentStatus, Long> statuses = new EnumMap<>(AppointmentStatus.class);
+        Set<Long> pending = new HashSet<>();
+        long[] counted = new long[2];
+
+        jdbcTemplate.query(SNAPSHOT, rs -> {
+            long value = rs.getLong(5);
+            switch (rs.getString(1)) {
+                case "HEAD" -> counted[1] = value;
+                case "PENDING" -> pending.add(value);
+                default -> {
+                    counted[0] += value;
+                    doctors.merge(rs.getLong(2), value, Long::sum);
+                    services.merge(rs.getLong(3), value, Long::sum);
+                    statuses.merge(AppointmentStatus.valueOf(rs.getString(4)), value, Long::sum);
+                }
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            total = counted[0];
+            byDoctor = doctors;
+            byService = services;
+            byStatus = statuses;
+            appliedThrough = counted[1];
+            covered = pending;
+            reconciledAt = LocalDateTime.now();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Appointment statistics reconciled: {} appointments", counted[0]);
+    }
+
+    // Every node, the writing one included, learns of a change only from the log, so the counters trail commits by the
+    // sequencing and refresh delays.
+    @Scheduled(fixedDelayString = "${medcare.statistics.refresh-ms:1000}")
+    public synchronized void refresh() {
+        if (appliedThrough < 0) {
+            return;
+        }
+
+        List<LoggedChange> changes;
+        do {
+            changes = jdbcTemplate.query(TAIL, LOGGED_CHANGE, appliedThrough, REFRESH_BATCH_SIZE);
+            if (changes.isEmpty()) {
+                return;
+            }
+            // Read after the tail, so any entry missing from it was already recorded as compacted.
+            long truncatedThrough = jdbcTemplate.queryForObject(TRUNCATED, Long.class);
+            if (truncatedThrough > appliedThrough) {
+                logger.info("Change log compacted past position {}, reconciling statistics", appliedThrough);
+                reconcile();
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (LoggedChange change : changes) {
+                    // Entries committed before the snapshot but sequenced after it are already in the counters.
+                    if (!covered.remove(change.id())) {
+                        count(change.previous(), -1);
+                        count(change.current(), 1);
+                    }
+                }
+                appliedThrough = changes.get(changes.size() - 1).seq();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (changes.size() == REFRESH_BATCH_SIZE);
+    }
+
+    public StatisticsSummaryDTO getSummary() {
+        long totalAppointments;
+        Map<AppointmentStatus, Long> statusCounts = new EnumMap<>(AppointmentStatus.class);
+        Map<Long, Long> doctorCounts;
+        Map<Long, Long> serviceCounts;
+
+        lock.readLock().lock();
+        try {
+            totalAppointments = total;
+            for (AppointmentStatus status : AppointmentStatus.values()) {
+                statusCounts.put(status, byStatus.getOrDefault(status, 0L));
+            }
+            doctorCounts = positive(byDoctor);
+            serviceCounts = positive(byService);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long bookedMinutes = 0;
+        double revenue = 0;
+        for (MedicalService service : medicalServiceRepository.findAllById(serviceCounts.keySet())) {
+            long count = serviceCounts.get(service.getId());
+            bookedMinutes += count * service.getDuration();
+            revenue += count * service.getPrice();
+        }
+
+        return new StatisticsSummaryDTO(
+                totalAppointments,
+                statusCounts,
+                doctorCounts,
+                serviceCounts,
+                bookedMinutes,
+                revenue,
+                reconciledAt
+        );
+    }
+
+    private void count(Counted appointment, int sign) {
+        if (appointment == null) {
+            return;
+        }
+        total += sign;
+        byDoctor.merge(appointment.doctorId(), (long) sign, Long::sum);
+        byService.merge(appointment.serviceId(), (long) sign, Long::sum);
+        byStatus.merge(appointment.status(), (long) sign, Long::sum);
+    }
+
+    private static Counted counted(Long doctorId, Long serviceId, String status) {
+        return serviceId != null ? new Counted(doctorId, serviceId, AppointmentStatus.valueOf(status)) : null;
+    }
+
+    private static Map<Long, Long> positive(Map<Long, Long> counters) {
+        Map<Long, Long> result = new HashMap<>();
+        counters.forEach((key, value) -> {
+            if (value > 0) {
+                result.put(key, value);
+            }
+        });
+        return result;
+    }
+
+    private record Counted(Long doctorId, Long serviceId, AppointmentStatus status) {
+    }
+
+    private record LoggedChange(long seq, long id, Counted current, Counted previous) {
+    }
+}
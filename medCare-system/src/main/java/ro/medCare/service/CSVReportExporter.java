@@ -1,70 +1,70 @@
 package ro.medCare.service;
 
 import org.springframework.stereotype.Component;
-import ro.medCare.dto.ReportDTO;
-import ro.medCare.model.Appointment;
+import ro.medCare.dto.AppointmentRow;
 import ro.medCare.model.Doctor;
 import ro.medCare.model.MedicalService;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
-import java.time.format.DateTimeFormatter;
-
 @Component
-public class CSVReportExporter implements ReportExporter {
-
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+public class CSVReportExporter {
 
-    @Override
-    public File export(ReportDTO report) throws IOException {
+    private static final int BUFFER_SIZE = 64 * 1024;
 
-        File csvFile = File.createTempFile("report_", ".csv");
+    CsvRowWriter open(OutputStream outputStream) {
+        return new CsvRowWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
 
-        try (FileWriter writer = new FileWriter(csvFile)) {
+    void writeAppointmentHeader(CsvRowWriter rows) throws IOException {
+        rows.line("ID,Patient Name,Doctor,Specialization,Date & Time,Service,Price,Duration,Status");
+    }
 
-            writer.write("ID,Patient Name,Doctor,Specialization,Date & Time,Service,Price,Duration,Status\n");
+    void writeAppointment(AppointmentRow appointment, CsvRowWriter rows) throws IOException {
+        rows.add(appointment.getId())
+                .add(appointment.getPatientName())
+                .add(appointment.getDoctorName())
+                .add(appointment.getSpecialization())
+                .add(appointment.getDateTime())
+                .add(appointment.getServiceName())
+                .addMoney(appointment.getPrice())
+                .add(appointment.getDuration())
+                .add(appointment.getStatus().name())
+                .endRow();
+    }
 
-            for (Appointment appointment : report.getAppointments()) {
-                writer.write(String.format("%d,%s,%s,%s,%s,%s,%.2f,%d,%s\n",
-                        appointment.getId(),
-                        appointment.getPatientName(),
-                        appointment.getDoctor().getName(),
-                        appointment.getDoctor().getSpecialization(),
-                        appointment.getDateTime().format(DATE_FORMATTER),
-                        appointment.getService().getName(),
-                        appointment.getService().getPrice(),
-                        appointment.getService().getDuration(),
-                        appointment.getStatus().name()
-                ));
-            }
+    void writeStatistics(Map<Doctor, Long> doctorStatistics,
+                         Map<MedicalService, Long> serviceStatistics,
+                         CsvRowWriter rows) throws IOException {
 
-            writer.write("\nDoctor Statistics\n");
-            writer.write("Doctor,Specialization,Appointments\n");
+        rows.line("");
+        rows.line("Doctor Statistics");
+        rows.line("Doctor,Specialization,Appointments");
 
-            for (Map.Entry<Doctor, Long> entry : report.getDoctorStatistics().entrySet()) {
-                writer.write(String.format("%s,%s,%d\n",
-                        entry.getKey().getName(),
-                        entry.getKey().getSpecialization(),
-                        entry.getValue()
-                ));
-            }
+        for (Map.Entry<Doctor, Long> entry : doctorStatistics.entrySet()) {
+            rows.add(entry.getKey().getName())
+                    .add(entry.getKey().getSpecialization())
+                    .add(entry.getValue())
+                    .endRow();
+        }
 
-            writer.write("\nService Statistics\n");
-            writer.write("Service,Price,Duration,Appointments\n");
+        rows.line("");
+        rows.line("Service Statistics");
+        rows.line("Service,Price,Duration,Appointments");
 
-            for (Map.Entry<MedicalService, Long> entry : report.getServiceStatistics().entrySet()) {
-                writer.write(String.format("%s,%.2f,%d,%d\n",
-                        entry.getKey().getName(),
-                        entry.getKey().getPrice(),
-                        entry.getKey().getDuration(),
-                        entry.getValue()
-                ));
-            }
+        for (Map.Entry<MedicalService, Long> entry : serviceStatistics.entrySet()) {
+            rows.add(entry.getKey().getName())
+                    .addMoney(entry.getKey().getPrice())
+                    .add(entry.getKey().getDuration())
+                    .add(entry.getValue())
+                    .endRow();
         }
 
-        return csvFile;
+        rows.flush();
     }
-}
\ No newline at end of file
+}
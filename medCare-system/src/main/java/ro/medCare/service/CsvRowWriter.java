@@ -0,0 +1,117 @@
+package ro.medCare.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+
+final class CsvRowWriter {
+
+    private final Writer writer;
+    private final StringBuilder row = new StringBuilder(256);
+    private char[] buffer = new char[256];
+    private boolean firstColumn = true;
+
+    CsvRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    CsvRowWriter add(String value) {
+        separate();
+        if (value == null) {
+            return this;
+        }
+
+        if (needsQuoting(value)) {
+            row.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    row.append('"');
+                }
+                row.append(c);
+            }
+            row.append('"');
+        } else {
+            row.append(value);
+        }
+        return this;
+    }
+
+    CsvRowWriter add(long value) {
+        separate();
+        row.append(value);
+        return this;
+    }
+
+    CsvRowWriter addMoney(double value) {
+        separate();
+        long cents = Math.round(value * 100);
+        if (cents < 0) {
+            row.append('-');
+            cents = -cents;
+        }
+        row.append(cents / 100).append('.');
+        appendTwoDigits((int) (cents % 100));
+        return this;
+    }
+
+    CsvRowWriter add(LocalDateTime value) {
+        separate();
+        row.append(value.getYear()).append('-');
+        appendTwoDigits(value.getMonthValue());
+        row.append('-');
+        appendTwoDigits(value.getDayOfMonth());
+        row.append(' ');
+        appendTwoDigits(value.getHour());
+        row.append(':');
+        appendTwoDigits(value.getMinute());
+        return this;
+    }
+
+    void endRow() throws IOException {
+        row.append('\n');
+
+        int length = row.length();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        row.getChars(0, length, buffer, 0);
+        writer.write(buffer, 0, length);
+
+        row.setLength(0);
+        firstColumn = true;
+    }
+
+    void line(String text) throws IOException {
+        writer.write(text);
+        writer.write('\n');
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void separate() {
+        if (!firstColumn) {
+            row.append(',');
+        }
+        firstColumn = false;
+    }
+
+    private void appendTwoDigits(int value) {
+        if (value < 10) {
+            row.append('0');
+        }
+        row.append(value);
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,81 @@
+package ro.medCare.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ro.medCare.dto.CursorPage;
+import ro.medCare.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+public class CursorPaging {
+
+    private static final String SEPARATOR = "|";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public CursorPaging(@Value("${medcare.pagination.default-size:50}") int defaultSize,
+                        @Value("${medcare.pagination.max-size:200}") int maxSize) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public Pageable limit(Integer size) {
+        if (size != null && size < 1) {
+            throw new ValidationException("Page size must be positive!");
+        }
+        int pageSize = size == null ? defaultSize : Math.min(size, maxSize);
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    public <T> CursorPage<T> page(List<T> rows, Pageable limit, Function<T, String> cursorOf) {
+        int pageSize = limit.getPageSize() - 1;
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null, false);
+        }
+
+        List<T> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, cursorOf.apply(items.get(pageSize - 1)), true);
+    }
+
+    public String encode(Object... parts) {
+        StringBuilder value = new StringBuilder();
+        for (Object part : parts) {
+            if (!value.isEmpty()) {
+                value.append(SEPARATOR);
+            }
+            value.append(part);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String[] decode(String cursor, int parts) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] decoded = value.split("\\" + SEPARATOR, -1);
+            if (decoded.length != parts) {
+                throw new ValidationException("Invalid cursor!");
+            }
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor!");
+        }
+    }
+
+    public Long decodeId(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid cursor!");
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package ro.medCare.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ro.medCare.dto.AppointmentSlot;
+import ro.medCare.event.AppointmentChangedEvent;
+import ro.medCare.event.AppointmentSnapshot;
+import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.model.Doctor;
+import ro.medCare.repository.AppointmentDAO;
+import ro.medCare.repository.DoctorDAO;
+import ro.medCare.repository.MedicalServiceDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Component
+public class DoctorScheduleIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DoctorScheduleIndex.class);
+
+    private static final Comparator<AppointmentSlot> SLOT_ORDER =
+            Comparator.comparing(AppointmentSlot::getDateTime).thenComparing(AppointmentSlot::getId);
+
+    private final DoctorDAO doctorRepository;
+    private final AppointmentDAO appointmentRepository;
+    private final MedicalServiceDAO medicalServiceRepository;
+    private final int historyDays;
+
+    private final ConcurrentMap<Long, WorkHours> workHours = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, DoctorSchedule> schedules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, AppointmentSlot> slots = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime indexedFrom = LocalDateTime.MAX;
+
+    @Autowired
+    public DoctorScheduleIndex(DoctorDAO doctorRepository,
+                               AppointmentDAO appointmentRepository,
+                               MedicalServiceDAO medicalServiceRepository,
+                               @Value("${medcare.availability.index.history-days:1}") int historyDays) {
+        this.doctorRepository = doctorRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.medicalServiceRepository = medicalServiceRepository;
+        this.historyDays = historyDays;
+    }
+
+    public void rebuild() {
+        LocalDateTime from = LocalDate.now().minusDays(historyDays).atStartOfDay();
+
+        indexedFrom = LocalDateTime.MAX;
+        schedules.clear();
+        slots.clear();
+
+        List<AppointmentSlot> loaded = appointmentRepository.findSlotsFrom(lookBack(from));
+        loaded.forEach(this::add);
+
+        indexedFrom = from;
+        logger.info("Doctor schedule index rebuilt with {} appointments from {}", loaded.size(), from);
+    }
+
+    @Scheduled(cron = "${medcare.availability.index.prune-cron:0 0 3 * * *}")
+    public void prune() {
+        if (indexedFrom.equals(LocalDateTime.MAX)) {
+            return;
+        }
+
+        LocalDateTime from = LocalDate.now().minusDays(historyDays).atStartOfDay();
+        indexedFrom = from;
+
+        LocalDateTime keepFrom = lookBack(from);
+        slots.values().stream()
+                .filter(slot -> slot.getDateTime().isBefore(keepFrom))
+                .forEach(slot -> remove(slot.getId()));
+    }
+
+    public boolean isAvailable(Long doctorId, LocalDateTime dateTime, int durationMinutes, Long excludedAppointmentId) {
+        return isWithinWorkHours(doctorId, dateTime, durationMinutes)
+                && !hasOverlap(doctorId, dateTime, durationMinutes, excludedAppointmentId);
+    }
+
+    public boolean isWithinWorkHours(Long doctorId, LocalDateTime dateTime, int durationMinutes) {
+        return getWorkHours(doctorId).contains(dateTime.toLocalTime(), durationMinutes);
+    }
+
+    public boolean hasOverlap(Long doctorId, LocalDateTime dateTime, int durationMinutes, Long excludedAppointmentId) {
+
+        if (dateTime.isBefore(indexedFrom)) {
+            return hasOverlapInDatabase(doctorId, dateTime, durationMinutes, excludedAppointmentId);
+        }
+
+        LocalDateTime endDateTime = dateTime.plusMinutes(durationMinutes);
+        DoctorSchedule schedule = schedules.get(doctorId);
+        List<AppointmentSlot> indexed = schedule != null
+                ? schedule.overlapping(dateTime, endDateTime, excludedAppointmentId) : List.of();
+        if (indexed.isEmpty()) {
+            return false;
+        }
+
+        // Only this node's writes reach the index, so a slot freed on another node is still here. Hits are confirmed
+        // against the database, and slots it no longer has are dropped.
+        Set<Long> stored = findOverlapsInDatabase(doctorId, dateTime, endDateTime, excludedAppointmentId).stream()
+                .map(AppointmentSlot::getId)
+                .collect(Collectors.toSet());
+        indexed.stream()
+                .filter(slot -> !stored.contains(slot.getId()))
+                .forEach(this::removeIfUnchanged);
+        return !stored.isEmpty();
+    }
+
+    public boolean hasOverlapInDatabase(Long doctorId, LocalDateTime dateTime, int durationMinutes, Long excludedAppointmentId) {
+        return !findOverlapsInDatabase(doctorId, dateTime, dateTime.plusMinutes(durationMinutes), excludedAppointmentId)
+                .isEmpty();
+    }
+
+    private List<AppointmentSlot> findOverlapsInDatabase(Long doctorId, LocalDateTime dateTime, LocalDateTime endDateTime,
+                                                         Long excludedAppointmentId) {
+        return appointmentRepository
+                .findSlotsByDoctorIdAndDateTimeRange(doctorId, lookBack(dateTime), endDateTime).stream()
+                .filter(slot -> overlaps(slot, dateTime, endDateTime, excludedAppointmentId))
+                .toList();
+    }
+
+    public LocalDateTime lookBack(LocalDateTime start) {
+        return start.minusMinutes(medicalServiceRepository.findLongestDuration());
+    }
+
+    public void updateServiceDuration(Long serviceId, int duration) {
+        slots.values().stream()
+                .filter(slot -> serviceId.equals(slot.getServiceId()) && slot.getDuration() != duration)
+                .forEach(slot -> add(new AppointmentSlot(slot.getId(), slot.getDoctorId(), serviceId,
+                        slot.getDateTime(), duration)));
+    }
+
+    public void evictDoctor(Long doctorId) {
+        workHours.remove(doctorId);
+    }
+
+    public void removeDoctor(Long doctorId) {
+        workHours.remove(doctorId);
+        DoctorSchedule schedule = schedules.remove(doctorId);
+        if (schedule != null) {
+            schedule.slots.forEach(slot -> slots.remove(slot.getId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (event.getPrevious() != null) {
+            remove(event.getPrevious().getId());
+        }
+        AppointmentSnapshot current = event.getCurrent();
+        if (current != null && current.getStatus().holdsSlot()) {
+            add(new AppointmentSlot(current.getId(), current.getDoctorId(), current.getServiceId(), current.getDateTime(),
+                    current.getDuration()));
+        }
+    }
+
+    boolean isIndexed(Long appointmentId) {
+        return slots.containsKey(appointmentId);
+    }
+
+    WorkHours getWorkHours(Long doctorId) {
+        WorkHours hours = workHours.get(doctorId);
+        if (hours != null) {
+            return hours;
+        }
+
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found!"));
+
+        hours = WorkHours.parse(doctor.getWorkHours());
+        workHours.putIfAbsent(doctorId, hours);
+        return hours;
+    }
+
+    private void add(AppointmentSlot slot) {
+        remove(slot.getId());
+        slots.put(slot.getId(), slot);
+        schedules.computeIfAbsent(slot.getDoctorId(), id -> new DoctorSchedule()).add(slot);
+    }
+
+    private void remove(Long appointmentId) {
+        AppointmentSlot previous = slots.remove(appointmentId);
+        if (previous != null) {
+            DoctorSchedule schedule = schedules.get(previous.getDoctorId());
+            if (schedule != null) {
+                schedule.remove(previous);
+            }
+        }
+    }
+
+    // A slot moved by a write on this node since it was read is left to that write's event.
+    private void removeIfUnchanged(AppointmentSlot slot) {
+        if (slots.remove(slot.getId(), slot)) {
+            DoctorSchedule schedule = schedules.get(slot.getDoctorId());
+            if (schedule != null) {
+                schedule.remove(slot);
+            }
+        }
+    }
+
+    private static boolean overlaps(AppointmentSlot slot, LocalDateTime start, LocalDateTime end, Long excludedAppointmentId) {
+        return slot.getDateTime().isBefore(end)
+                && slot.getEndDateTime().isAfter(start)
+                && !slot.getId().equals(excludedAppointmentId);
+    }
+
+    private static final class DoctorSchedule {
+
+        private final ConcurrentSkipListSet<AppointmentSlot> slots = new ConcurrentSkipListSet<>(SLOT_ORDER);
+        private final AtomicInteger longestDuration = new AtomicInteger();
+
+        void add(AppointmentSlot slot) {
+            longestDuration.accumulateAndGet(slot.getDuration(), Math::max);
+            slots.add(slot);
+        }
+
+        void remove(AppointmentSlot slot) {
+            slots.remove(slot);
+        }
+
+        List<AppointmentSlot> overlapping(LocalDateTime start, LocalDateTime end, Long excludedAppointmentId) {
+            AppointmentSlot from = probe(start.minusMinutes(longestDuration.get()));
+            AppointmentSlot to = probe(end);
+
+            List<AppointmentSlot> overlapping = new ArrayList<>();
+            for (AppointmentSlot slot : slots.subSet(from, true, to, false)) {
+                if (DoctorScheduleIndex.overlaps(slot, start, end, excludedAppointmentId)) {
+                    overlapping.add(slot);
+                }
+            }
+            return overlapping;
+        }
+
+        private static AppointmentSlot probe(LocalDateTime dateTime) {
+            return new AppointmentSlot(Long.MIN_VALUE, null, null, dateTime, 0);
+        }
+    }
+}
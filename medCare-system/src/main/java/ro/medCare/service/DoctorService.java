@@ -1,45 +1,90 @@
 package ro.medCare.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Pageable;
+import ro.medCare.dto.AppointmentSlot;
+import ro.medCare.dto.CursorPage;
+import ro.medCare.dto.FreeSlotDTO;
 import ro.medCare.exception.ResourceNotFoundException;
-import ro.medCare.model.Appointment;
+import ro.medCare.exception.ValidationException;
 import ro.medCare.model.Doctor;
 import ro.medCare.repository.AppointmentDAO;
 import ro.medCare.repository.DoctorDAO;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class DoctorService {
 
     private final DoctorDAO doctorRepository;
     private final AppointmentDAO appointmentRepository;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final ReportCache reportCache;
+    private final CursorPaging paging;
+    private final TableVersions tableVersions;
+    private final Counter availableChecks;
+    private final Counter unavailableChecks;
+    private final int slotStepMinutes;
+    private final int maxSlotSearchDays;
+    private final int maxSlotSearchLimit;
 
     @Autowired
-    public DoctorService(DoctorDAO doctorRepository, AppointmentDAO appointmentRepository) {
+    public DoctorService(DoctorDAO doctorRepository,
+                         AppointmentDAO appointmentRepository,
+                         DoctorScheduleIndex scheduleIndex,
+                         ReportCache reportCache,
+                         CursorPaging paging,
+                         TableVersions tableVersions,
+                         MeterRegistry meterRegistry,
+                         @Value("${medcare.slots.step-minutes:15}") int slotStepMinutes,
+                         @Value("${medcare.slots.max-range-days:31}") int maxSlotSearchDays,
+                         @Value("${medcare.slots.max-limit:100}") int maxSlotSearchLimit) {
         this.doctorRepository = doctorRepository;
         this.appointmentRepository = appointmentRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.reportCache = reportCache;
+        this.paging = paging;
+        this.tableVersions = tableVersions;
+        this.availableChecks = availabilityCounter(meterRegistry, "available");
+        this.unavailableChecks = availabilityCounter(meterRegistry, "unavailable");
+        this.slotStepMinutes = slotStepMinutes;
+        this.maxSlotSearchDays = maxSlotSearchDays;
+        this.maxSlotSearchLimit = maxSlotSearchLimit;
     }
 
     public Doctor createDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        return tableVersions.write(TableVersions.Table.DOCTORS, () -> doctorRepository.save(doctor));
     }
 
     public Doctor updateDoctor(Doctor doctor) {
         if (!doctorRepository.existsById(doctor.getId())) {
             throw new ResourceNotFoundException("Doctor not found!");
         }
-        return doctorRepository.save(doctor);
+        Doctor updatedDoctor = tableVersions.write(TableVersions.Table.DOCTORS, () -> doctorRepository.save(doctor));
+        scheduleIndex.evictDoctor(doctor.getId());
+        reportCache.invalidateAll();
+        return updatedDoctor;
     }
 
     public void deleteDoctor(Long id) {
         if (!doctorRepository.existsById(id)) {
             throw new ResourceNotFoundException("Doctor not found!");
         }
-        doctorRepository.deleteById(id);
+        tableVersions.writeWithoutResult(TableVersions.Table.DOCTORS, () -> doctorRepository.deleteById(id));
+        scheduleIndex.removeDoctor(id);
+        reportCache.invalidateAll();
     }
 
     public Doctor getDoctorById(Long id) {
@@ -47,36 +92,147 @@ public class DoctorService {
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found!"));
     }
 
+    public String getDoctorsETag() {
+        return tableVersions.etag(TableVersions.Table.DOCTORS);
+    }
+
     public List<Doctor> getAllDoctors() {
         return doctorRepository.findAll();
     }
 
+    public CursorPage<Doctor> getDoctorsPage(String cursor, Integer size) {
+        Pageable limit = paging.limit(size);
+        List<Doctor> rows = doctorRepository.findByIdGreaterThanOrderById(paging.decodeId(cursor), limit);
+        return paging.page(rows, limit, doctor -> paging.encode(doctor.getId()));
+    }
+
+    public List<Doctor> getDoctorsByIds(Collection<Long> ids) {
+        return doctorRepository.findAllById(ids);
+    }
+
     public List<Doctor> getDoctorsBySpecialization(String specialization) {
         return doctorRepository.findBySpecialization(specialization);
     }
 
     public boolean checkAvailability(Long doctorId, LocalDateTime dateTime, int durationMinutes) {
+        boolean available = scheduleIndex.isAvailable(doctorId, dateTime, durationMinutes, null);
+        (available ? availableChecks : unavailableChecks).increment();
+        return available;
+    }
+
+    public boolean isWithinWorkHours(Long doctorId, LocalDateTime dateTime, int durationMinutes) {
+        return scheduleIndex.isWithinWorkHours(doctorId, dateTime, durationMinutes);
+    }
+
+    public boolean hasKnownConflict(Long doctorId, LocalDateTime dateTime, int durationMinutes, Long excludedAppointmentId) {
+        return scheduleIndex.hasOverlap(doctorId, dateTime, durationMinutes, excludedAppointmentId);
+    }
+
+    public boolean hasConflictInDatabase(Long doctorId, LocalDateTime dateTime, int durationMinutes, Long excludedAppointmentId) {
+        return scheduleIndex.hasOverlapInDatabase(doctorId, dateTime, durationMinutes, excludedAppointmentId);
+    }
+
+    public Doctor lockDoctorForBooking(Long doctorId) {
+        return doctorRepository.findByIdForUpdate(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found!"));
+    }
 
-        Doctor doctor = getDoctorById(doctorId);
-        String[] workHoursParts = doctor.getWorkHours().split("-");
+    public List<FreeSlotDTO> findFreeSlots(String specialization, LocalDateTime from, LocalDateTime to,
+                                           int durationMinutes, int limit) {
 
-        if (workHoursParts.length != 2) {
-            return false;
+        if (!to.isAfter(from)) {
+            throw new ValidationException("End of the search interval must be after its start!");
         }
+        if (Duration.between(from, to).toDays() > maxSlotSearchDays) {
+            throw new ValidationException("Search interval cannot exceed " + maxSlotSearchDays + " days!");
+        }
+        if (durationMinutes <= 0) {
+            throw new ValidationException("Service duration must be positive!");
+        }
+
+        int maxResults = Math.max(1, Math.min(limit, maxSlotSearchLimit));
+
+        List<Doctor> doctors = specialization == null || specialization.isBlank()
+                ? doctorRepository.findAll()
+                : doctorRepository.findBySpecialization(specialization);
 
-        LocalTime startWorkHour = LocalTime.parse(workHoursParts[0].trim());
-        LocalTime endWorkHour = LocalTime.parse(workHoursParts[1].trim());
-        LocalTime appointmentTime = dateTime.toLocalTime();
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).toList();
+        Map<Long, List<AppointmentSlot>> busySlots = appointmentRepository
+                .findSlotsByDoctorIdInAndDateTimeRange(doctorIds, scheduleIndex.lookBack(from), to).stream()
+                .collect(Collectors.groupingBy(AppointmentSlot::getDoctorId));
 
-        if (appointmentTime.isBefore(startWorkHour) ||
-                appointmentTime.plusMinutes(durationMinutes).isAfter(endWorkHour)) {
-            return false;
+        List<FreeSlotDTO> freeSlots = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            collectFreeSlots(doctor, busySlots.getOrDefault(doctor.getId(), List.of()),
+                    from, to, durationMinutes, maxResults, freeSlots);
         }
 
-        LocalDateTime endDateTime = dateTime.plusMinutes(durationMinutes);
-        List<Appointment> overlappingAppointments = appointmentRepository
-                .findByDoctorIdAndDateTimeBetween(doctorId, dateTime, endDateTime);
+        return freeSlots.stream()
+                .sorted(Comparator.comparing(FreeSlotDTO::getStart).thenComparing(FreeSlotDTO::getDoctorId))
+                .limit(maxResults)
+                .toList();
+    }
+
+    private void collectFreeSlots(Doctor doctor, List<AppointmentSlot> busySlots, LocalDateTime from, LocalDateTime to,
+                                  int durationMinutes, int maxResults, List<FreeSlotDTO> freeSlots) {
+
+        WorkHours workHours = WorkHours.parse(doctor.getWorkHours());
+        if (!workHours.isDefined()) {
+            return;
+        }
+
+        int found = 0;
+        int busyIndex = 0;
+        LocalDateTime blockedUntil = LocalDateTime.MIN;
+
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()) && found < maxResults; day = day.plusDays(1)) {
+
+            LocalDateTime dayStart = day.atTime(workHours.getStart());
+            LocalDateTime dayEnd = day.atTime(workHours.getEnd());
+            if (dayEnd.isAfter(to)) {
+                dayEnd = to;
+            }
+
+            LocalDateTime candidate = alignToStep(dayStart, from.isAfter(dayStart) ? from : dayStart);
+
+            while (found < maxResults && !candidate.plusMinutes(durationMinutes).isAfter(dayEnd)) {
+                LocalDateTime candidateEnd = candidate.plusMinutes(durationMinutes);
+
+                while (busyIndex < busySlots.size() && busySlots.get(busyIndex).getDateTime().isBefore(candidateEnd)) {
+                    LocalDateTime busyEnd = busySlots.get(busyIndex).getEndDateTime();
+                    if (busyEnd.isAfter(blockedUntil)) {
+                        blockedUntil = busyEnd;
+                    }
+                    busyIndex++;
+                }
+
+                if (blockedUntil.isAfter(candidate)) {
+                    candidate = alignToStep(dayStart, blockedUntil);
+                    continue;
+                }
+
+                freeSlots.add(new FreeSlotDTO(doctor.getId(), doctor.getName(), doctor.getSpecialization(),
+                        candidate, candidateEnd));
+                found++;
+                candidate = candidate.plusMinutes(slotStepMinutes);
+            }
+        }
+    }
+
+    private LocalDateTime alignToStep(LocalDateTime dayStart, LocalDateTime dateTime) {
+        Duration step = Duration.ofMinutes(slotStepMinutes);
+        long steps = Duration.between(dayStart, dateTime).plus(step).minusNanos(1).dividedBy(step);
+        return dayStart.plus(step.multipliedBy(steps));
+    }
 
-        return overlappingAppointments.isEmpty();
+    private static Counter availabilityCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("medcare.availability.checks")
+                .description("Doctor availability checks by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package ro.medCare.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+public class JobLeases {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    @Autowired
+    public JobLeases(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean acquire(String job, Duration lease) {
+        return jdbcTemplate.update("UPDATE scheduled_job_leases SET locked_until = "
+                + "TIMESTAMPADD(MICROSECOND, ?, LOCALTIMESTAMP(6)), locked_by = ? "
+                + "WHERE job = ? AND locked_until <= LOCALTIMESTAMP(6)", micros(lease), owner, job) == 1;
+    }
+
+    public boolean renew(String job, Duration lease) {
+        return jdbcTemplate.update("UPDATE scheduled_job_leases SET locked_until = "
+                + "TIMESTAMPADD(MICROSECOND, ?, LOCALTIMESTAMP(6)) "
+                + "WHERE job = ? AND locked_by = ? AND locked_until > LOCALTIMESTAMP(6)", micros(lease), job, owner) == 1;
+    }
+
+    public void release(String job) {
+        jdbcTemplate.update("UPDATE scheduled_job_leases SET locked_until = LOCALTIMESTAMP(6), locked_by = NULL "
+                + "WHERE job = ? AND locked_by = ?", job, owner);
+    }
+
+    private static long micros(Duration lease) {
+        if (lease.isNegative() || lease.isZero()) {
+            throw new IllegalArgumentException("Job lease must be positive!");
+        }
+        return lease.toNanos() / 1000;
+    }
+}
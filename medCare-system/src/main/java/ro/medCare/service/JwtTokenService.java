@@ -1,27 +1,67 @@
 package ro.medCare.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import ro.medCare.model.User;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtTokenService {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private final long jwtExpiration;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Cache<String, Claims> verifiedTokens;
+    private final Timer cachedVerifications;
+    private final Timer parsedVerifications;
+    private final Timer rejectedVerifications;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    @Autowired
+    public JwtTokenService(MeterRegistry meterRegistry,
+                           @Value("${jwt.secret}") String secret,
+                           @Value("${jwt.expiration}") long jwtExpiration,
+                           @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                           @Value("${jwt.cache.max-ttl-ms:300000}") long cacheMaxTtlMillis) {
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry(TimeUnit.MILLISECONDS.toNanos(cacheMaxTtlMillis)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtTokens");
+
+        this.cachedVerifications = verificationTimer(meterRegistry, "cached");
+        this.parsedVerifications = verificationTimer(meterRegistry, "parsed");
+        this.rejectedVerifications = verificationTimer(meterRegistry, "rejected");
+    }
 
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
@@ -31,9 +71,34 @@ public class JwtTokenService {
         return createToken(claims, user.getUsername());
     }
 
+    public Claims verify(String token) {
+        long started = System.nanoTime();
+        try {
+            String key = hash(token);
+            Claims claims = verifiedTokens.getIfPresent(key);
+            Timer timer = cachedVerifications;
+
+            if (claims == null) {
+                claims = parser.parseClaimsJws(token).getBody();
+                verifiedTokens.put(key, claims);
+                timer = parsedVerifications;
+            } else if (isExpired(claims)) {
+                verifiedTokens.invalidate(key);
+                throw new ExpiredJwtException(null, claims, "JWT expired at " + claims.getExpiration());
+            }
+
+            timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            // Callers get their own copy, so nothing they change reaches the cached claims.
+            return Jwts.claims(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            rejectedVerifications.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
     public boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        Claims claims = verify(token);
+        return claims.getSubject().equals(username) && !isExpired(claims);
     }
 
     public String extractUsername(String token) {
@@ -45,20 +110,15 @@ public class JwtTokenService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(verify(token));
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return verify(token);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
@@ -67,12 +127,51 @@ public class JwtTokenService {
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("medcare.jwt.verification")
+                .description("Time spent verifying JWTs")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        private final long maxTtlNanos;
+
+        UntilTokenExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,39 +1,62 @@
 package ro.medCare.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ro.medCare.dto.CursorPage;
 import ro.medCare.exception.ResourceNotFoundException;
 import ro.medCare.model.MedicalService;
 import ro.medCare.repository.MedicalServiceDAO;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
 public class MedicalServiceService {
 
     private final MedicalServiceDAO medicalServiceRepository;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final ReportCache reportCache;
+    private final CursorPaging paging;
+    private final TableVersions tableVersions;
 
     @Autowired
-    public MedicalServiceService(MedicalServiceDAO medicalServiceRepository) {
+    public MedicalServiceService(MedicalServiceDAO medicalServiceRepository,
+                                 DoctorScheduleIndex scheduleIndex,
+                                 ReportCache reportCache,
+                                 CursorPaging paging,
+                                 TableVersions tableVersions) {
         this.medicalServiceRepository = medicalServiceRepository;
+        this.scheduleIndex = scheduleIndex;
+        this.reportCache = reportCache;
+        this.paging = paging;
+        this.tableVersions = tableVersions;
     }
 
     public MedicalService createMedicalService(MedicalService medicalService) {
-        return medicalServiceRepository.save(medicalService);
+        return tableVersions.write(TableVersions.Table.MEDICAL_SERVICES,
+                () -> medicalServiceRepository.save(medicalService));
     }
 
     public MedicalService updateMedicalService(MedicalService medicalService) {
         if (!medicalServiceRepository.existsById(medicalService.getId())) {
             throw new ResourceNotFoundException("Medical service not found!");
         }
-        return medicalServiceRepository.save(medicalService);
+
+        MedicalService saved = tableVersions.write(TableVersions.Table.MEDICAL_SERVICES,
+                () -> medicalServiceRepository.save(medicalService));
+        scheduleIndex.updateServiceDuration(saved.getId(), saved.getDuration());
+        reportCache.invalidateAll();
+        return saved;
     }
 
     public void deleteMedicalService(Long id) {
         if (!medicalServiceRepository.existsById(id)) {
             throw new ResourceNotFoundException("Medical service not found!");
         }
-        medicalServiceRepository.deleteById(id);
+        tableVersions.writeWithoutResult(TableVersions.Table.MEDICAL_SERVICES,
+                () -> medicalServiceRepository.deleteById(id));
+        reportCache.invalidateAll();
     }
 
     public MedicalService getMedicalServiceById(Long id) {
@@ -41,7 +64,21 @@ public class MedicalServiceService {
                 .orElseThrow(() -> new ResourceNotFoundException("Medical service not found!"));
     }
 
+    public List<MedicalService> getMedicalServicesByIds(Collection<Long> ids) {
+        return medicalServiceRepository.findAllById(ids);
+    }
+
+    public String getMedicalServicesETag() {
+        return tableVersions.etag(TableVersions.Table.MEDICAL_SERVICES);
+    }
+
     public List<MedicalService> getAllMedicalServices() {
         return medicalServiceRepository.findAll();
     }
+
+    public CursorPage<MedicalService> getMedicalServicesPage(String cursor, Integer size) {
+        Pageable limit = paging.limit(size);
+        List<MedicalService> rows = medicalServiceRepository.findByIdGreaterThanOrderById(paging.decodeId(cursor), limit);
+        return paging.page(rows, limit, service -> paging.encode(service.getId()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package ro.medCare.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ro.medCare.dto.ReportDTO;
+import ro.medCare.dto.ReportFormat;
+import ro.medCare.event.AppointmentChangedEvent;
+import ro.medCare.event.AppointmentSnapshot;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Component
+public class ReportCache {
+
+    private static final int ESTIMATED_APPOINTMENT_BYTES = 512;
+    private static final Object UNCACHEABLE = new Object();
+
+    private final Cache<ReportKey, Object> reports;
+    private final Set<Loading> loading = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ReportCache(MeterRegistry meterRegistry,
+                       @Value("${medcare.reports.cache.max-bytes:67108864}") long maxBytes,
+                       @Value("${medcare.reports.cache.ttl-minutes:30}") long ttlMinutes) {
+        this.reports = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher(ReportCache::weigh)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, reports, "reports");
+    }
+
+    public static ReportKey key(LocalDateTime startDate, LocalDateTime endDate, ReportFormat format,
+                                boolean includeAppointments) {
+        return new ReportKey(startDate.truncatedTo(ChronoUnit.SECONDS), endDate.truncatedTo(ChronoUnit.SECONDS),
+                format, format == ReportFormat.XML && includeAppointments);
+    }
+
+    public <T> T get(ReportKey key, Class<T> type, Supplier<T> loader) {
+        Object cached = reports.getIfPresent(key);
+        if (cached == UNCACHEABLE) {
+            return null;
+        }
+        if (cached != null) {
+            return type.cast(cached);
+        }
+        return load(key, loader);
+    }
+
+    public <T> T getIfPresent(ReportKey key, Class<T> type) {
+        Object cached = reports.getIfPresent(key);
+        return cached == UNCACHEABLE ? null : type.cast(cached);
+    }
+
+    public boolean isCacheable(ReportKey key) {
+        return reports.asMap().get(key) != UNCACHEABLE;
+    }
+
+    // A null value marks the key uncacheable until it is invalidated or expires.
+    public <T> T load(ReportKey key, Supplier<T> loader) {
+        Loading load = new Loading(key);
+        loading.add(load);
+        try {
+            T value = loader.get();
+            Object entry = value != null ? value : UNCACHEABLE;
+            reports.put(key, entry);
+            if (load.stale) {
+                reports.asMap().remove(key, entry);
+            }
+            return value;
+        } finally {
+            loading.remove(load);
+        }
+    }
+
+    public void invalidateAll() {
+        loading.forEach(load -> load.stale = true);
+        reports.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        invalidateCovering(event.getPrevious());
+        invalidateCovering(event.getCurrent());
+    }
+
+    private void invalidateCovering(AppointmentSnapshot appointment) {
+        if (appointment == null) {
+            return;
+        }
+
+        LocalDateTime dateTime = appointment.getDateTime();
+        for (Loading load : loading) {
+            if (load.key.covers(dateTime)) {
+                load.stale = true;
+            }
+        }
+        reports.asMap().keySet().removeIf(key -> key.covers(dateTime));
+    }
+
+    private static int weigh(ReportKey key, Object value) {
+        if (value instanceof CachedReport report) {
+            return report.body().length;
+        }
+        if (value instanceof ReportDTO report && report.getAppointments() != null) {
+            return ESTIMATED_APPOINTMENT_BYTES * (report.getAppointments().size() + 1);
+        }
+        return ESTIMATED_APPOINTMENT_BYTES;
+    }
+
+    public record ReportKey(LocalDateTime startDate, LocalDateTime endDate, ReportFormat format,
+                            boolean includeAppointments) {
+
+        boolean covers(LocalDateTime dateTime) {
+            return !dateTime.isBefore(startDate) && !dateTime.isAfter(endDate);
+        }
+    }
+
+    public record CachedReport(byte[] body, String etag) {
+
+        public static CachedReport of(byte[] body) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                return new CachedReport(body, Base64.getUrlEncoder().withoutPadding().encodeToString(digest));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final class Loading {
+
+        private final ReportKey key;
+        private volatile boolean stale;
+
+        Loading(ReportKey key) {
+            this.key = key;
+        }
+    }
+}
@@ -1,8 +0,0 @@
-package ro.medCare.service;
-import ro.medCare.dto.ReportDTO;
-
-import java.io.File;
-
-public interface ReportExporter {
-    File export(ReportDTO report) throws Exception;
-}
\ No newline at end of file
@@ -0,0 +1,291 @@
+package ro.medCare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ro.medCare.dto.ReportFormat;
+import ro.medCare.dto.ReportJobDTO;
+import ro.medCare.dto.ReportJobStatus;
+import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.exception.TooManyRequestsException;
+import ro.medCare.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private static final String BUSY_MESSAGE = "Too many report jobs are queued, please retry shortly!";
+    private static final String FILE_PREFIX = "report-job-";
+    private static final String ABANDONED_MESSAGE = "Report job did not finish before it expired!";
+    private static final RowMapper<ReportJobDTO> JOB_ROW = (rs, rowNum) -> new ReportJobDTO(
+            rs.getString("id"),
+            ReportJobStatus.valueOf(rs.getString("status")),
+            ReportFormat.valueOf(rs.getString("format")),
+            rs.getTimestamp("start_date").toLocalDateTime(),
+            rs.getTimestamp("end_date").toLocalDateTime(),
+            rs.getBoolean("include_appointments"),
+            rs.getTimestamp("submitted_at").toLocalDateTime(),
+            rs.getTimestamp("completed_at") != null ? rs.getTimestamp("completed_at").toLocalDateTime() : null,
+            rs.getObject("size_bytes", Long.class),
+            rs.getString("error"));
+
+    private final ReportService reportService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Path spoolDirectory;
+    private final Duration ttl;
+    private final long retryAfterSeconds;
+
+    private final ConcurrentMap<ReportJobKey, ReportJob> pendingJobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReportJobService(ReportService reportService,
+                            JdbcTemplate jdbcTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${medcare.reports.jobs.threads:2}") int threads,
+                            @Value("${medcare.reports.jobs.queue-capacity:16}") int queueCapacity,
+                            @Value("${medcare.reports.jobs.spool-dir:${java.io.tmpdir}/medcare-report-jobs}") String spoolDirectory,
+                            @Value("${medcare.reports.jobs.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${medcare.reports.jobs.retry-after-seconds:5}") long retryAfterSeconds,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) throws IOException {
+        this.reportService = reportService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.spoolDirectory = Files.createDirectories(Paths.get(spoolDirectory));
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(virtualThreads), new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "reportJobs");
+    }
+
+    public ReportJobDTO submit(LocalDateTime startDate, LocalDateTime endDate, ReportFormat format,
+                               boolean includeAppointments) {
+        if (startDate == null || endDate == null || !startDate.isBefore(endDate)) {
+            throw new ValidationException("Start date must be before end date!");
+        }
+
+        ReportJobKey key = new ReportJobKey(startDate, endDate, format, format == ReportFormat.XML && includeAppointments);
+        return pendingJobs.computeIfAbsent(key, this::start).toDTO();
+    }
+
+    public ReportJobDTO getJob(String id) {
+        List<ReportJobDTO> jobs = jdbcTemplate.query("SELECT * FROM report_jobs WHERE id = ?", JOB_ROW, id);
+        if (jobs.isEmpty()) {
+            throw new ResourceNotFoundException("Report job not found!");
+        }
+        return jobs.get(0);
+    }
+
+    public ReportJobResult getResult(String id) {
+        ReportJobDTO job = getJob(id);
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new IllegalStateException("Report job is " + job.getStatus().name().toLowerCase() + "!");
+        }
+        // Another node can only serve the result when the spool directory is shared storage.
+        Path file = spoolDirectory.resolve(fileName(job.getId(), job.getFormat()));
+        if (!Files.isReadable(file)) {
+            throw new ResourceNotFoundException("Report job result has expired!");
+        }
+        return new ReportJobResult(file, job.getFormat(), job.getSizeBytes());
+    }
+
+    // Also runs right after startup, so results spooled before a restart stay available until they expire.
+    @Scheduled(fixedDelayString = "${medcare.reports.jobs.cleanup-interval-ms:300000}")
+    public void cleanup() {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiredBefore = Timestamp.valueOf(now.minus(ttl));
+
+        List<ReportJobDTO> expired = jdbcTemplate.query("SELECT * FROM report_jobs WHERE completed_at < ?",
+                JOB_ROW, expiredBefore);
+        for (ReportJobDTO job : expired) {
+            deleteQuietly(spoolDirectory.resolve(fileName(job.getId(), job.getFormat())));
+            jdbcTemplate.update("DELETE FROM report_jobs WHERE id = ?", job.getId());
+        }
+
+        // Failed only after the expiry pass, so the failure stays visible to pollers for another TTL.
+        jdbcTemplate.update("UPDATE report_jobs SET status = ?, completed_at = ?, error = ? "
+                        + "WHERE completed_at IS NULL AND submitted_at < ?",
+                ReportJobStatus.FAILED.name(), Timestamp.valueOf(now), ABANDONED_MESSAGE, expiredBefore);
+
+        deleteSpooledFiles(Instant.now().minus(ttl));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private ReportJob start(ReportJobKey key) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), key);
+        jdbcTemplate.update("INSERT INTO report_jobs (id, status, format, start_date, end_date, include_appointments, "
+                        + "submitted_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                job.id, job.status.name(), key.format().name(), Timestamp.valueOf(key.startDate()),
+                Timestamp.valueOf(key.endDate()), key.includeAppointments(), Timestamp.valueOf(job.submittedAt));
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jdbcTemplate.update("DELETE FROM report_jobs WHERE id = ?", job.id);
+            throw new TooManyRequestsException(BUSY_MESSAGE, retryAfterSeconds);
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobStatus.RUNNING;
+        jdbcTemplate.update("UPDATE report_jobs SET status = ? WHERE id = ? AND completed_at IS NULL",
+                job.status.name(), job.id);
+        Path part = spoolDirectory.resolve(FILE_PREFIX + job.id + ".part");
+        ReportJobStatus status = ReportJobStatus.COMPLETED;
+        String error = null;
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(part)) {
+                write(job.key, outputStream);
+            }
+            Path target = spoolDirectory.resolve(fileName(job.id, job.key.format()));
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.sizeBytes = Files.size(target);
+        } catch (Exception e) {
+            logger.warn("Report job {} failed", job.id, e);
+            deleteQuietly(part);
+            status = ReportJobStatus.FAILED;
+            error = e.getMessage();
+        }
+
+        job.finish(status, error);
+        jdbcTemplate.update("UPDATE report_jobs SET status = ?, completed_at = ?, size_bytes = ?, error = ? WHERE id = ?",
+                job.status.name(), Timestamp.valueOf(job.completedAt),
+                status == ReportJobStatus.COMPLETED ? job.sizeBytes : null, job.error, job.id);
+        pendingJobs.remove(job.key, job);
+    }
+
+    private void write(ReportJobKey key, OutputStream outputStream) throws IOException {
+        switch (key.format()) {
+            case JSON -> objectMapper.writeValue(outputStream, reportService.generateReport(key.startDate(), key.endDate()));
+            case CSV -> reportService.writeCSV(key.startDate(), key.endDate(), outputStream);
+            case XML -> reportService.writeXML(key.startDate(), key.endDate(), key.includeAppointments(), outputStream);
+        }
+    }
+
+    private void deleteSpooledFiles(Instant modifiedBefore) {
+        Set<String> known = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM report_jobs", String.class));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDirectory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                if (isOrphanedBefore(file, modifiedBefore, known)) {
+                    deleteQuietly(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clean report job directory {}", spoolDirectory, e);
+        }
+    }
+
+    private static boolean isOrphanedBefore(Path file, Instant modifiedBefore, Set<String> known) {
+        String name = file.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String id = name.substring(FILE_PREFIX.length(), extension < 0 ? name.length() : extension);
+        if (known.contains(id)) {
+            return false;
+        }
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(modifiedBefore);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String fileName(String id, ReportFormat format) {
+        return FILE_PREFIX + id + "." + format.getExtension();
+    }
+
+    private static ThreadFactory threadFactory(boolean virtualThreads) {
+        if (virtualThreads) {
+            return Thread.ofVirtual().name("report-job-", 1).factory();
+        }
+        return Thread.ofPlatform().name("report-job-", 1).daemon(true).factory();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete report job file {}", file, e);
+        }
+    }
+
+    public record ReportJobResult(Path file, ReportFormat format, long sizeBytes) {
+    }
+
+    private record ReportJobKey(LocalDateTime startDate, LocalDateTime endDate, ReportFormat format,
+                                boolean includeAppointments) {
+    }
+
+    private static final class ReportJob {
+
+        private final String id;
+        private final ReportJobKey key;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile LocalDateTime completedAt;
+        private volatile long sizeBytes;
+        private volatile String error;
+
+        ReportJob(String id, ReportJobKey key) {
+            this.id = id;
+            this.key = key;
+        }
+
+        void finish(ReportJobStatus status, String error) {
+            this.error = error;
+            this.completedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        ReportJobDTO toDTO() {
+            return new ReportJobDTO(id, status, key.format(), key.startDate(), key.endDate(), key.includeAppointments(),
+                    submittedAt, completedAt, status == ReportJobStatus.COMPLETED ? sizeBytes : null, error);
+        }
+    }
+}
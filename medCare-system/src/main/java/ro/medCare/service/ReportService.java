@@ -1,19 +1,30 @@
 package ro.medCare.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import ro.medCare.dto.ReportDTO;
+import ro.medCare.dto.ReportFormat;
+import ro.medCare.dto.StatisticsSummaryDTO;
 import ro.medCare.model.Appointment;
 import ro.medCare.model.Doctor;
 import ro.medCare.model.MedicalService;
 
-import java.io.File;
-
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 
 @Service
@@ -22,31 +33,248 @@ public class ReportService {
     private final AppointmentService appointmentService;
     private final CSVReportExporter csvExporter;
     private final XMLReportExporter xmlExporter;
+    private final AppointmentStatisticsStore statisticsStore;
+    private final ReportCache reportCache;
+    private final int statisticsLimit;
+    private final int maxCachedReportBytes;
+    private final ExportMeters csvMeters;
+    private final ExportMeters xmlMeters;
 
     @Autowired
     public ReportService(AppointmentService appointmentService,
                          CSVReportExporter csvExporter,
-                         XMLReportExporter xmlExporter) {
+                         XMLReportExporter xmlExporter,
+                         AppointmentStatisticsStore statisticsStore,
+                         ReportCache reportCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${medcare.reports.statistics-limit:10}") int statisticsLimit,
+                         @Value("${medcare.reports.cache.max-entry-bytes:8388608}") int maxCachedReportBytes) {
         this.appointmentService = appointmentService;
         this.csvExporter = csvExporter;
         this.xmlExporter = xmlExporter;
+        this.statisticsStore = statisticsStore;
+        this.reportCache = reportCache;
+        this.statisticsLimit = statisticsLimit;
+        this.maxCachedReportBytes = maxCachedReportBytes;
+        this.csvMeters = ExportMeters.register(meterRegistry, ReportFormat.CSV);
+        this.xmlMeters = ExportMeters.register(meterRegistry, ReportFormat.XML);
     }
 
     public ReportDTO generateReport(LocalDateTime startDate, LocalDateTime endDate) {
+        ReportCache.ReportKey key = ReportCache.key(startDate, endDate, ReportFormat.JSON, false);
+        return reportCache.get(key, ReportDTO.class, () -> buildReport(key.startDate(), key.endDate()));
+    }
+
+    public ReportCache.CachedReport cachedCSV(LocalDateTime startDate, LocalDateTime endDate) {
+        return reportCache.getIfPresent(ReportCache.key(startDate, endDate, ReportFormat.CSV, false),
+                ReportCache.CachedReport.class);
+    }
+
+    public ReportCache.CachedReport cachedXML(LocalDateTime startDate, LocalDateTime endDate, boolean includeAppointments) {
+        return reportCache.getIfPresent(ReportCache.key(startDate, endDate, ReportFormat.XML, includeAppointments),
+                ReportCache.CachedReport.class);
+    }
+
+    public void exportCSV(LocalDateTime startDate, LocalDateTime endDate, OutputStream outputStream) throws IOException {
+        ReportCache.ReportKey key = ReportCache.key(startDate, endDate, ReportFormat.CSV, false);
+        export(key, outputStream, stream -> writeCSV(key.startDate(), key.endDate(), stream));
+    }
+
+    public void exportXML(LocalDateTime startDate, LocalDateTime endDate, boolean includeAppointments,
+                          OutputStream outputStream) throws IOException {
+        ReportCache.ReportKey key = ReportCache.key(startDate, endDate, ReportFormat.XML, includeAppointments);
+        export(key, outputStream, stream -> writeXML(key.startDate(), key.endDate(), key.includeAppointments(), stream));
+    }
 
+    private ReportDTO buildReport(LocalDateTime startDate, LocalDateTime endDate) {
         List<Appointment> appointments = appointmentService.getAppointmentsByDateRange(startDate, endDate);
-        Map<Doctor, Long> doctorStatistics = appointmentService.getMostRequestedDoctors();
-        Map<MedicalService, Long> serviceStatistics = appointmentService.getMostRequestedServices();
+        Map<Doctor, Long> doctorStatistics = appointmentService.getMostRequestedDoctors(startDate, endDate, statisticsLimit);
+        Map<MedicalService, Long> serviceStatistics = appointmentService.getMostRequestedServices(startDate, endDate, statisticsLimit);
 
         return new ReportDTO(appointments, doctorStatistics, serviceStatistics, startDate, endDate);
     }
 
-    public File exportToCSV(ReportDTO report) throws IOException {
-        return csvExporter.export(report);
+    public StatisticsSummaryDTO getStatisticsSummary() {
+        return statisticsStore.getSummary();
+    }
+
+    public void writeCSV(LocalDateTime startDate, LocalDateTime endDate, OutputStream outputStream) throws IOException {
+        long started = System.nanoTime();
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        try {
+            CsvRowWriter rows = csvExporter.open(countingStream);
+            csvExporter.writeAppointmentHeader(rows);
+
+            try {
+                appointmentService.forEachAppointmentInRange(startDate, endDate, appointment -> {
+                    try {
+                        csvExporter.writeAppointment(appointment, rows);
+                        countingStream.rows++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            csvExporter.writeStatistics(
+                    appointmentService.getMostRequestedDoctors(startDate, endDate, statisticsLimit),
+                    appointmentService.getMostRequestedServices(startDate, endDate, statisticsLimit),
+                    rows);
+            csvMeters.duration().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } finally {
+            csvMeters.record(countingStream);
+        }
+    }
+
+    public void writeXML(LocalDateTime startDate, LocalDateTime endDate, boolean includeAppointments,
+                         OutputStream outputStream) throws IOException {
+        long started = System.nanoTime();
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        BufferedOutputStream bufferedStream = new BufferedOutputStream(countingStream, 64 * 1024);
+        try {
+            XMLStreamWriter xml = xmlExporter.open(bufferedStream);
+            xmlExporter.writeHeader(xml, startDate, endDate,
+                    appointmentService.getMostRequestedDoctors(startDate, endDate, statisticsLimit),
+                    appointmentService.getMostRequestedServices(startDate, endDate, statisticsLimit));
+
+            if (includeAppointments) {
+                xmlExporter.startAppointments(xml);
+                appointmentService.forEachAppointmentInRange(startDate, endDate, appointment -> {
+                    try {
+                        xmlExporter.writeAppointment(appointment, xml);
+                        countingStream.rows++;
+                    } catch (XMLStreamException e) {
+                        throw new UncheckedIOException(new IOException(e));
+                    }
+                });
+                xmlExporter.endAppointments(xml);
+            }
+
+            xmlExporter.close(xml);
+            bufferedStream.flush();
+            xmlMeters.duration().record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            xmlMeters.record(countingStream);
+        }
+    }
+
+    // Streams straight to the client and keeps a copy for the cache only while it fits under the entry limit.
+    private void export(ReportCache.ReportKey key, OutputStream outputStream, ReportWriter writer) throws IOException {
+        if (!reportCache.isCacheable(key)) {
+            writer.writeTo(outputStream);
+            return;
+        }
+
+        try {
+            reportCache.load(key, () -> {
+                CopyingOutputStream copyingStream = new CopyingOutputStream(outputStream, maxCachedReportBytes);
+                try {
+                    writer.writeTo(copyingStream);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                byte[] body = copyingStream.copy();
+                return body != null ? ReportCache.CachedReport.of(body) : null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
-    public File exportToXML(ReportDTO report) throws Exception {
-        return xmlExporter.export(report);
+    private interface ReportWriter {
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+
+    private record ExportMeters(Counter rows, Counter bytes, Timer duration) {
+
+        void record(CountingOutputStream written) {
+            rows.increment(written.rows);
+            bytes.increment(written.count);
+        }
+
+        static ExportMeters register(MeterRegistry meterRegistry, ReportFormat format) {
+            String tag = format.name().toLowerCase();
+            return new ExportMeters(
+                    Counter.builder("medcare.reports.export.rows")
+                            .description("Appointment rows written by report exporters")
+                            .tag("format", tag)
+                            .register(meterRegistry),
+                    Counter.builder("medcare.reports.export.bytes")
+                            .description("Bytes written by report exporters")
+                            .baseUnit("bytes")
+                            .tag("format", tag)
+                            .register(meterRegistry),
+                    Timer.builder("medcare.reports.export")
+                            .description("Time spent writing a complete report export")
+                            .tag("format", tag)
+                            .register(meterRegistry));
+        }
     }
 
-}
\ No newline at end of file
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+        private long rows;
+
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static final class CopyingOutputStream extends FilterOutputStream {
+
+        private final int capacity;
+        private ByteArrayOutputStream copy;
+
+        CopyingOutputStream(OutputStream outputStream, int capacity) {
+            super(outputStream);
+            this.capacity = capacity;
+            this.copy = new ByteArrayOutputStream(Math.min(capacity, 64 * 1024));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (keep(1)) {
+                copy.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (keep(len)) {
+                copy.write(b, off, len);
+            }
+        }
+
+        byte[] copy() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+
+        private boolean keep(int len) {
+            if (copy != null && copy.size() + len > capacity) {
+                copy = null;
+            }
+            return copy != null;
+        }
+    }
+}
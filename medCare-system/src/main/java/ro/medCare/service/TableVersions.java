@@ -0,0 +1,48 @@
+package ro.medCare.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+@Component
+public class TableVersions {
+
+    public enum Table {
+        DOCTORS,
+        MEDICAL_SERVICES,
+        USERS
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public TableVersions(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public <T> T write(Table table, Supplier<T> write) {
+        return transactionTemplate.execute(tx -> {
+            T result = write.get();
+            jdbcTemplate.update("UPDATE table_versions SET version = version + 1 WHERE table_name = ?", table.name());
+            return result;
+        });
+    }
+
+    public void writeWithoutResult(Table table, Runnable write) {
+        write(table, () -> {
+            write.run();
+            return null;
+        });
+    }
+
+    public String etag(Table table) {
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM table_versions WHERE table_name = ?",
+                Long.class, table.name());
+        return "\"" + table.name().toLowerCase() + "-" + version + "\"";
+    }
+}
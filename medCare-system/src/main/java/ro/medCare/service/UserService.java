@@ -1,47 +1,66 @@
 package ro.medCare.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ro.medCare.dto.CursorPage;
 import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.exception.TooManyRequestsException;
 import ro.medCare.exception.ValidationException;
 import ro.medCare.model.User;
 import ro.medCare.repository.UserDAO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class UserService {
 
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
     private final UserDAO userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
+    private final CursorPaging paging;
+    private final TableVersions tableVersions;
+    private final Executor writeExecutor;
 
     @Autowired
-    public UserService(UserDAO userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserDAO userRepository, PasswordHashingService passwordHashing, CursorPaging paging,
+                       TableVersions tableVersions, @Qualifier("applicationTaskExecutor") Executor writeExecutor) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.paging = paging;
+        this.tableVersions = tableVersions;
+        this.writeExecutor = writeExecutor;
     }
 
-    public User authenticate(String username, String password) {
+    public CompletableFuture<User> authenticate(String username, String password) {
         User user = userRepository.findByUsername(username).orElseThrow(() -> new ValidationException("User does not exist!"));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new ValidationException("Incorrect password!");
-        }
-
-        return user;
+        return passwordHashing.matches(password, user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                throw new ValidationException("Incorrect password!");
+            }
+            if (passwordHashing.needsRehash(user.getPassword())) {
+                rehash(user, password);
+            }
+            return user;
+        });
     }
 
-    public User createUser(User user) {
+    public CompletableFuture<User> createUser(User user) {
         if (userRepository.existsByUsername(user.getUsername())) {
             throw new ValidationException("Username already exists!");
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        return saveWithNewPassword(user);
     }
 
-    public User updateUser(User user) {
+    public CompletableFuture<User> updateUser(User user) {
 
         Optional<User> existingUser = userRepository.findById(user.getId());
         if (existingUser.isEmpty()) {
@@ -53,18 +72,26 @@ public class UserService {
             throw new ValidationException("Username already exists for another user!");
         }
 
-        if (!user.getPassword().equals(existingUser.get().getPassword())) {
-            user.setPassword(passwordEncoder.encode(user.getPassword()));
+        if (user.getPassword().equals(existingUser.get().getPassword())) {
+            return CompletableFuture.completedFuture(
+                    tableVersions.write(TableVersions.Table.USERS, () -> userRepository.save(user)));
         }
+        return saveWithNewPassword(user);
+    }
 
-        return userRepository.save(user);
+    // As with re-hashes, hashing threads only hash and the write runs on the application executor.
+    private CompletableFuture<User> saveWithNewPassword(User user) {
+        return passwordHashing.encode(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            return tableVersions.write(TableVersions.Table.USERS, () -> userRepository.save(user));
+        }, writeExecutor);
     }
 
     public void deleteUser(Long id) {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found!");
         }
-        userRepository.deleteById(id);
+        tableVersions.writeWithoutResult(TableVersions.Table.USERS, () -> userRepository.deleteById(id));
     }
 
     public User getUserById(Long id) {
@@ -72,7 +99,34 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found!"));
     }
 
+    public String getUsersETag() {
+        return tableVersions.etag(TableVersions.Table.USERS);
+    }
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
+
+    private void rehash(User user, String password) {
+        String currentHash = user.getPassword();
+        try {
+            // Hashing threads only hash; the write runs on the application executor. A re-hash encodes the same
+            // password, so it does not bump the USERS version.
+            passwordHashing.encode(password)
+                    .thenAcceptAsync(newHash -> userRepository.updatePassword(user.getId(), currentHash, newHash),
+                            writeExecutor)
+                    .exceptionally(e -> {
+                        logger.warn("Could not re-hash password for user {}: {}", user.getUsername(), e.getMessage());
+                        return null;
+                    });
+        } catch (TooManyRequestsException e) {
+            logger.debug("Skipping password re-hash for user {} while hashing pool is busy", user.getUsername());
+        }
+    }
+
+    public CursorPage<User> getUsersPage(String cursor, Integer size) {
+        Pageable limit = paging.limit(size);
+        List<User> rows = userRepository.findByIdGreaterThanOrderById(paging.decodeId(cursor), limit);
+        return paging.page(rows, limit, user -> paging.encode(user.getId()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package ro.medCare.service;
+
+import java.time.LocalTime;
+
+final class WorkHours {
+
+    static final WorkHours NONE = new WorkHours(null, null);
+
+    private final LocalTime start;
+    private final LocalTime end;
+
+    private WorkHours(LocalTime start, LocalTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    static WorkHours parse(String workHours) {
+        String[] workHoursParts = workHours.split("-");
+
+        if (workHoursParts.length != 2) {
+            return NONE;
+        }
+
+        return new WorkHours(LocalTime.parse(workHoursParts[0].trim()), LocalTime.parse(workHoursParts[1].trim()));
+    }
+
+    LocalTime getStart() {
+        return start;
+    }
+
+    LocalTime getEnd() {
+        return end;
+    }
+
+    boolean isDefined() {
+        return start != null;
+    }
+
+    boolean contains(LocalTime time, int durationMinutes) {
+        return isDefined() && !time.isBefore(start) && !time.plusMinutes(durationMinutes).isAfter(end);
+    }
+}
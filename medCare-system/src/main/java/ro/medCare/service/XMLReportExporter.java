@@ -1,71 +1,97 @@
 package ro.medCare.service;
 
 import org.springframework.stereotype.Component;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import ro.medCare.dto.ReportDTO;
+import ro.medCare.dto.AppointmentRow;
 import ro.medCare.model.Doctor;
 import ro.medCare.model.MedicalService;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.File;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 @Component
-public class XMLReportExporter implements ReportExporter {
+public class XMLReportExporter {
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
 
-    @Override
-    public File export(ReportDTO report) throws Exception {
-
-        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-
-        Element root = doc.createElement("statisticsReport");
-        doc.appendChild(root);
-
-        Element meta = doc.createElement("reportPeriod");
-        root.appendChild(meta);
-        addElement(doc, meta, "startDate", report.getStartDate().format(DATE_FORMAT));
-        addElement(doc, meta, "endDate", report.getEndDate().format(DATE_FORMAT));
-
-        Element doctorsStats = doc.createElement("topDoctors");
-        root.appendChild(doctorsStats);
-
-        for (Map.Entry<Doctor, Long> entry : report.getDoctorStatistics().entrySet()) {
-            Element doctorEl = doc.createElement("doctor");
-            doctorsStats.appendChild(doctorEl);
+    XMLStreamWriter open(OutputStream outputStream) throws XMLStreamException {
+        XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(outputStream, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeStartElement("statisticsReport");
+        return xml;
+    }
 
-            addElement(doc, doctorEl, "name", entry.getKey().getName());
-            addElement(doc, doctorEl, "specialization", entry.getKey().getSpecialization());
-            addElement(doc, doctorEl, "appointmentsCount", String.valueOf(entry.getValue()));
+    void writeHeader(XMLStreamWriter xml,
+                     LocalDateTime startDate,
+                     LocalDateTime endDate,
+                     Map<Doctor, Long> doctorStatistics,
+                     Map<MedicalService, Long> serviceStatistics) throws XMLStreamException {
+
+        xml.writeStartElement("reportPeriod");
+        addElement(xml, "startDate", startDate.format(DATE_FORMAT));
+        addElement(xml, "endDate", endDate.format(DATE_FORMAT));
+        xml.writeEndElement();
+
+        xml.writeStartElement("topDoctors");
+        for (Map.Entry<Doctor, Long> entry : doctorStatistics.entrySet()) {
+            xml.writeStartElement("doctor");
+            addElement(xml, "name", entry.getKey().getName());
+            addElement(xml, "specialization", entry.getKey().getSpecialization());
+            addElement(xml, "appointmentsCount", String.valueOf(entry.getValue()));
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+
+        xml.writeStartElement("topServices");
+        for (Map.Entry<MedicalService, Long> entry : serviceStatistics.entrySet()) {
+            xml.writeStartElement("service");
+            addElement(xml, "name", entry.getKey().getName());
+            addElement(xml, "price", String.valueOf(entry.getKey().getPrice()));
+            addElement(xml, "appointmentsCount", String.valueOf(entry.getValue()));
+            xml.writeEndElement();
         }
+        xml.writeEndElement();
+    }
 
-        Element servicesStats = doc.createElement("topServices");
-        root.appendChild(servicesStats);
+    void startAppointments(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement("appointments");
+    }
 
-        for (Map.Entry<MedicalService, Long> entry : report.getServiceStatistics().entrySet()) {
-            Element serviceEl = doc.createElement("service");
-            servicesStats.appendChild(serviceEl);
-            addElement(doc, serviceEl, "name", entry.getKey().getName());
-            addElement(doc, serviceEl, "price", String.valueOf(entry.getKey().getPrice()));
-            addElement(doc, serviceEl, "appointmentsCount", String.valueOf(entry.getValue()));
-        }
+    void writeAppointment(AppointmentRow appointment, XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement("appointment");
+        xml.writeAttribute("id", String.valueOf(appointment.getId()));
+        addElement(xml, "patientName", appointment.getPatientName());
+        addElement(xml, "doctor", appointment.getDoctorName());
+        addElement(xml, "specialization", appointment.getSpecialization());
+        addElement(xml, "dateTime", appointment.getDateTime().format(DATE_FORMAT));
+        addElement(xml, "service", appointment.getServiceName());
+        addElement(xml, "price", String.valueOf(appointment.getPrice()));
+        addElement(xml, "duration", String.valueOf(appointment.getDuration()));
+        addElement(xml, "status", appointment.getStatus().name());
+        xml.writeEndElement();
+    }
 
-        File xmlFile = File.createTempFile("statistics_", ".xml");
-        TransformerFactory.newInstance().newTransformer().transform(
-                new DOMSource(doc), new StreamResult(xmlFile));
+    void endAppointments(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeEndElement();
+    }
 
-        return xmlFile;
+    void close(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
     }
 
-    private void addElement(Document doc, Element parent, String name, String value) {
-        Element element = doc.createElement(name);
-        element.setTextContent(value);
-        parent.appendChild(element);
+    private void addElement(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        xml.writeStartElement(name);
+        if (value != null) {
+            xml.writeCharacters(value);
+        }
+        xml.writeEndElement();
     }
-}
\ No newline at end of file
+}
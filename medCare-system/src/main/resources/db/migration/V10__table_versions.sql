@@ -0,0 +1,8 @@
+-- Per-table change counters behind reference-data ETags; bumped in the same transaction as the write.
+CREATE TABLE table_versions (
+    table_name VARCHAR(64) NOT NULL,
+    version    BIGINT      NOT NULL,
+    PRIMARY KEY (table_name)
+);
+
+INSERT INTO table_versions (table_name, version) VALUES ('DOCTORS', 0), ('MEDICAL_SERVICES', 0), ('USERS', 0);
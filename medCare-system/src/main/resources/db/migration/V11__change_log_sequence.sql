@@ -0,0 +1,15 @@
+-- Feed position of each change, assigned by the sequencer only after the writing transaction has committed, so
+-- positions become visible in order without writers coordinating with each other. NULL until sequenced.
+ALTER TABLE appointment_changes ADD COLUMN seq BIGINT;
+UPDATE appointment_changes SET seq = id;
+
+-- Reading the feed after a cursor, and picking up rows that still wait for a position.
+CREATE INDEX idx_appointment_changes_seq_id ON appointment_changes (seq, id);
+
+-- Finding superseded entries during compaction.
+CREATE INDEX idx_appointment_changes_appointment_seq ON appointment_changes (appointment_id, seq);
+DROP INDEX idx_appointment_changes_appointment_id ON appointment_changes;
+
+-- Highest position handed out so far; read and advanced under a row lock that only sequencers take.
+ALTER TABLE change_feed_horizons ADD COLUMN sequenced_through BIGINT NOT NULL DEFAULT 0;
+UPDATE change_feed_horizons SET sequenced_through = (SELECT COALESCE(MAX(id), 0) FROM appointment_changes);
@@ -0,0 +1,6 @@
+-- Service and status an appointment held after and before each change, so the statistics store can follow the change
+-- log instead of in-process events. NULL for archival entries and for rows written before these columns.
+ALTER TABLE appointment_changes ADD COLUMN service_id BIGINT;
+ALTER TABLE appointment_changes ADD COLUMN status VARCHAR(32);
+ALTER TABLE appointment_changes ADD COLUMN previous_service_id BIGINT;
+ALTER TABLE appointment_changes ADD COLUMN previous_status VARCHAR(32);
@@ -0,0 +1,19 @@
+-- Report job state shared by every node, so a job can be polled and downloaded after a restart or from another node.
+-- Results are spooled as report-job-<id>.<extension> under medcare.reports.jobs.spool-dir.
+CREATE TABLE report_jobs (
+    id                   VARCHAR(36)   NOT NULL,
+    status               VARCHAR(16)   NOT NULL,
+    format               VARCHAR(8)    NOT NULL,
+    start_date           DATETIME(6)   NOT NULL,
+    end_date             DATETIME(6)   NOT NULL,
+    include_appointments BOOLEAN       NOT NULL,
+    submitted_at         DATETIME(6)   NOT NULL,
+    completed_at         DATETIME(6),
+    size_bytes           BIGINT,
+    error                VARCHAR(1024),
+    PRIMARY KEY (id)
+);
+
+-- Expiring finished jobs and failing abandoned ones.
+CREATE INDEX idx_report_jobs_completed_at ON report_jobs (completed_at);
+CREATE INDEX idx_report_jobs_submitted_at ON report_jobs (submitted_at);
@@ -0,0 +1,3 @@
+-- Highest position removed by superseded-entry compaction. Feed readers only need the latest entry per appointment,
+-- but the statistics store applies every entry as a delta and must resync once it falls behind this position.
+ALTER TABLE change_feed_horizons ADD COLUMN superseded_through BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Appointment ids come from a pooled table generator so bulk imports can batch their inserts; the row for the
+-- appointments key is seeded past the existing ids by IdGeneratorAligner at startup.
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+ALTER TABLE appointments MODIFY COLUMN id BIGINT NOT NULL;
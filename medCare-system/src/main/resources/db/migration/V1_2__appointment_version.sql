@@ -0,0 +1,2 @@
+-- Optimistic lock column for concurrent booking; rows written before it existed start at version 0.
+ALTER TABLE appointments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
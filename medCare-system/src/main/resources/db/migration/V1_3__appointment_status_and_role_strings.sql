@@ -0,0 +1,4 @@
+-- Hibernate created the enum-mapped columns as native ENUMs listing only the constants that existed at the time.
+-- Plain strings take new constants, such as CANCELED, without a migration each time.
+ALTER TABLE appointments MODIFY COLUMN status VARCHAR(32) NOT NULL;
+ALTER TABLE users MODIFY COLUMN role VARCHAR(32) NOT NULL;
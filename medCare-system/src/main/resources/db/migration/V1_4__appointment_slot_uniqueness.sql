@@ -0,0 +1,7 @@
+-- A doctor has at most one appointment starting at a given time, enforced by the database as the last line of
+-- defence behind the booking locks. Fails on databases that already hold a double-booked slot; those rows have to be
+-- resolved by hand before upgrading.
+ALTER TABLE appointments ADD CONSTRAINT uk_appointments_doctor_date_time UNIQUE (doctor_id, date_time);
+
+-- Keyset pages over the appointment list.
+CREATE INDEX idx_appointments_date_time_id ON appointments (date_time, id);
@@ -0,0 +1,40 @@
+-- Schema the application had before Flyway, exactly as Hibernate's ddl-auto=update generated it for MySQL, including
+-- its constraint names. Existing databases are baselined at this version; the V1_x scripts bring them up to date.
+CREATE TABLE appointments (
+    date_time    DATETIME(6)                            NOT NULL,
+    doctor_id    BIGINT                                 NOT NULL,
+    id           BIGINT                                 NOT NULL AUTO_INCREMENT,
+    service_id   BIGINT                                 NOT NULL,
+    patient_name VARCHAR(255)                           NOT NULL,
+    status       ENUM ('NEW','IN_PROGRESS','COMPLETED') NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE doctors (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    name           VARCHAR(255) NOT NULL,
+    specialization VARCHAR(255) NOT NULL,
+    work_hours     VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE medical_services (
+    duration INTEGER      NOT NULL,
+    price    FLOAT(53)    NOT NULL,
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id       BIGINT                        NOT NULL AUTO_INCREMENT,
+    name     VARCHAR(255)                  NOT NULL,
+    password VARCHAR(255)                  NOT NULL,
+    username VARCHAR(255)                  NOT NULL,
+    role     ENUM ('ADMIN','RECEPTIONIST') NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+ALTER TABLE users ADD CONSTRAINT UK_r43af9ap4edm43mmtq01oddj6 UNIQUE (username);
+ALTER TABLE appointments ADD CONSTRAINT FKmujeo4tymoo98cmf7uj3vsv76 FOREIGN KEY (doctor_id) REFERENCES doctors (id);
+ALTER TABLE appointments ADD CONSTRAINT FKn3l3mhd2vs7vn3njn2t6lijkb FOREIGN KEY (service_id) REFERENCES medical_services (id);
@@ -0,0 +1,13 @@
+-- Per-doctor slot lookups (availability, booking, free-slot search) read service_id for the duration join.
+CREATE INDEX idx_appointments_doctor_date_time_service ON appointments (doctor_id, date_time, service_id);
+
+-- Date-range scans for the schedule index and the per-doctor and per-service report aggregations.
+CREATE INDEX idx_appointments_date_time_doctor_service ON appointments (date_time, doctor_id, service_id);
+
+-- Per-service totals for statistics reconciliation.
+CREATE INDEX idx_appointments_service_date_time ON appointments (service_id, date_time);
+
+-- Status totals and status-filtered keyset pages.
+CREATE INDEX idx_appointments_status_date_time_id ON appointments (status, date_time, id);
+
+CREATE INDEX idx_doctors_specialization ON doctors (specialization);
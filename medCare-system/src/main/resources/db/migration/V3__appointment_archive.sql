@@ -0,0 +1,21 @@
+-- Completed appointments past the archive age, moved out of the hot table by the archival job.
+CREATE TABLE archived_appointments (
+    id           BIGINT       NOT NULL,
+    patient_name VARCHAR(255) NOT NULL,
+    doctor_id    BIGINT       NOT NULL,
+    date_time    DATETIME(6)  NOT NULL,
+    service_id   BIGINT       NOT NULL,
+    status       VARCHAR(32)  NOT NULL,
+    version      BIGINT,
+    archived_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_archived_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES doctors (id),
+    CONSTRAINT fk_archived_appointments_service FOREIGN KEY (service_id) REFERENCES medical_services (id)
+);
+
+-- Ordered range scans for report exports that reach into archived history.
+CREATE INDEX idx_archived_appointments_date_time_id ON archived_appointments (date_time, id);
+
+-- Per-doctor and per-service report aggregations over archived ranges.
+CREATE INDEX idx_archived_appointments_date_time_doctor_service
+    ON archived_appointments (date_time, doctor_id, service_id);
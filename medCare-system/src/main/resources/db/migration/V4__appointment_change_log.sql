@@ -0,0 +1,23 @@
+-- Append-only log of appointment mutations backing the delta-sync change feed; the id is the feed cursor.
+CREATE TABLE appointment_changes (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    appointment_id BIGINT      NOT NULL,
+    change_type    VARCHAR(32) NOT NULL,
+    changed_at     DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Finding superseded entries during compaction.
+CREATE INDEX idx_appointment_changes_appointment_id ON appointment_changes (appointment_id, id);
+
+-- Retention cut-off and the settled head of the feed.
+CREATE INDEX idx_appointment_changes_changed_at ON appointment_changes (changed_at);
+
+-- Highest change id dropped by retention; cursors below it can no longer be served.
+CREATE TABLE change_feed_horizons (
+    feed              VARCHAR(64) NOT NULL,
+    compacted_through BIGINT      NOT NULL,
+    PRIMARY KEY (feed)
+);
+
+INSERT INTO change_feed_horizons (feed, compacted_through) VALUES ('appointments', 0);
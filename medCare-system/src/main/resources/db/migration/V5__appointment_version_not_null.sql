@@ -0,0 +1,7 @@
+-- Databases baselined from a schema generated by Hibernate got the optimistic lock column as nullable,
+-- so rows written before it existed hold NULL versions and cannot be updated.
+UPDATE appointments SET version = 0 WHERE version IS NULL;
+ALTER TABLE appointments MODIFY COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE archived_appointments SET version = 0 WHERE version IS NULL;
+ALTER TABLE archived_appointments MODIFY COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- Canceled appointments give their slot back: the per-doctor uniqueness check only covers active rows,
+-- whose generated active_date_time is non-NULL.
+ALTER TABLE appointments ADD COLUMN active_date_time DATETIME(6)
+    GENERATED ALWAYS AS (CASE WHEN status = 'CANCELED' THEN NULL ELSE date_time END);
+
+CREATE UNIQUE INDEX uk_appointments_doctor_active_slot ON appointments (doctor_id, active_date_time);
+
+ALTER TABLE appointments DROP CONSTRAINT uk_appointments_doctor_date_time;
+
+-- Slot lookups now filter on status, so the per-doctor access path carries it to stay index-only.
+CREATE INDEX idx_appointments_doctor_date_time_service_status
+    ON appointments (doctor_id, date_time, service_id, status);
+
+DROP INDEX idx_appointments_doctor_date_time_service ON appointments;
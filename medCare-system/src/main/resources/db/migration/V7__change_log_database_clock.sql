@@ -0,0 +1,2 @@
+-- Change timestamps come from the database clock, never from whichever node wrote the change.
+ALTER TABLE appointment_changes MODIFY COLUMN changed_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -0,0 +1,6 @@
+-- Doctor and day an appointment occupied after and before each change, so event streams can filter the shared
+-- change log without loading the appointments. NULL for archival entries and for rows written before this column.
+ALTER TABLE appointment_changes ADD COLUMN doctor_id BIGINT;
+ALTER TABLE appointment_changes ADD COLUMN slot_date DATE;
+ALTER TABLE appointment_changes ADD COLUMN previous_doctor_id BIGINT;
+ALTER TABLE appointment_changes ADD COLUMN previous_slot_date DATE;
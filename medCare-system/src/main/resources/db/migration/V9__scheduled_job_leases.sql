@@ -0,0 +1,9 @@
+-- Cluster-wide leases so a scheduled job runs on one node at a time; expiry uses the database clock.
+CREATE TABLE scheduled_job_leases (
+    job          VARCHAR(64) NOT NULL,
+    locked_until DATETIME(6) NOT NULL,
+    locked_by    VARCHAR(64),
+    PRIMARY KEY (job)
+);
+
+INSERT INTO scheduled_job_leases (job, locked_until) VALUES ('appointment-archive', '1970-01-01 00:00:00');
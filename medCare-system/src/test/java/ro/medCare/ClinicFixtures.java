@@ -0,0 +1,116 @@
+package ro.medCare;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.AppointmentDAO;
+import ro.medCare.repository.DoctorDAO;
+import ro.medCare.repository.MedicalServiceDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@TestComponent
+public class ClinicFixtures {
+
+    public static final String WORK_HOURS = "08:00-16:00";
+
+    private static final int FIRST_FUTURE_DAY = 1000;
+
+    private static final AtomicInteger NEXT_FUTURE_DAY = new AtomicInteger(FIRST_FUTURE_DAY);
+    private static final AtomicInteger NEXT_NAME = new AtomicInteger();
+
+    private final ApplicationContext context;
+    private final DoctorDAO doctorRepository;
+    private final MedicalServiceDAO medicalServiceRepository;
+    private final AppointmentDAO appointmentRepository;
+
+    @Autowired
+    public ClinicFixtures(ApplicationContext context,
+                          DoctorDAO doctorRepository,
+                          MedicalServiceDAO medicalServiceRepository,
+                          AppointmentDAO appointmentRepository) {
+        this.context = context;
+        this.doctorRepository = doctorRepository;
+        this.medicalServiceRepository = medicalServiceRepository;
+        this.appointmentRepository = appointmentRepository;
+    }
+
+    public Doctor doctor() {
+        return doctor("General", WORK_HOURS);
+    }
+
+    public Doctor doctor(String specialization, String workHours) {
+        return doctorRepository.save(new Doctor(null, "Dr. Fixture " + NEXT_NAME.incrementAndGet(), specialization,
+                workHours));
+    }
+
+    public List<Doctor> doctors(int count, String specialization, String workHours) {
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            doctors.add(doctor(specialization, workHours));
+        }
+        return doctors;
+    }
+
+    public MedicalService service() {
+        return service(30);
+    }
+
+    public MedicalService service(int duration) {
+        return medicalServiceRepository.save(new MedicalService(null, "Fixture service " + NEXT_NAME.incrementAndGet(),
+                100, duration));
+    }
+
+    public Appointment appointment(Doctor doctor, MedicalService service, LocalDateTime dateTime,
+                                   AppointmentStatus status) {
+        return appointmentRepository.save(new Appointment(null, "Fixture patient", doctor, dateTime, service, status,
+                null));
+    }
+
+    public static LocalDate futureDay() {
+        return futureDays(1);
+    }
+
+    public static LocalDate futureDays(int count) {
+        return LocalDate.now().plusDays(NEXT_FUTURE_DAY.getAndAdd(count));
+    }
+
+    public ConfigurableApplicationContext node(Class<?>... nodeLocalBeans) {
+        AnnotationConfigApplicationContext node = new AnnotationConfigApplicationContext() {
+            // Events stay on the node that published them, as they would on a separate server; a child context
+            // otherwise hands every event on to the parent's listeners too.
+            @Override
+            protected void publishEvent(Object event, ResolvableType typeHint) {
+                getBean(APPLICATION_EVENT_MULTICASTER_BEAN_NAME, ApplicationEventMulticaster.class)
+                        .multicastEvent(event instanceof ApplicationEvent applicationEvent
+                                ? applicationEvent : new PayloadApplicationEvent<>(this, event, typeHint));
+            }
+        };
+        node.setParent(context);
+        node.register(NodeConfiguration.class);
+        node.register(nodeLocalBeans);
+        node.refresh();
+        return node;
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    @EnableTransactionManagement(proxyTargetClass = true)
+    static class NodeConfiguration {
+    }
+}
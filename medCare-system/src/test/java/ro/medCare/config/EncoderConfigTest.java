@@ -0,0 +1,43 @@
+package ro.medCare.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EncoderConfigTest {
+
+    private final EncoderConfig config = new EncoderConfig();
+
+    @Test
+    void configuredStrengthIsUsedWhenCalibrationIsOff() {
+        PasswordEncoder encoder = config.passwordEncoder(5, false, 250);
+
+        String hash = encoder.encode("secret");
+        assertTrue(hash.startsWith("$2a$05$"), hash);
+        assertTrue(encoder.matches("secret", hash));
+    }
+
+    @Test
+    void calibrationNeverGoesBelowTheMinimumStrength() {
+        PasswordEncoder encoder = config.passwordEncoder(12, true, -1);
+
+        String hash = encoder.encode("secret");
+        assertTrue(hash.startsWith("$2a$04$"), hash);
+        assertTrue(encoder.matches("secret", hash));
+    }
+
+    @Test
+    void calibrationPicksAStrengthWithinTheTarget() {
+        PasswordEncoder encoder = config.passwordEncoder(4, true, 40);
+
+        long start = System.nanoTime();
+        String hash = encoder.encode("secret");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        int strength = Integer.parseInt(hash.substring(4, 6));
+        assertTrue(strength >= 4 && strength <= 16, hash);
+        // Generous bound: calibration measured at most 40 ms for this strength.
+        assertTrue(elapsedMillis < 400, "strength " + strength + " took " + elapsedMillis + " ms");
+    }
+}
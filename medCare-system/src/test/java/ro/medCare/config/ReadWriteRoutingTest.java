@@ -0,0 +1,115 @@
+package ro.medCare.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Doctor;
+import ro.medCare.repository.DoctorDAO;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "medcare.datasource.routing.enabled=true",
+        "medcare.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "medcare.datasource.replica.driverClassName=org.h2.Driver",
+        "medcare.datasource.replica.username=sa",
+        "medcare.datasource.replica.password=",
+        "medcare.datasource.read-your-writes-ms=60000"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:medCareRoutingPrimary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:medCareRoutingReplica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate PRIMARY = jdbc(PRIMARY_URL);
+    private static final JdbcTemplate REPLICA = jdbc(REPLICA_URL);
+
+    static {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DoctorDAO doctorRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndWritesUseThePrimary() {
+        double replicaReads = connections("replica", "read-only");
+        REPLICA.update("INSERT INTO doctors (id, name, specialization, work_hours) VALUES (9001, 'Dr. Replica', 'Routing', '08:00-16:00')");
+
+        doctorRepository.save(new Doctor(null, "Dr. Primary", "Routing", "08:00-16:00"));
+
+        assertEquals(1, PRIMARY.queryForObject("SELECT COUNT(*) FROM doctors WHERE specialization = 'Routing'", Integer.class));
+        assertEquals("Dr. Replica", doctorRepository.findBySpecialization("Routing").get(0).getName());
+        assertTrue(connections("replica", "read-only") > replicaReads);
+    }
+
+    @Test
+    void bookingClientReadsItsOwnWriteFromThePrimary() throws Exception {
+        long doctorId = 9100;
+        long serviceId = 9100;
+        for (JdbcTemplate database : new JdbcTemplate[]{PRIMARY, REPLICA}) {
+            database.update("INSERT INTO doctors (id, name, specialization, work_hours) VALUES (?, 'Dr. Booking', 'Booking', '08:00-16:00')", doctorId);
+            database.update("INSERT INTO medical_services (id, name, price, duration) VALUES (?, 'Routing consult', 90, 30)", serviceId);
+        }
+        LocalDateTime slot = ClinicFixtures.futureDay().atTime(10, 0);
+        String body = "{\"patientName\":\"Routing patient\",\"doctor\":{\"id\":" + doctorId + "},"
+                + "\"service\":{\"id\":" + serviceId + ",\"duration\":30},\"dateTime\":\"" + slot + "\"}";
+
+        String created = mockMvc.perform(post("/api/appointments").with(client("10.0.0.1"))
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long appointmentId = objectMapper.readTree(created).get("id").asLong();
+
+        double pinnedReads = connections("primary", "read-your-writes");
+        mockMvc.perform(get("/api/appointments/" + appointmentId).with(client("10.0.0.1")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/appointments/" + appointmentId).with(client("10.0.0.2")))
+                .andExpect(status().isNotFound());
+
+        assertTrue(connections("primary", "read-your-writes") > pinnedReads);
+    }
+
+    private double connections(String route, String reason) {
+        return meterRegistry.get("medcare.datasource.connections").tag("route", route).tag("reason", reason)
+                .counter().count();
+    }
+
+    private static RequestPostProcessor client(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private static JdbcTemplate jdbc(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
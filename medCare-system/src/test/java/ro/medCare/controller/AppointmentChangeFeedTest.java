@@ -0,0 +1,169 @@
+package ro.medCare.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.service.AppointmentChangeLog;
+import ro.medCare.service.AppointmentService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:medCareChangeFeed;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@Import(ClinicFixtures.class)
+class AppointmentChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentChangeLog changeLog;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void feedReturnsLatestChangesAndTombstonesSinceCursor() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDateTime day = ClinicFixtures.futureDay().atTime(9, 0);
+
+        String head = changes(null).get("nextCursor").asText();
+
+        Appointment kept = appointmentService.createAppointment(
+                new Appointment(null, "Feed patient", doctor, day, service, AppointmentStatus.NEW, null));
+        Appointment removed = appointmentService.createAppointment(
+                new Appointment(null, "Removed patient", doctor, day.plusHours(2), service, AppointmentStatus.NEW, null));
+        appointmentService.updateAppointmentStatus(kept.getId(), AppointmentStatus.IN_PROGRESS);
+        appointmentService.deleteAppointment(removed.getId());
+
+        JsonNode page = changes(head);
+        JsonNode items = page.get("items");
+        assertEquals(2, items.size());
+        assertEquals(kept.getId(), items.get(0).get("appointmentId").asLong());
+        assertEquals("STATUS_CHANGED", items.get(0).get("type").asText());
+        assertEquals("IN_PROGRESS", items.get(0).get("appointment").get("status").asText());
+        assertEquals(removed.getId(), items.get(1).get("appointmentId").asLong());
+        assertEquals("DELETED", items.get(1).get("type").asText());
+        assertTrue(items.get(1).get("appointment").isNull());
+        assertFalse(page.get("hasMore").asBoolean());
+
+        String next = page.get("nextCursor").asText();
+        assertTrue(changes(next).get("items").isEmpty());
+        assertEquals(next, changes(next).get("nextCursor").asText());
+
+        jdbcTemplate.update("UPDATE appointment_changes SET changed_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(8)));
+        changeLog.compactChanges();
+
+        mockMvc.perform(get("/api/appointments/changes").param("since", head))
+                .andExpect(status().isGone());
+        assertTrue(changes(next).get("items").isEmpty());
+        mockMvc.perform(get("/api/appointments/changes").param("since", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changeCommittedLateIsNotSkippedByCursorsThatMovedOn() throws Exception {
+        MedicalService service = fixtures.service();
+        LocalDateTime slot = ClinicFixtures.futureDay().atTime(9, 0);
+        String head = changes(null).get("nextCursor").asText();
+
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Appointment> late = writers.submit(() -> transactionTemplate.execute(tx -> {
+                Appointment appointment = appointmentService.createAppointment(
+                        new Appointment(null, "Late patient", fixtures.doctor(), slot, service, null, null));
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        stalled.countDown();
+                        awaitQuietly(release);
+                    }
+                });
+                return appointment;
+            }));
+            assertTrue(stalled.await(10, TimeUnit.SECONDS));
+
+            Long earlyId = writers.submit(() -> appointmentService.createAppointment(
+                    new Appointment(null, "Early patient", fixtures.doctor(), slot, service, null, null)))
+                    .get(10, TimeUnit.SECONDS).getId();
+
+            JsonNode whileStalled = changes(head);
+            String cursor = whileStalled.get("nextCursor").asText();
+            List<Long> seen = new ArrayList<>();
+            whileStalled.get("items").forEach(item -> seen.add(item.get("appointmentId").asLong()));
+
+            release.countDown();
+            Long lateId = late.get(10, TimeUnit.SECONDS).getId();
+
+            changes(cursor).get("items").forEach(item -> seen.add(item.get("appointmentId").asLong()));
+            assertEquals(List.of(earlyId, lateId), seen);
+        } finally {
+            release.countDown();
+            writers.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JsonNode changes(String since) throws Exception {
+        changeLog.sequenceChanges();
+        var request = get("/api/appointments/changes");
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,174 @@
+package ro.medCare.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.service.AppointmentChangeLog;
+import ro.medCare.service.AppointmentEventBroadcaster;
+import ro.medCare.service.AppointmentService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCareEvents;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "medcare.events.heartbeat-ms=3600000",
+        "medcare.events.poll-ms=3600000",
+        "medcare.events.coalesce-threshold=5",
+        "medcare.events.max-subscribers=3"
+})
+@AutoConfigureMockMvc
+@Import(ClinicFixtures.class)
+class AppointmentEventStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentEventBroadcaster eventBroadcaster;
+
+    @Autowired
+    private AppointmentChangeLog changeLog;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void subscribersReceiveOnlyMatchingChangesAndHeartbeats() throws Exception {
+        Doctor watched = fixtures.doctor();
+        Doctor other = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDate day = ClinicFixtures.futureDays(2);
+
+        MvcResult result = subscribe(watched, day);
+        MockHttpServletResponse stream = result.getResponse();
+        awaitContent(stream, body -> body.contains(":connected"));
+
+        appointmentService.createAppointment(new Appointment(null, "Other doctor patient", other,
+                day.atTime(9, 0), service, AppointmentStatus.NEW, null));
+        appointmentService.createAppointment(new Appointment(null, "Other day patient", watched,
+                day.plusDays(1).atTime(9, 0), service, AppointmentStatus.NEW, null));
+        Appointment booked = appointmentService.createAppointment(new Appointment(null, "Watched patient", watched,
+                day.atTime(10, 0), service, AppointmentStatus.NEW, null));
+        changeLog.sequenceChanges();
+        eventBroadcaster.poll();
+        appointmentService.updateAppointmentStatus(booked.getId(), AppointmentStatus.IN_PROGRESS);
+        changeLog.sequenceChanges();
+        eventBroadcaster.poll();
+        eventBroadcaster.heartbeat();
+
+        String body = awaitContent(stream, content -> content.contains(":heartbeat"));
+        assertTrue(body.indexOf("event:CREATED") < body.indexOf("event:STATUS_CHANGED"), body);
+        assertTrue(body.contains("Watched patient"), body);
+        assertFalse(body.contains("Other doctor patient"), body);
+        assertFalse(body.contains("Other day patient"), body);
+        close(result);
+    }
+
+    @Test
+    void importBurstIsCoalescedIntoOneResyncAndKeepsTheStreamOpen() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDate day = ClinicFixtures.futureDay();
+
+        MvcResult result = subscribe(doctor, day);
+        MockHttpServletResponse stream = result.getResponse();
+        awaitContent(stream, body -> body.contains(":connected"));
+
+        StringBuilder csv = new StringBuilder("patientName,doctorId,serviceId,dateTime\n");
+        for (int i = 0; i < 12; i++) {
+            csv.append("Imported ").append(i).append(',').append(doctor.getId()).append(',').append(service.getId())
+                    .append(',').append(day.atTime(8, 0).plusMinutes(30L * i)).append('\n');
+        }
+        mockMvc.perform(post("/api/appointments/import").contentType("text/csv").content(csv.toString()))
+                .andExpect(status().isOk());
+        changeLog.sequenceChanges();
+        eventBroadcaster.poll();
+        eventBroadcaster.heartbeat();
+
+        String body = awaitContent(stream, content -> content.contains(":heartbeat"));
+        assertEquals(1, occurrences(body, "event:RESYNC"), body);
+        assertFalse(body.contains("event:CREATED"), body);
+        assertTrue(result.getRequest().isAsyncStarted(), body);
+        close(result);
+    }
+
+    @Test
+    void subscribersBeyondTheCapAreToldToRetryLater() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        LocalDate day = ClinicFixtures.futureDay();
+
+        List<MvcResult> open = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                open.add(subscribe(doctor, day));
+            }
+            mockMvc.perform(get("/api/appointments/events"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"));
+        } finally {
+            open.forEach(AppointmentEventStreamTest::close);
+        }
+
+        MvcResult reopened = subscribe(doctor, day);
+        awaitContent(reopened.getResponse(), body -> body.contains(":connected"));
+        close(reopened);
+    }
+
+    private MvcResult subscribe(Doctor doctor, LocalDate day) throws Exception {
+        return mockMvc.perform(get("/api/appointments/events")
+                        .param("doctorId", String.valueOf(doctor.getId()))
+                        .param("day", day.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static void close(MvcResult result) {
+        result.getRequest().getAsyncContext().complete();
+    }
+
+    private static int occurrences(String body, String text) {
+        int count = 0;
+        for (int from = body.indexOf(text); from >= 0; from = body.indexOf(text, from + text.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, Predicate<String> condition) throws Exception {
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(5);
+        String body = response.getContentAsString();
+        while (!condition.test(body) && LocalDateTime.now().isBefore(deadline)) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        assertTrue(condition.test(body), body);
+        return body;
+    }
+}
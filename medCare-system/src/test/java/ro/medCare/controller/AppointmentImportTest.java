@@ -0,0 +1,180 @@
+package ro.medCare.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.AppointmentDAO;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ClinicFixtures.class)
+class AppointmentImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentDAO appointmentRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void csvImportReportsEveryRowAndRejectsConflicts() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        Appointment existing = fixtures.appointment(doctor, service, day.atTime(9, 0), AppointmentStatus.NEW);
+
+        String csv = "patientName,doctorId,serviceId,dateTime\n"
+                + "Ana," + doctor.getId() + "," + service.getId() + "," + day.atTime(9, 15) + "\n"
+                + "Ion," + doctor.getId() + "," + service.getId() + "," + day.atTime(10, 0) + "\n"
+                + "Maria," + doctor.getId() + "," + service.getId() + "," + day.atTime(10, 15) + "\n"
+                + "Dan," + doctor.getId() + "," + service.getId() + ",not-a-date\n"
+                + "Elena," + doctor.getId() + "," + service.getId() + "," + day.atTime(20, 0) + "\n"
+                + "Radu,999999," + service.getId() + "," + day.atTime(11, 0) + "\n"
+                + "Vlad," + doctor.getId() + "," + service.getId() + "," + day.atTime(11, 0) + "\n";
+
+        JsonNode report = importBody("text/csv", csv);
+
+        assertEquals(7, report.get("total").asInt());
+        assertEquals(2, report.get("created").asInt());
+        assertEquals(5, report.get("rejected").asInt());
+        assertRow(report, 1, "REJECTED");
+        assertRow(report, 2, "CREATED");
+        assertRow(report, 3, "REJECTED");
+        assertRow(report, 4, "REJECTED");
+        assertRow(report, 5, "REJECTED");
+        assertRow(report, 6, "REJECTED");
+        assertRow(report, 7, "CREATED");
+
+        Long createdId = report.get("rows").get(1).get("appointmentId").asLong();
+        assertTrue(createdId > existing.getId());
+        assertEquals("Ion", appointmentRepository.findById(createdId).orElseThrow().getPatientName());
+    }
+
+    @Test
+    void jsonImportBatchesInsertsAndQueriesEachDoctorOnce() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        Doctor first = fixtures.doctor();
+        Doctor second = fixtures.doctor();
+        MedicalService service = fixtures.service();
+
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 32; i++) {
+            Doctor doctor = i % 2 == 0 ? first : second;
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"patientName\":\"Patient ").append(i)
+                    .append("\",\"doctorId\":").append(doctor.getId())
+                    .append(",\"serviceId\":").append(service.getId())
+                    .append(",\"dateTime\":\"").append(day.atTime(8, 0).plusMinutes(30L * (i / 2))).append("\"}");
+        }
+        json.append(']');
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        JsonNode report = importBody(MediaType.APPLICATION_JSON_VALUE, json.toString());
+
+        assertEquals(32, report.get("created").asInt());
+        assertTrue(statistics.getPrepareStatementCount() < 16, "statements: " + statistics.getPrepareStatementCount());
+
+        Set<Long> ids = new HashSet<>();
+        report.get("rows").forEach(row -> ids.add(row.get("appointmentId").asLong()));
+        assertEquals(32, ids.size());
+    }
+
+    @Test
+    void duplicateSlotInOneChunkIsRejectedAndUnsavableChunkIsReportedNotThrown() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        String slot = doctor.getId() + "," + service.getId() + "," + day.atTime(9, 0);
+
+        JsonNode duplicates = importBody("text/csv", "patientName,doctorId,serviceId,dateTime\n"
+                + "Ana," + slot + "\n"
+                + "Ion," + slot + "\n");
+        assertEquals(1, duplicates.get("created").asInt());
+        assertRow(duplicates, 1, "CREATED");
+        assertRow(duplicates, 2, "REJECTED");
+
+        String unsavable = "patientName,doctorId,serviceId,dateTime\n"
+                + "Maria," + doctor.getId() + "," + service.getId() + "," + day.atTime(10, 0) + "\n"
+                + "Elena," + doctor.getId() + "," + service.getId() + "," + day.atTime(10, 0) + "\n"
+                + "P".repeat(300) + "," + doctor.getId() + "," + service.getId() + "," + day.atTime(11, 0) + "\n";
+        JsonNode rolledBack = importBody("text/csv", unsavable);
+
+        assertEquals(0, rolledBack.get("created").asInt());
+        rolledBack.get("rows").forEach(row -> assertEquals("REJECTED", row.get("status").asText()));
+        assertEquals(1, appointmentRepository.findByDoctorIdAndDateTimeBetween(doctor.getId(), day.atStartOfDay(),
+                day.plusDays(1).atStartOfDay()).size());
+    }
+
+    @Test
+    void importSeesOverlapsFromAppointmentsLongerThanADay() throws Exception {
+        LocalDate day = ClinicFixtures.futureDays(2);
+        Doctor doctor = fixtures.doctor();
+        fixtures.appointment(doctor, fixtures.service(26 * 60), day.atTime(8, 0), AppointmentStatus.NEW);
+        MedicalService service = fixtures.service();
+
+        JsonNode report = importBody("text/csv", "patientName,doctorId,serviceId,dateTime\n"
+                + "Ana," + doctor.getId() + "," + service.getId() + "," + day.plusDays(1).atTime(9, 0) + "\n"
+                + "Ion," + doctor.getId() + "," + service.getId() + "," + day.plusDays(1).atTime(10, 0) + "\n");
+
+        assertRow(report, 1, "REJECTED");
+        assertRow(report, 2, "CREATED");
+    }
+
+    @Test
+    void importRejectsMissingColumnsAndNonArrayBodies() throws Exception {
+        mockMvc.perform(post("/api/appointments/import").contentType("text/csv").content("patientName,doctorId\nAna,1\n"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/appointments/import").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode importBody(String contentType, String body) throws Exception {
+        String response = mockMvc.perform(post("/api/appointments/import").contentType(contentType).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private static void assertRow(JsonNode report, int row, String status) {
+        JsonNode result = report.get("rows").get(row - 1);
+        assertEquals(row, result.get("row").asInt());
+        assertEquals(status, result.get("status").asText(), result.toString());
+    }
+}
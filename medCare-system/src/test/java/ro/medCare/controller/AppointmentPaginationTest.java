@@ -0,0 +1,196 @@
+package ro.medCare.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.service.AppointmentArchiveService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCarePagination;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "medcare.pagination.default-size=4",
+        "medcare.pagination.max-size=6"
+})
+@AutoConfigureMockMvc
+@Import(ClinicFixtures.class)
+class AppointmentPaginationTest {
+
+    private static final Comparator<Appointment> ORDER =
+            Comparator.comparing(Appointment::getDateTime).thenComparing(Appointment::getId);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AppointmentArchiveService archiveService;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void cursorsWalkTiedDateTimesWithoutGapsOrRepeats() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        List<Long> expected = seed(day);
+
+        assertEquals(expected, walk("/api/appointments/page", day, null, 3, List.of(3, 3, 3, 2)));
+
+        List<Long> descending = new ArrayList<>(expected);
+        Collections.reverse(descending);
+        assertEquals(descending, walk("/api/appointments/page", day, "desc", 5, List.of(5, 5, 1)));
+    }
+
+    @Test
+    void listEndpointsApplyTheDefaultSizeAndTheHardCap() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        List<Long> expected = seed(day);
+
+        JsonNode defaultPage = page(range(get("/api/appointments/page"), day));
+        assertEquals(4, defaultPage.get("items").size());
+        assertTrue(defaultPage.get("hasMore").asBoolean());
+
+        JsonNode cappedPage = page(range(get("/api/appointments/page"), day).param("size", "1000"));
+        assertEquals(expected.subList(0, 6), ids(cappedPage));
+
+        mockMvc.perform(range(get("/api/appointments/page"), day).param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listEndpointsStillReturnEveryAppointment() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        List<Long> expected = seed(day);
+
+        JsonNode listed = objectMapper.readTree(mockMvc.perform(range(get("/api/appointments/date-range"), day))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertTrue(listed.isArray());
+        List<Long> listedIds = new ArrayList<>();
+        listed.forEach(item -> listedIds.add(item.get("id").asLong()));
+        assertEquals(expected.stream().sorted().toList(), listedIds.stream().sorted().toList());
+
+        JsonNode all = objectMapper.readTree(mockMvc.perform(get("/api/appointments"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertTrue(all.isArray());
+        assertTrue(all.size() >= expected.size());
+    }
+
+    @Test
+    void lastPageHasNoCursorWhenTheRangeFillsItExactly() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        List<Long> expected = seed(day);
+        LocalDateTime nine = day.atTime(9, 0);
+
+        assertEquals(expected.subList(0, 4),
+                walk("/api/appointments/page", nine, nine.plusMinutes(59), null, 2, List.of(2, 2)));
+        assertEquals(expected.subList(0, 4),
+                walk("/api/appointments/page", nine, nine.plusMinutes(59), null, 4, List.of(4)));
+        assertEquals(List.of(), walk("/api/appointments/page", day.plusDays(1), null, 3, List.of(0)));
+    }
+
+    @Test
+    void pagesIncludeArchivedAppointments() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDate day = LocalDate.now().minusDays(800);
+
+        List<Appointment> appointments = new ArrayList<>();
+        for (int hour = 8; hour < 13; hour++) {
+            AppointmentStatus status = hour % 2 == 0 ? AppointmentStatus.COMPLETED : AppointmentStatus.NEW;
+            appointments.add(fixtures.appointment(doctor, service, day.atTime(hour, 0), status));
+        }
+        assertEquals(3, archiveService.archive(day.plusDays(1).atStartOfDay()));
+
+        List<Long> expected = appointments.stream().map(Appointment::getId).toList();
+        assertEquals(expected, walk("/api/appointments/page", day, null, 2, List.of(2, 2, 1)));
+    }
+
+    private List<Long> seed(LocalDate day) {
+        MedicalService service = fixtures.service();
+        List<Doctor> doctors = fixtures.doctors(4, "Pediatrics", ClinicFixtures.WORK_HOURS);
+        List<Appointment> appointments = new ArrayList<>();
+        for (Doctor doctor : doctors) {
+            appointments.add(fixtures.appointment(doctor, service, day.atTime(9, 0), AppointmentStatus.NEW));
+            appointments.add(fixtures.appointment(doctor, service, day.atTime(11, 0), AppointmentStatus.NEW));
+        }
+        for (int i = 0; i < 3; i++) {
+            appointments.add(fixtures.appointment(doctors.get(i), service, day.atTime(10, 0),
+                    AppointmentStatus.COMPLETED));
+        }
+        return appointments.stream().sorted(ORDER).map(Appointment::getId).toList();
+    }
+
+    private List<Long> walk(String path, LocalDate day, String direction, int size, List<Integer> pageSizes)
+            throws Exception {
+        return walk(path, day.atStartOfDay(), day.atTime(23, 59), direction, size, pageSizes);
+    }
+
+    private List<Long> walk(String path, LocalDateTime start, LocalDateTime end, String direction, int size,
+                            List<Integer> pageSizes) throws Exception {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        for (int i = 0; i < pageSizes.size(); i++) {
+            MockHttpServletRequestBuilder request = get(path).param("start", start.toString())
+                    .param("end", end.toString())
+                    .param("size", String.valueOf(size));
+            if (direction != null) {
+                request.param("direction", direction);
+            }
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+
+            JsonNode page = page(request);
+            boolean last = i == pageSizes.size() - 1;
+            assertEquals(pageSizes.get(i), page.get("items").size());
+            assertEquals(!last, page.get("hasMore").asBoolean());
+            assertEquals(last, page.get("nextCursor").isNull());
+            seen.addAll(ids(page));
+            cursor = page.get("nextCursor").asText();
+        }
+        assertEquals(seen.size(), seen.stream().distinct().count());
+        return seen;
+    }
+
+    private static MockHttpServletRequestBuilder range(MockHttpServletRequestBuilder request, LocalDate day) {
+        return request.param("start", day.atStartOfDay().toString())
+                .param("end", day.atTime(23, 59).toString());
+    }
+
+    private JsonNode page(MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        JsonNode page = objectMapper.readTree(body);
+        assertFalse(page.get("items").isMissingNode());
+        return page;
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        List<Long> ids = new ArrayList<>();
+        page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+        return ids;
+    }
+}
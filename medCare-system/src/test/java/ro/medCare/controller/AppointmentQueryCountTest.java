@@ -0,0 +1,140 @@
+package ro.medCare.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.AppointmentDAO;
+import ro.medCare.service.AppointmentArchiveService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ClinicFixtures.class)
+class AppointmentQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private AppointmentDAO appointmentRepository;
+
+    @Autowired
+    private AppointmentArchiveService archiveService;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        // The archive horizon is read once per node, so the first request would otherwise count one more statement.
+        archiveService.covers(LocalDateTime.now());
+    }
+
+    @Test
+    void listEndpointsUseFixedStatementCountRegardlessOfResultSize() throws Exception {
+        LocalDate small = ClinicFixtures.futureDay();
+        LocalDate large = ClinicFixtures.futureDay();
+        seed(small, 2, 2);
+        long smallAll = statementsFor(get("/api/appointments"));
+        seed(large, 30, 12);
+
+        assertEquals(1, smallAll);
+        assertEquals(1, statementsFor(get("/api/appointments")));
+
+        for (LocalDate day : List.of(small, large)) {
+            assertEquals(1, statementsFor(get("/api/appointments/date-range")
+                    .param("start", day.atStartOfDay().toString())
+                    .param("end", day.plusDays(1).atStartOfDay().toString())));
+            assertEquals(1, statementsFor(get("/api/appointments/page")
+                    .param("start", day.atStartOfDay().toString())
+                    .param("end", day.plusDays(1).atStartOfDay().toString())
+                    .param("size", "200")));
+        }
+
+        Long id = appointmentRepository.findAll().get(0).getId();
+        assertEquals(1, statementsFor(get("/api/appointments/" + id)));
+    }
+
+    @Test
+    void reportEndpointsUseFixedStatementCountRegardlessOfResultSize() throws Exception {
+        LocalDate small = ClinicFixtures.futureDay();
+        LocalDate large = ClinicFixtures.futureDay();
+        seed(small, 2, 2);
+        seed(large, 30, 12);
+
+        for (LocalDate day : List.of(small, large)) {
+            String start = day.atStartOfDay().toString();
+            String end = day.plusDays(1).atStartOfDay().toString();
+
+            assertEquals(5, statementsFor(get("/api/reports").param("startDate", start).param("endDate", end)));
+            assertEquals(5, asyncStatementsFor(get("/api/reports/export/csv").param("startDate", start).param("endDate", end)));
+            assertEquals(5, asyncStatementsFor(get("/api/reports/export/xml").param("startDate", start).param("endDate", end)
+                    .param("includeAppointments", "true")));
+        }
+    }
+
+    private long statementsFor(RequestBuilder request) throws Exception {
+        clearCaches();
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long asyncStatementsFor(RequestBuilder request) throws Exception {
+        clearCaches();
+        statistics.clear();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private void seed(LocalDate day, int doctorCount, int serviceCount) {
+        List<Doctor> doctors = fixtures.doctors(doctorCount, "General", ClinicFixtures.WORK_HOURS);
+        List<MedicalService> services = new ArrayList<>();
+        for (int i = 0; i < serviceCount; i++) {
+            services.add(fixtures.service());
+        }
+
+        for (int i = 0; i < doctorCount; i++) {
+            LocalDateTime dateTime = day.atTime(9, 0).plusMinutes(30L * (i % 8));
+            fixtures.appointment(doctors.get(i), services.get(i % serviceCount), dateTime, AppointmentStatus.NEW);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ro.medCare.controller;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ro.medCare.config.IdGeneratorAligner;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.DoctorDAO;
+import ro.medCare.repository.MedicalServiceDAO;
+import ro.medCare.service.AppointmentStatisticsStore;
+import ro.medCare.service.DoctorScheduleIndex;
+import ro.medCare.service.ReportCache;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class ClinicDataGenerator {
+
+    static final int SLOTS_PER_DAY = 16;
+    static final int SLOT_MINUTES = 30;
+    static final String WORK_HOURS = "08:00-16:00";
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final double FILL_RATIO = 0.75;
+    private static final String[] SPECIALIZATIONS = {"Cardiology", "Dermatology", "General", "Neurology", "Pediatrics"};
+    private static final String INSERT_APPOINTMENT = "INSERT INTO appointments "
+            + "(id, patient_name, doctor_id, date_time, service_id, status, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DoctorDAO doctorRepository;
+    private final MedicalServiceDAO medicalServiceRepository;
+    private final IdGeneratorAligner idGeneratorAligner;
+    private final DoctorScheduleIndex scheduleIndex;
+    private final AppointmentStatisticsStore statisticsStore;
+    private final ReportCache reportCache;
+
+    ClinicDataGenerator(JdbcTemplate jdbcTemplate,
+                        DoctorDAO doctorRepository,
+                        MedicalServiceDAO medicalServiceRepository,
+                        IdGeneratorAligner idGeneratorAligner,
+                        DoctorScheduleIndex scheduleIndex,
+                        AppointmentStatisticsStore statisticsStore,
+                        ReportCache reportCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.doctorRepository = doctorRepository;
+        this.medicalServiceRepository = medicalServiceRepository;
+        this.idGeneratorAligner = idGeneratorAligner;
+        this.scheduleIndex = scheduleIndex;
+        this.statisticsStore = statisticsStore;
+        this.reportCache = reportCache;
+    }
+
+    public static ClinicDataGenerator of(ApplicationContext context) {
+        return new ClinicDataGenerator(context.getBean(JdbcTemplate.class), context.getBean(DoctorDAO.class),
+                context.getBean(MedicalServiceDAO.class), context.getBean(IdGeneratorAligner.class),
+                context.getBean(DoctorScheduleIndex.class), context.getBean(AppointmentStatisticsStore.class),
+                context.getBean(ReportCache.class));
+    }
+
+    public ClinicData generate(int doctorCount, int serviceCount, int appointmentCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<Doctor> doctors = new ArrayList<>(doctorCount);
+        for (int i = 0; i < doctorCount; i++) {
+            doctors.add(new Doctor(null, "Dr. Load " + i, SPECIALIZATIONS[i % SPECIALIZATIONS.length], WORK_HOURS));
+        }
+        doctors = doctorRepository.saveAll(doctors);
+
+        List<MedicalService> services = new ArrayList<>(serviceCount);
+        for (int i = 0; i < serviceCount; i++) {
+            services.add(new MedicalService(null, "Load service " + i, 50 + 25 * (i % 20), i % 2 == 0 ? 30 : 15));
+        }
+        services = medicalServiceRepository.saveAll(services);
+
+        int slotsPerDay = doctorCount * SLOTS_PER_DAY;
+        int days = Math.max(2, (int) Math.ceil(appointmentCount / (slotsPerDay * FILL_RATIO)));
+        LocalDate firstDay = LocalDate.now().minusDays(days / 2);
+        LocalDate today = LocalDate.now();
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long id = 0;
+        for (int day = 0; day < days && id < appointmentCount; day++) {
+            LocalDate date = firstDay.plusDays(day);
+            for (Doctor doctor : doctors) {
+                for (int slot = 0; slot < SLOTS_PER_DAY && id < appointmentCount; slot++) {
+                    if (random.nextDouble() >= FILL_RATIO) {
+                        continue;
+                    }
+                    LocalDateTime dateTime = date.atTime(8, 0).plusMinutes((long) SLOT_MINUTES * slot);
+                    MedicalService service = services.get(random.nextInt(services.size()));
+                    AppointmentStatus status = date.isBefore(today) ? AppointmentStatus.COMPLETED : AppointmentStatus.NEW;
+
+                    batch.add(new Object[]{++id, "Patient " + id, doctor.getId(), Timestamp.valueOf(dateTime),
+                            service.getId(), status.name()});
+                    if (batch.size() == BATCH_SIZE) {
+                        jdbcTemplate.batchUpdate(INSERT_APPOINTMENT, batch);
+                        batch.clear();
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_APPOINTMENT, batch);
+        }
+
+        idGeneratorAligner.alignAppointmentIds();
+        scheduleIndex.rebuild();
+        statisticsStore.reconcile();
+        reportCache.invalidateAll();
+
+        return new ClinicData(doctors, services, firstDay, days, id);
+    }
+
+    public record ClinicData(List<Doctor> doctors, List<MedicalService> services, LocalDate firstDay, int days,
+                      long appointments) {
+    }
+}
@@ -0,0 +1,265 @@
+package ro.medCare.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ro.medCare.config.IdGeneratorAligner;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.DoctorDAO;
+import ro.medCare.repository.MedicalServiceDAO;
+import ro.medCare.service.AppointmentStatisticsStore;
+import ro.medCare.service.DoctorScheduleIndex;
+import ro.medCare.service.ReportCache;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCareLoad;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+class ClinicLoadTest {
+
+    private static final int DOCTORS = Integer.getInteger("load.doctors", 200);
+    private static final int SERVICES = Integer.getInteger("load.services", 20);
+    private static final int APPOINTMENTS = Integer.getInteger("load.appointments", 1_000_000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 32);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 20_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("load.warmup-requests", 2_000);
+    private static final long SEED = Long.getLong("load.seed", 42);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DoctorDAO doctorRepository;
+
+    @Autowired
+    private MedicalServiceDAO medicalServiceRepository;
+
+    @Autowired
+    private IdGeneratorAligner idGeneratorAligner;
+
+    @Autowired
+    private DoctorScheduleIndex scheduleIndex;
+
+    @Autowired
+    private AppointmentStatisticsStore statisticsStore;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private ClinicDataGenerator.ClinicData data;
+
+    @Test
+    void mixedClinicWorkload() throws Exception {
+        long seedingStarted = System.nanoTime();
+        data = new ClinicDataGenerator(jdbcTemplate, doctorRepository, medicalServiceRepository, idGeneratorAligner,
+                scheduleIndex, statisticsStore, reportCache).generate(DOCTORS, SERVICES, APPOINTMENTS, SEED);
+        System.out.printf("%nSeeded %d doctors, %d services and %d appointments over %d days in %.1f s%n",
+                DOCTORS, SERVICES, data.appointments(), data.days(), (System.nanoTime() - seedingStarted) / 1e9);
+
+        run(WARMUP_REQUESTS, SEED + 1);
+        Run run = run(REQUESTS, SEED + 2);
+
+        System.out.printf("%n%-14s %8s %10s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        int errors = 0;
+        for (Operation operation : Operation.values()) {
+            long[] latencies = run.latencies(operation);
+            int operationErrors = run.errors(operation);
+            errors += operationErrors;
+            System.out.printf("%-14s %8d %10.1f %9.1f %9.1f %9.1f %9.1f %8d%n", operation.name().toLowerCase(),
+                    latencies.length, latencies.length / run.elapsedSeconds(), percentile(latencies, 50),
+                    percentile(latencies, 95), percentile(latencies, 99), percentile(latencies, 100), operationErrors);
+        }
+        System.out.printf("total: %d requests from %d clients in %.1f s, %.1f req/s%n%n",
+                REQUESTS, CLIENTS, run.elapsedSeconds(), REQUESTS / run.elapsedSeconds());
+
+        assertEquals(0, errors);
+        for (Operation operation : Operation.values()) {
+            assertTrue(run.latencies(operation).length > 0, operation + " was never exercised");
+        }
+    }
+
+    private Run run(int requests, long seed) throws Exception {
+        Operation[] operations = new Operation[requests];
+        long[] latencies = new long[requests];
+        int[] statuses = new int[requests];
+        AtomicInteger next = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                SplittableRandom random = new SplittableRandom(seed + i);
+                futures.add(clients.submit(() -> {
+                    for (int request = next.getAndIncrement(); request < requests; request = next.getAndIncrement()) {
+                        Operation operation = Operation.pick(random);
+                        HttpRequest httpRequest = request(operation, random);
+                        long sent = System.nanoTime();
+                        statuses[request] = send(httpRequest);
+                        latencies[request] = System.nanoTime() - sent;
+                        operations[request] = operation;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Run(operations, latencies, statuses, System.nanoTime() - started);
+    }
+
+    private HttpRequest request(Operation operation, SplittableRandom random) {
+        Doctor doctor = data.doctors().get(random.nextInt(data.doctors().size()));
+        MedicalService service = data.services().get(random.nextInt(data.services().size()));
+        LocalDate day = data.firstDay().plusDays(random.nextInt(data.days()));
+        LocalDateTime slot = day.atTime(8, 0).plusMinutes((long) ClinicDataGenerator.SLOT_MINUTES
+                * random.nextInt(ClinicDataGenerator.SLOTS_PER_DAY));
+
+        return switch (operation) {
+            case BOOK -> {
+                LocalDateTime future = LocalDate.now().plusDays(1 + random.nextInt(data.days() / 2 + 7))
+                        .atTime(slot.toLocalTime());
+                String body = "{\"patientName\":\"Load patient\",\"doctor\":{\"id\":" + doctor.getId()
+                        + "},\"service\":{\"id\":" + service.getId() + ",\"duration\":" + service.getDuration()
+                        + "},\"dateTime\":\"" + future + "\"}";
+                yield HttpRequest.newBuilder(uri("/api/appointments"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            case AVAILABILITY -> get("/api/doctors/" + doctor.getId() + "/availability?dateTime=" + slot
+                    + "&duration=" + service.getDuration());
+            case FREE_SLOTS -> get("/api/doctors/slots?specialization=" + encode(doctor.getSpecialization())
+                    + "&from=" + day.atTime(8, 0) + "&to=" + day.plusDays(1).atStartOfDay()
+                    + "&serviceId=" + service.getId() + "&limit=10");
+            case LIST -> get("/api/appointments/page?size=50&start=" + day.atStartOfDay()
+                    + "&end=" + day.plusDays(1).atStartOfDay());
+            case EXPORT -> get("/api/reports/export/csv?startDate=" + day.atStartOfDay()
+                    + "&endDate=" + day.plusDays(1).atStartOfDay().minusSeconds(1));
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+
+    private enum Operation {
+        BOOK(15),
+        AVAILABILITY(35),
+        FREE_SLOTS(10),
+        LIST(25),
+        EXPORT(15);
+
+        private static final int TOTAL_WEIGHT = Arrays.stream(values()).mapToInt(operation -> operation.weight).sum();
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(SplittableRandom random) {
+            int roll = random.nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        boolean isExpected(int status) {
+            return this == BOOK ? status == 201 || status == 409 : status == 200;
+        }
+    }
+
+    private record Run(Operation[] operations, long[] latenciesNanos, int[] statuses, long elapsedNanos) {
+
+        long[] latencies(Operation operation) {
+            long[] selected = new long[latenciesNanos.length];
+            int count = 0;
+            for (int i = 0; i < operations.length; i++) {
+                if (operations[i] == operation) {
+                    selected[count++] = latenciesNanos[i];
+                }
+            }
+            long[] latencies = Arrays.copyOf(selected, count);
+            Arrays.sort(latencies);
+            return latencies;
+        }
+
+        int errors(Operation operation) {
+            int errors = 0;
+            for (int i = 0; i < operations.length; i++) {
+                if (operations[i] == operation && !operation.isExpected(statuses[i])) {
+                    errors++;
+                }
+            }
+            return errors;
+        }
+
+        double elapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ro.medCare.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ro.medCare.model.User;
+import ro.medCare.model.UserRole;
+import ro.medCare.repository.UserDAO;
+import ro.medCare.service.PasswordHashingService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCareLoginThrottling;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "medcare.auth.hashing.threads=1",
+        "medcare.auth.hashing.queue-capacity=1",
+        "medcare.auth.hashing.retry-after-seconds=7"
+})
+@AutoConfigureMockMvc
+class LoginThrottlingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PasswordHashingService passwordHashing;
+
+    @Autowired
+    private UserDAO userRepository;
+
+    @Test
+    void loginsBeyondTheHashingQueueAreRejectedWithRetryAfter() throws Exception {
+        userRepository.save(new User(null, "Throttled user", "throttled", new BCryptPasswordEncoder().encode("secret"),
+                UserRole.RECEPTIONIST));
+        String slowHash = new BCryptPasswordEncoder(13).encode("slow");
+
+        List<CompletableFuture<Boolean>> busy = List.of(
+                passwordHashing.matches("slow", slowHash),
+                passwordHashing.matches("slow", slowHash));
+
+        MockHttpServletResponse rejected = login("throttled", "secret");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("7", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+
+        CompletableFuture.allOf(busy.toArray(CompletableFuture[]::new)).join();
+        assertEquals(200, login("throttled", "secret").getStatus());
+        assertEquals(400, login("throttled", "wrong").getStatus());
+    }
+
+    @Test
+    void userWritesBeyondTheHashingQueueAreRejectedWithRetryAfter() throws Exception {
+        String slowHash = new BCryptPasswordEncoder(13).encode("slow");
+
+        List<CompletableFuture<Boolean>> busy = List.of(
+                passwordHashing.matches("slow", slowHash),
+                passwordHashing.matches("slow", slowHash));
+
+        MockHttpServletResponse rejected = createUser("queued-user");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("7", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(userRepository.findByUsername("queued-user").isEmpty());
+
+        CompletableFuture.allOf(busy.toArray(CompletableFuture[]::new)).join();
+        assertEquals(201, createUser("queued-user").getStatus());
+        assertTrue(userRepository.findByUsername("queued-user").orElseThrow().getPassword().startsWith("$2a$"));
+        assertEquals(400, createUser("queued-user").getStatus());
+    }
+
+    private MockHttpServletResponse createUser(String username) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Queued user\",\"username\":\"" + username
+                                + "\",\"password\":\"secret\",\"role\":\"RECEPTIONIST\"}"))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+}
@@ -0,0 +1,77 @@
+package ro.medCare.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations=true"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@Import(ClinicFixtures.class)
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void prometheusEndpointExposesApplicationMetrics() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDateTime slot = ClinicFixtures.futureDay().atTime(9, 0);
+
+        book(doctor, service, slot, 201);
+        book(doctor, service, slot, 409);
+        mockMvc.perform(get("/api/doctors/" + doctor.getId() + "/availability")
+                        .param("dateTime", slot.toString())
+                        .param("duration", "30"))
+                .andExpect(status().isOk());
+        MvcResult export = mockMvc.perform(get("/api/reports/export/csv")
+                        .param("startDate", slot.toLocalDate().atStartOfDay().toString())
+                        .param("endDate", slot.toLocalDate().plusDays(1).atStartOfDay().toString()))
+                .andReturn();
+        export.getAsyncResult(10_000);
+
+        String metrics = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(metrics.contains("medcare_booking_conflicts_total"));
+        assertTrue(metrics.contains("medcare_availability_checks_total{result=\"unavailable\""));
+        assertTrue(metrics.contains("medcare_reports_export_rows_total{format=\"csv\""));
+        assertTrue(metrics.contains("medcare_reports_export_bytes_total{format=\"csv\""));
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket"));
+        assertTrue(metrics.contains("spring_data_repository_invocations_seconds_bucket"));
+        assertTrue(metrics.contains("repository=\"AppointmentDAO\""));
+        assertTrue(metrics.contains("hikaricp_connections_pending"));
+    }
+
+    private void book(Doctor doctor, MedicalService service, LocalDateTime dateTime, int expectedStatus) throws Exception {
+        String body = "{\"patientName\":\"Metrics patient\",\"doctor\":{\"id\":" + doctor.getId() + "},"
+                + "\"service\":{\"id\":" + service.getId() + ",\"duration\":30},\"dateTime\":\"" + dateTime + "\"}";
+        mockMvc.perform(post("/api/appointments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().is(expectedStatus));
+    }
+}
@@ -0,0 +1,97 @@
+package ro.medCare.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.service.AppointmentArchiveService;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCareOversizedReports;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "medcare.reports.cache.max-entry-bytes=256"
+})
+@AutoConfigureMockMvc
+@Import(ClinicFixtures.class)
+class OversizedReportExportTest {
+
+    private static final int APPOINTMENTS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentArchiveService archiveService;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void reportTooLargeToCacheIsStreamedOnceAndCountedOncePerExport() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDate day = ClinicFixtures.futureDay();
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            fixtures.appointment(doctor, service, day.atTime(8, 0).plusMinutes(30L * i), AppointmentStatus.NEW);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        // Loads the archive horizon, which is read once per node, so both exports run the same statements.
+        archiveService.covers(day.atStartOfDay());
+
+        double rowsBefore = counter("medcare.reports.export.rows");
+        double bytesBefore = counter("medcare.reports.export.bytes");
+        statistics.clear();
+        MockHttpServletResponse first = export(day);
+        long firstStatements = statistics.getPrepareStatementCount();
+        assertTrue(first.getContentAsByteArray().length > 256);
+        assertNull(first.getHeader(HttpHeaders.ETAG));
+        assertEquals(APPOINTMENTS, counter("medcare.reports.export.rows") - rowsBefore);
+        assertEquals(first.getContentAsByteArray().length, counter("medcare.reports.export.bytes") - bytesBefore);
+
+        statistics.clear();
+        MockHttpServletResponse second = export(day);
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals(2 * APPOINTMENTS, counter("medcare.reports.export.rows") - rowsBefore);
+        assertNull(second.getHeader(HttpHeaders.ETAG));
+        assertEquals(firstStatements, statistics.getPrepareStatementCount(), "oversized report was rendered twice");
+    }
+
+    private MockHttpServletResponse export(LocalDate day) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reports/export/csv")
+                        .param("startDate", day.atStartOfDay().toString())
+                        .param("endDate", day.plusDays(1).atStartOfDay().toString()))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("format", "csv").counter().count();
+    }
+}
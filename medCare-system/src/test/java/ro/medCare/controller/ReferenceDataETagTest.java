@@ -0,0 +1,129 @@
+package ro.medCare.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.model.User;
+import ro.medCare.model.UserRole;
+import ro.medCare.repository.UserDAO;
+import ro.medCare.service.TableVersions;
+import ro.medCare.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReferenceDataETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDAO userRepository;
+
+    @Test
+    void unchangedListsAreNotModifiedUntilTheirTableChanges() throws Exception {
+        assertRevalidates("/api/doctors", "{\"name\":\"Dr. ETag\",\"specialization\":\"Neurology\",\"workHours\":\"08:00-16:00\"}");
+        assertRevalidates("/api/services", "{\"name\":\"ETag consult\",\"price\":70,\"duration\":20}");
+        assertRevalidates("/api/users", "{\"name\":\"ETag user\",\"username\":\"etag-user\",\"password\":\"secret\",\"role\":\"RECEPTIONIST\"}");
+    }
+
+    @Test
+    void everyNodeDerivesTheSameETagFromTheDatabase() throws Exception {
+        TableVersions otherNode = new TableVersions(jdbcTemplate, transactionTemplate);
+        String before = otherNode.etag(TableVersions.Table.DOCTORS);
+        assertEquals(before, mockMvc.perform(get("/api/doctors")).andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+
+        mockMvc.perform(post("/api/doctors").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Dr. Shared\",\"specialization\":\"Neurology\",\"workHours\":\"08:00-16:00\"}"))
+                .andExpect(status().isCreated());
+
+        assertNotEquals(before, otherNode.etag(TableVersions.Table.DOCTORS));
+    }
+
+    @Test
+    void passwordRehashOnLoginLeavesTheUsersETagAlone() throws Exception {
+        userRepository.save(new User(null, "Rehash user", "etag-rehash", new BCryptPasswordEncoder(4).encode("secret"),
+                UserRole.RECEPTIONIST));
+        String before = tableVersions.etag(TableVersions.Table.USERS);
+
+        userService.authenticate("etag-rehash", "secret").join();
+
+        LocalDateTime deadline = LocalDateTime.now().plusSeconds(5);
+        while (!password("etag-rehash").startsWith("$2a$10$") && LocalDateTime.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+        assertTrue(password("etag-rehash").startsWith("$2a$10$"));
+        assertEquals(before, tableVersions.etag(TableVersions.Table.USERS));
+        assertFalse(mockMvc.perform(get("/api/users")).andReturn().getResponse().getContentAsString()
+                .contains("$2a$"));
+    }
+
+    private String password(String username) {
+        return userRepository.findByUsername(username).orElseThrow().getPassword();
+    }
+
+    private void assertRevalidates(String path, String createBody) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag, path);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount(), path);
+
+        MvcResult created = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(createBody))
+                .andReturn();
+        if (created.getRequest().isAsyncStarted()) {
+            created = mockMvc.perform(asyncDispatch(created)).andReturn();
+        }
+        assertEquals(201, created.getResponse().getStatus(), path);
+
+        String changed = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed, path);
+    }
+}
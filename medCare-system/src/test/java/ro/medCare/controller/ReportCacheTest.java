@@ -0,0 +1,137 @@
+package ro.medCare.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.service.AppointmentService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(ClinicFixtures.class)
+class ReportCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    private Statistics statistics;
+    private Doctor doctor;
+    private MedicalService service;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        doctor = fixtures.doctor();
+        service = fixtures.service();
+    }
+
+    @Test
+    void cachedExportsRevalidateWithETagsAndOnlyCoveringWritesInvalidate() throws Exception {
+        LocalDate day = ClinicFixtures.futureDays(2);
+        book(day.atTime(9, 0));
+
+        MockHttpServletResponse streamed = export(csv(day), null);
+        assertNull(streamed.getHeader(HttpHeaders.ETAG));
+        assertTrue(streamed.getContentAsString().contains(doctor.getName()));
+
+        statistics.clear();
+        MockHttpServletResponse cached = export(csv(day), null);
+        String etag = cached.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals(1, cached.getHeaders(HttpHeaders.ETAG).size());
+        assertEquals(streamed.getContentAsString(), cached.getContentAsString());
+        assertEquals(304, export(csv(day), etag).getStatus());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        book(day.plusDays(1).atTime(9, 0));
+        statistics.clear();
+        assertEquals(304, export(csv(day), etag).getStatus());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        book(day.atTime(10, 0));
+        assertEquals(200, export(csv(day), etag).getStatus());
+        MockHttpServletResponse changed = export(csv(day), etag);
+        assertEquals(200, changed.getStatus());
+        assertNotEquals(etag, changed.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void gzipAndXmlVariantsHaveTheirOwnETags() throws Exception {
+        LocalDate day = ClinicFixtures.futureDay();
+        book(day.atTime(9, 0));
+
+        MockHttpServletRequestBuilder xmlExport = range(get("/api/reports/export/xml"), day)
+                .param("includeAppointments", "true");
+        export(csv(day), null);
+        export(xmlExport, null);
+
+        String plain = export(csv(day), null).getHeader(HttpHeaders.ETAG);
+        String gzip = export(csv(day).param("gzip", "true"), null).getHeader(HttpHeaders.ETAG);
+        String xml = export(xmlExport, null).getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(plain, gzip);
+        assertNotEquals(plain, xml);
+        assertEquals(304, export(csv(day).param("gzip", "true"), gzip).getStatus());
+    }
+
+    private MockHttpServletRequestBuilder csv(LocalDate day) {
+        return range(get("/api/reports/export/csv"), day);
+    }
+
+    private static MockHttpServletRequestBuilder range(MockHttpServletRequestBuilder request, LocalDate day) {
+        return request.param("startDate", day.atStartOfDay().toString())
+                .param("endDate", day.plusDays(1).atStartOfDay().minusSeconds(1).toString());
+    }
+
+    private MockHttpServletResponse export(MockHttpServletRequestBuilder request, String ifNoneMatch) throws Exception {
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (!result.getRequest().isAsyncStarted()) {
+            return result.getResponse();
+        }
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse();
+    }
+
+    private void book(LocalDateTime dateTime) {
+        appointmentService.createAppointment(new Appointment(null, "Patient " + dateTime, doctor, dateTime, service,
+                AppointmentStatus.NEW, null));
+    }
+}
@@ -0,0 +1,269 @@
+package ro.medCare.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.model.AppointmentStatus;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:medCarePlans;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@Import(QueryPlanTest.RecordingConfig.class)
+class QueryPlanTest {
+
+    private static final int DOCTORS = 40;
+    private static final int SERVICES = 8;
+    private static final int DAYS = 120;
+    private static final LocalDate FIRST_DAY = LocalDate.now().minusDays(DAYS / 2);
+
+    @Autowired
+    private QueryRecorder recorder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AppointmentDAO appointmentRepository;
+
+    @Autowired
+    private DoctorDAO doctorRepository;
+
+    private Long doctorId;
+
+    @BeforeEach
+    void seed() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointments", Long.class) == 0) {
+            seedClinic();
+        }
+        doctorId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM doctors", Long.class);
+    }
+
+    @Test
+    void appointmentQueriesUseIndexes() throws SQLException {
+        LocalDateTime day = FIRST_DAY.plusDays(DAYS / 2).atStartOfDay();
+        LocalDateTime nextDay = day.plusDays(1);
+
+        Map<String, List<RecordedQuery>> queries = new TreeMap<>();
+        queries.put("findByDateTimeBetween", record(() -> appointmentRepository.findByDateTimeBetween(day, nextDay)));
+        queries.put("findByDoctorIdAndDateTimeBetween",
+                record(() -> appointmentRepository.findByDoctorIdAndDateTimeBetween(doctorId, day, nextDay)));
+        queries.put("findSlotsFrom", record(() -> appointmentRepository.findSlotsFrom(day.plusDays(DAYS / 2 - 2))));
+        queries.put("findSlotsByDoctorIdAndDateTimeRange",
+                record(() -> appointmentRepository.findSlotsByDoctorIdAndDateTimeRange(doctorId, day, nextDay)));
+        queries.put("findSlotsByDoctorIdInAndDateTimeRange",
+                record(() -> appointmentRepository.findSlotsByDoctorIdInAndDateTimeRange(
+                        List.of(doctorId, doctorId + 1, doctorId + 2), day, nextDay)));
+        queries.put("findPageAfter", record(() -> appointmentRepository.findPageAfter(day, 0L, nextDay, null,
+                PageRequest.of(0, 50))));
+        queries.put("findPageAfter(status)", record(() -> appointmentRepository.findPageAfter(day, 0L, nextDay,
+                AppointmentStatus.NEW, PageRequest.of(0, 50))));
+        queries.put("findPageBefore", record(() -> appointmentRepository.findPageBefore(nextDay, Long.MAX_VALUE, day,
+                null, PageRequest.of(0, 50))));
+        queries.put("streamRowsByDateTimeBetween", record(() -> transactionTemplate.executeWithoutResult(tx -> {
+            try (var rows = appointmentRepository.streamRowsByDateTimeBetween(day, nextDay)) {
+                rows.forEach(row -> {
+                });
+            }
+        })));
+        queries.put("countByDoctorBetween", record(() -> appointmentRepository.countByDoctorBetween(day, nextDay,
+                PageRequest.of(0, 10))));
+        queries.put("countByServiceBetween", record(() -> appointmentRepository.countByServiceBetween(day, nextDay,
+                PageRequest.of(0, 10))));
+        queries.put("findBySpecialization", record(() -> doctorRepository.findBySpecialization("Specialization 3")));
+        queries.put("findByIdForUpdate", record(() -> transactionTemplate.executeWithoutResult(
+                tx -> doctorRepository.findByIdForUpdate(doctorId))));
+
+        List<String> fullScans = new ArrayList<>();
+        for (Map.Entry<String, List<RecordedQuery>> entry : queries.entrySet()) {
+            assertFalse(entry.getValue().isEmpty(), entry.getKey() + " did not reach the database");
+            for (RecordedQuery query : entry.getValue()) {
+                String plan = explain(query);
+                String normalized = plan.toLowerCase(Locale.ROOT);
+                if (normalized.contains("appointments.tablescan") || normalized.contains("doctors.tablescan")) {
+                    fullScans.add(entry.getKey() + ":\n" + plan);
+                }
+            }
+        }
+
+        assertTrue(fullScans.isEmpty(), "Full table scans found:\n\n" + String.join("\n\n", fullScans));
+    }
+
+    private List<RecordedQuery> record(Runnable action) {
+        recorder.start();
+        try {
+            action.run();
+        } finally {
+            recorder.stop();
+        }
+        return recorder.drain();
+    }
+
+    private String explain(RecordedQuery query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.sql())) {
+            for (Map.Entry<Integer, Object> parameter : query.parameters().entrySet()) {
+                statement.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                StringBuilder text = new StringBuilder();
+                while (plan.next()) {
+                    text.append(plan.getString(1));
+                }
+                return text.toString();
+            }
+        }
+    }
+
+    private void seedClinic() {
+        List<Object[]> doctors = new ArrayList<>();
+        for (int i = 0; i < DOCTORS; i++) {
+            doctors.add(new Object[]{"Dr. Plan " + i, "Specialization " + (i % 10), "08:00-16:00"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO doctors (name, specialization, work_hours) VALUES (?, ?, ?)", doctors);
+
+        List<Object[]> services = new ArrayList<>();
+        for (int i = 0; i < SERVICES; i++) {
+            services.add(new Object[]{"Plan service " + i, 100 + i, 30});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO medical_services (name, price, duration) VALUES (?, ?, ?)", services);
+
+        List<Long> doctorIds = jdbcTemplate.queryForList("SELECT id FROM doctors ORDER BY id", Long.class);
+        List<Long> serviceIds = jdbcTemplate.queryForList("SELECT id FROM medical_services ORDER BY id", Long.class);
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+
+        List<Object[]> appointments = new ArrayList<>();
+        long id = 0;
+        for (int day = 0; day < DAYS; day++) {
+            for (int doctor = 0; doctor < doctorIds.size(); doctor++) {
+                for (int slot = 0; slot < 8; slot++) {
+                    id++;
+                    LocalDateTime dateTime = FIRST_DAY.plusDays(day).atTime(8, 0).plusMinutes(60L * slot);
+                    appointments.add(new Object[]{id, "Patient " + id, doctorIds.get(doctor), Timestamp.valueOf(dateTime),
+                            serviceIds.get((int) (id % serviceIds.size())), statuses[(int) (id % statuses.length)].name()});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO appointments (id, patient_name, doctor_id, date_time, service_id, status, "
+                + "version) VALUES (?, ?, ?, ?, ?, ?, 0)", appointments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    record RecordedQuery(String sql, Map<Integer, Object> parameters) {
+    }
+
+    static class QueryRecorder {
+
+        private final List<RecordedQuery> queries = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        void start() {
+            queries.clear();
+            recording = true;
+        }
+
+        void stop() {
+            recording = false;
+        }
+
+        List<RecordedQuery> drain() {
+            List<RecordedQuery> recorded = List.copyOf(queries);
+            queries.clear();
+            return recorded;
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource);
+        }
+
+        private PreparedStatement recording(PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                            parameters.put(index, name.equals("setNull") ? null : args[1]);
+                        } else if (recording && name.startsWith("execute")
+                                && sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                            queries.add(new RecordedQuery(sql, new TreeMap<>(parameters)));
+                        }
+                        return invoke(method, statement, args);
+                    });
+        }
+
+        private <T> T proxy(Class<T> type, T target) {
+            return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, target, args);
+                        if (result instanceof Connection connection && type == DataSource.class) {
+                            return proxy(Connection.class, connection);
+                        }
+                        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                            return recording(statement, (String) args[0]);
+                        }
+                        return result;
+                    }));
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        private static final QueryRecorder RECORDER = new QueryRecorder();
+
+        @Bean
+        QueryRecorder queryRecorder() {
+            return RECORDER;
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
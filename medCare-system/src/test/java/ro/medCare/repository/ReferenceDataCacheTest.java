@@ -0,0 +1,194 @@
+package ro.medCare.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.service.DoctorService;
+import ro.medCare.service.MedicalServiceService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:medCareReferenceCache;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@Import(ClinicFixtures.class)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private DoctorDAO doctorRepository;
+
+    @Autowired
+    private MedicalServiceDAO medicalServiceRepository;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private MedicalServiceService medicalServiceService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void doctorListsAreServedFromCacheUntilAnyDoctorIsWritten() {
+        Doctor doctor = fixtures.doctor("Cache Cardiology", ClinicFixtures.WORK_HOURS);
+        doctorRepository.findAll();
+        doctorRepository.findBySpecialization("Cache Cardiology");
+
+        statistics.clear();
+        assertTrue(doctorRepository.findAll().contains(doctor));
+        assertEquals(List.of(doctor), doctorRepository.findBySpecialization("Cache Cardiology"));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        doctor.setName("Dr. Renamed");
+        doctorService.updateDoctor(doctor);
+        assertNull(cached(DoctorDAO.LIST_CACHE, "all"));
+        assertNull(cached(DoctorDAO.LIST_CACHE, "specialization:Cache Cardiology"));
+        assertEquals("Dr. Renamed", doctorService.getDoctorsBySpecialization("Cache Cardiology").get(0).getName());
+        assertTrue(doctorService.getAllDoctors().stream().anyMatch(d -> d.getName().equals("Dr. Renamed")));
+
+        Doctor added = fixtures.doctor("Cache Cardiology", ClinicFixtures.WORK_HOURS);
+        assertEquals(2, doctorService.getDoctorsBySpecialization("Cache Cardiology").size());
+        assertTrue(doctorService.getAllDoctors().contains(added));
+
+        doctorService.deleteDoctor(added.getId());
+        assertEquals(List.of(doctor.getId()), ids(doctorService.getDoctorsBySpecialization("Cache Cardiology")));
+        assertFalse(doctorService.getAllDoctors().contains(added));
+    }
+
+    @Test
+    void doctorEntriesAreEvictedByIdOnUpdateAndDelete() {
+        Doctor doctor = fixtures.doctor();
+        Doctor other = fixtures.doctor();
+        doctorRepository.findById(doctor.getId());
+        doctorRepository.findById(other.getId());
+
+        statistics.clear();
+        doctorRepository.findById(doctor.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        doctor.setWorkHours("09:00-17:00");
+        doctorService.updateDoctor(doctor);
+        assertNull(cached(DoctorDAO.CACHE, doctor.getId()));
+        assertNotNull(cached(DoctorDAO.CACHE, other.getId()));
+        assertEquals("09:00-17:00", doctorService.getDoctorById(doctor.getId()).getWorkHours());
+
+        doctorService.deleteDoctor(doctor.getId());
+        assertNull(cached(DoctorDAO.CACHE, doctor.getId()));
+        assertTrue(doctorRepository.findById(doctor.getId()).isEmpty());
+    }
+
+    @Test
+    void medicalServiceCachesFollowCreatesUpdatesAndDeletes() {
+        MedicalService service = fixtures.service(25);
+        medicalServiceRepository.findAll();
+        medicalServiceRepository.findById(service.getId());
+        int longest = medicalServiceRepository.findLongestDuration();
+
+        statistics.clear();
+        assertTrue(medicalServiceRepository.findAll().contains(service));
+        medicalServiceRepository.findById(service.getId());
+        medicalServiceRepository.findLongestDuration();
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        service.setPrice(service.getPrice() + 10);
+        service.setDuration(longest + 15);
+        medicalServiceService.updateMedicalService(service);
+        assertNull(cached(MedicalServiceDAO.CACHE, service.getId()));
+        assertNull(cached(MedicalServiceDAO.LIST_CACHE, "all"));
+        assertNull(cached(MedicalServiceDAO.LIST_CACHE, "longestDuration"));
+        assertEquals(service.getPrice(), medicalServiceService.getMedicalServiceById(service.getId()).getPrice());
+        assertEquals(longest + 15, medicalServiceRepository.findLongestDuration());
+        assertTrue(medicalServiceService.getAllMedicalServices().stream()
+                .anyMatch(s -> s.getId().equals(service.getId()) && s.getPrice() == service.getPrice()));
+
+        MedicalService added = medicalServiceService.createMedicalService(
+                new MedicalService(null, "Cached consult", 40, 20));
+        assertTrue(medicalServiceService.getAllMedicalServices().contains(added));
+
+        medicalServiceService.deleteMedicalService(service.getId());
+        assertFalse(ids(medicalServiceService.getAllMedicalServices()).contains(service.getId()));
+        assertTrue(medicalServiceRepository.findById(service.getId()).isEmpty());
+        assertEquals(medicalServiceService.getAllMedicalServices().stream().mapToInt(MedicalService::getDuration).max()
+                .orElse(0), medicalServiceRepository.findLongestDuration());
+    }
+
+    @Test
+    void bulkSavesEvictTheListCaches() {
+        doctorRepository.findAll();
+        medicalServiceRepository.findAll();
+
+        List<Doctor> doctors = doctorRepository.saveAll(List.of(
+                new Doctor(null, "Dr. Bulk", "Cache Bulk", ClinicFixtures.WORK_HOURS)));
+        List<MedicalService> services = medicalServiceRepository.saveAll(List.of(
+                new MedicalService(null, "Bulk consult", 30, 15)));
+
+        assertTrue(doctorRepository.findAll().containsAll(doctors));
+        assertEquals(doctors, doctorRepository.findBySpecialization("Cache Bulk"));
+        assertTrue(medicalServiceRepository.findAll().containsAll(services));
+    }
+
+    @Test
+    void readsDuringAnUncommittedWriteDoNotLeaveTheOldListCached() {
+        Doctor doctor = fixtures.doctor("Cache Racing", ClinicFixtures.WORK_HOURS);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            doctor.setName("Dr. Committed");
+            doctorRepository.save(doctor);
+            // Another request reads while the write is still uncommitted and caches what it sees.
+            CompletableFuture.runAsync(() -> {
+                doctorRepository.findAll();
+                doctorRepository.findBySpecialization("Cache Racing");
+                doctorRepository.findById(doctor.getId());
+            }).join();
+        });
+
+        assertEquals("Dr. Committed", doctorRepository.findBySpecialization("Cache Racing").get(0).getName());
+        assertEquals("Dr. Committed", doctorRepository.findById(doctor.getId()).orElseThrow().getName());
+        assertTrue(doctorRepository.findAll().stream().anyMatch(d -> d.getName().equals("Dr. Committed")));
+    }
+
+    private Object cached(String cacheName, Object key) {
+        Cache.ValueWrapper value = cacheManager.getCache(cacheName).get(key);
+        return value != null ? value.get() : null;
+    }
+
+    private static List<Long> ids(List<?> entities) {
+        return entities.stream()
+                .map(entity -> entity instanceof Doctor doctor ? doctor.getId() : ((MedicalService) entity).getId())
+                .toList();
+    }
+}
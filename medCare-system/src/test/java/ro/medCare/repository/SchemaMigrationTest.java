@@ -0,0 +1,94 @@
+package ro.medCare.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigrationTest {
+
+    @Test
+    void baselineDatabaseUpgradesToTheSchemaOfAFreshInstall() {
+        DataSource legacy = dataSource("medCareLegacy");
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline/hibernate-baseline-schema.sql")).execute(legacy);
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        legacyJdbc.update("INSERT INTO doctors (name, specialization, work_hours) VALUES ('Dr. Legacy', 'Cardiology', '08:00-16:00')");
+        legacyJdbc.update("INSERT INTO medical_services (name, price, duration) VALUES ('Consultation', 150, 30)");
+        legacyJdbc.update("INSERT INTO users (name, username, password, role) VALUES ('Admin', 'admin', 'hash', 'ADMIN')");
+        legacyJdbc.update("INSERT INTO appointments (patient_name, doctor_id, service_id, date_time, status) "
+                + "VALUES ('Ana', 1, 1, TIMESTAMP '2024-03-01 09:00:00', 'COMPLETED')");
+
+        flyway(legacy).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        DataSource fresh = dataSource("medCareFresh");
+        flyway(fresh).load().migrate();
+
+        JdbcTemplate freshJdbc = new JdbcTemplate(fresh);
+        assertEquals(columns(freshJdbc), columns(legacyJdbc));
+        assertEquals(namedIndexes(freshJdbc), namedIndexes(legacyJdbc));
+
+        assertEquals(0L, legacyJdbc.queryForObject("SELECT version FROM appointments WHERE patient_name = 'Ana'", Long.class));
+        legacyJdbc.update("UPDATE appointments SET status = 'CANCELED' WHERE patient_name = 'Ana'");
+        legacyJdbc.update("INSERT INTO appointments (id, patient_name, doctor_id, service_id, date_time, status) "
+                + "VALUES (100, 'Ion', 1, 1, TIMESTAMP '2024-03-01 09:00:00', 'NEW')");
+        assertEquals(0, legacyJdbc.queryForObject("SELECT COUNT(*) FROM id_generators", Integer.class));
+    }
+
+    @Test
+    void baselineSchemaMatchesTheLegacyHibernateSchema() {
+        DataSource legacy = dataSource("medCareLegacyOnly");
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline/hibernate-baseline-schema.sql")).execute(legacy);
+
+        DataSource baseline = dataSource("medCareBaselineOnly");
+        flyway(baseline).target("1").load().migrate();
+
+        List<String> legacyColumns = columns(new JdbcTemplate(legacy));
+        assertFalse(legacyColumns.isEmpty());
+        assertEquals(legacyColumns, columns(new JdbcTemplate(baseline)));
+        assertTrue(constraints(new JdbcTemplate(baseline)).containsAll(constraints(new JdbcTemplate(legacy))));
+    }
+
+    private static FluentConfiguration flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+    }
+
+    private static DataSource dataSource(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static List<String> columns(JdbcTemplate jdbc) {
+        return jdbc.query("SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE, CHARACTER_MAXIMUM_LENGTH, IS_NULLABLE, "
+                        + "COLUMN_DEFAULT, IS_IDENTITY FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' "
+                        + "AND TABLE_NAME <> 'flyway_schema_history' ORDER BY TABLE_NAME, COLUMN_NAME",
+                (rs, row) -> String.join(" ", rs.getString(1), rs.getString(2), rs.getString(3),
+                        String.valueOf(rs.getObject(4)), rs.getString(5), String.valueOf(rs.getString(6)), rs.getString(7)));
+    }
+
+    private static List<String> namedIndexes(JdbcTemplate jdbc) {
+        return jdbc.query("SELECT TABLE_NAME, INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC' "
+                        + "ORDER BY TABLE_NAME, INDEX_NAME",
+                (rs, row) -> rs.getString(1) + " " + rs.getString(2)).stream()
+                .filter(index -> {
+                    String name = index.substring(index.indexOf(' ') + 1).toLowerCase(Locale.ROOT);
+                    return name.startsWith("idx_") || name.startsWith("uk_appointments_");
+                })
+                .toList();
+    }
+
+    private static List<String> constraints(JdbcTemplate jdbc) {
+        return jdbc.query("SELECT TABLE_NAME, CONSTRAINT_NAME, CONSTRAINT_TYPE FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                        + "WHERE TABLE_SCHEMA = 'PUBLIC' AND CONSTRAINT_TYPE <> 'PRIMARY KEY' ORDER BY TABLE_NAME, CONSTRAINT_NAME",
+                (rs, row) -> rs.getString(1) + " " + rs.getString(2) + " " + rs.getString(3));
+    }
+}
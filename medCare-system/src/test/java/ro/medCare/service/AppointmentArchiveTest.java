@@ -0,0 +1,172 @@
+package ro.medCare.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.AppointmentDAO;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCareArchive;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "medcare.archive.batch-size=3",
+        "medcare.archive.pause-ms=0"
+})
+@Import(ClinicFixtures.class)
+class AppointmentArchiveTest {
+
+    private static final String ARCHIVE_JOB = "appointment-archive";
+
+    @Autowired
+    private AppointmentArchiveService archiveService;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private AppointmentStatisticsStore statisticsStore;
+
+    @Autowired
+    private AppointmentDAO appointmentRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void completedHistoryMovesToArchiveWithoutChangingReports() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDate oldDay = LocalDate.now().minusDays(500);
+        LocalDate recentDay = LocalDate.now().minusDays(10);
+
+        for (int i = 0; i < 7; i++) {
+            fixtures.appointment(doctor, service, oldDay.plusDays(i).atTime(9, 0), AppointmentStatus.COMPLETED);
+        }
+        fixtures.appointment(doctor, service, oldDay.atTime(11, 0), AppointmentStatus.IN_PROGRESS);
+        fixtures.appointment(doctor, service, oldDay.plusDays(3).atTime(11, 0), AppointmentStatus.NEW);
+        for (int i = 0; i < 3; i++) {
+            fixtures.appointment(doctor, service, recentDay.plusDays(i).atTime(9, 0), AppointmentStatus.COMPLETED);
+        }
+        statisticsStore.reconcile();
+
+        LocalDateTime start = oldDay.atStartOfDay();
+        LocalDateTime end = LocalDate.now().atStartOfDay();
+        List<Long> appointmentsBefore = ids(appointmentService.getAppointmentsByDateRange(start, end));
+        byte[] csvBefore = csv(start, end);
+        Map<Doctor, Long> doctorsBefore = appointmentService.getMostRequestedDoctors(start, end, 5);
+        long totalBefore = statisticsStore.getSummary().getTotalAppointments();
+
+        int archived = archiveService.archive(LocalDate.now().minusDays(365).atStartOfDay());
+
+        assertEquals(7, archived);
+        assertEquals(7, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archived_appointments WHERE doctor_id = ?",
+                Integer.class, doctor.getId()));
+        assertEquals(5, appointmentRepository.findByDoctorIdAndDateTimeBetween(doctor.getId(), start, end).size());
+
+        assertEquals(appointmentsBefore, ids(appointmentService.getAppointmentsByDateRange(start, end)));
+        assertArrayEquals(csvBefore, csv(start, end));
+        assertEquals(doctorsBefore, appointmentService.getMostRequestedDoctors(start, end, 5));
+
+        statisticsStore.reconcile();
+        assertEquals(totalBefore, statisticsStore.getSummary().getTotalAppointments());
+
+        assertEquals(0, archiveService.archive(LocalDate.now().minusDays(365).atStartOfDay()));
+    }
+
+    @Test
+    void archiveRunOnAnotherNodeIsVisibleToReportsHere() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDateTime dateTime = LocalDate.now().minusDays(900).atTime(9, 0);
+        Appointment appointment = fixtures.appointment(doctor, service, dateTime, AppointmentStatus.COMPLETED);
+        // Leaves this node with a horizon from before the other node's run.
+        assertEquals(List.of(appointment.getId()),
+                ids(appointmentService.getAppointmentsByDateRange(dateTime.minusHours(1), dateTime.plusHours(1))));
+
+        try (ConfigurableApplicationContext node = fixtures.node(JobLeases.class, AppointmentArchiveService.class)) {
+            assertEquals(1, node.getBean(AppointmentArchiveService.class)
+                    .archive(LocalDate.now().minusDays(365).atStartOfDay()));
+        }
+
+        assertEquals(List.of(appointment.getId()),
+                ids(appointmentService.getAppointmentsByDateRange(dateTime.minusHours(1), dateTime.plusHours(1))));
+    }
+
+    @Test
+    void recentReadsDoNotQueryTheArchive() {
+        LocalDateTime recent = LocalDate.now().minusDays(30).atStartOfDay();
+        archiveService.covers(recent);
+
+        statistics.clear();
+        assertFalse(archiveService.covers(recent));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        assertTrue(archiveService.covers(LocalDate.now().minusDays(400).atStartOfDay()));
+    }
+
+    @Test
+    void archiveSkipsRunWhileAnotherNodeHoldsTheLease() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        fixtures.appointment(doctor, service, LocalDate.now().minusDays(800).atTime(9, 0), AppointmentStatus.COMPLETED);
+        JobLeases otherNode = new JobLeases(jdbcTemplate);
+
+        assertTrue(otherNode.acquire(ARCHIVE_JOB, Duration.ofMinutes(5)));
+        try {
+            assertEquals(0, archiveService.archive(LocalDate.now().minusDays(365).atStartOfDay()));
+        } finally {
+            otherNode.release(ARCHIVE_JOB);
+        }
+
+        assertEquals(1, archiveService.archive(LocalDate.now().minusDays(365).atStartOfDay()));
+    }
+
+    private byte[] csv(LocalDateTime start, LocalDateTime end) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        reportService.writeCSV(start, end, output);
+        return output.toByteArray();
+    }
+
+    private static List<Long> ids(List<Appointment> appointments) {
+        return appointments.stream().map(Appointment::getId).sorted().toList();
+    }
+}
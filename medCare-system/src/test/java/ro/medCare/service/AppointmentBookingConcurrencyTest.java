@@ -0,0 +1,188 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.dto.AppointmentSlot;
+import ro.medCare.exception.BookingConflictException;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.AppointmentDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Import(ClinicFixtures.class)
+class AppointmentBookingConcurrencyTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private AppointmentDAO appointmentRepository;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void onlyOneOfManyIdenticalBookingsSucceeds() throws Exception {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDateTime slot = ClinicFixtures.futureDay().atTime(10, 0);
+
+        BookingResult result = runConcurrently(THREADS * 4, attempt ->
+                appointmentService.createAppointment(appointment(doctor, service, slot)));
+
+        assertTrue(result.unexpected.isEmpty(), () -> "Unexpected failures: " + result.unexpected);
+        assertEquals(1, result.booked.get());
+        assertEquals(THREADS * 4 - 1, result.conflicts.get());
+        assertEquals(1, bookedSlots(doctor, slot.toLocalDate()).size());
+    }
+
+    @Test
+    void randomOverlappingBookingsAcrossTwoNodesNeverDoubleBook() throws Exception {
+        MedicalService service = fixtures.service();
+        List<Doctor> doctors = fixtures.doctors(4, "Radiology", "09:00-13:00");
+        int days = 10;
+        LocalDate firstDay = ClinicFixtures.futureDays(days);
+
+        try (ConfigurableApplicationContext node = otherNode()) {
+            assertOtherNodeNeverDoubleBooks(node.getBean(AppointmentService.class), service, doctors, firstDay, days);
+        }
+    }
+
+    @Test
+    void slotFreedOnAnotherNodeCanBeBookedHere() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDateTime canceled = ClinicFixtures.futureDay().atTime(10, 0);
+        LocalDateTime deleted = canceled.plusHours(2);
+        Appointment first = appointmentService.createAppointment(appointment(doctor, service, canceled));
+        Appointment second = appointmentService.createAppointment(appointment(doctor, service, deleted));
+
+        try (ConfigurableApplicationContext node = otherNode()) {
+            AppointmentService otherNode = node.getBean(AppointmentService.class);
+            otherNode.updateAppointmentStatus(first.getId(), AppointmentStatus.CANCELED);
+            otherNode.deleteAppointment(second.getId());
+        }
+
+        for (LocalDateTime slot : List.of(canceled, deleted)) {
+            assertTrue(doctorService.checkAvailability(doctor.getId(), slot, service.getDuration()), slot::toString);
+            appointmentService.createAppointment(appointment(doctor, service, slot));
+            assertFalse(doctorService.checkAvailability(doctor.getId(), slot, service.getDuration()), slot::toString);
+        }
+    }
+
+    // A second server against the same database, with its own schedule index, locks and event listeners.
+    private ConfigurableApplicationContext otherNode() {
+        return fixtures.node(DoctorScheduleIndex.class, DoctorService.class, DoctorBookingLocks.class,
+                AppointmentService.class);
+    }
+
+    private void assertOtherNodeNeverDoubleBooks(AppointmentService otherNode, MedicalService service,
+                                                 List<Doctor> doctors, LocalDate firstDay, int days) throws Exception {
+        int attempts = 4000;
+        BookingResult result = runConcurrently(attempts, attempt -> {
+            Random random = new Random(attempt);
+            Doctor doctor = doctors.get(random.nextInt(doctors.size()));
+            LocalDateTime dateTime = firstDay.plusDays(attempt * days / attempts).atTime(9, 0)
+                    .plusMinutes(5L * random.nextInt(42));
+            AppointmentService node = attempt % 2 == 0 ? appointmentService : otherNode;
+            node.createAppointment(appointment(doctor, service, dateTime));
+        });
+
+        assertTrue(result.unexpected.isEmpty(), () -> "Unexpected failures: " + result.unexpected);
+        assertEquals(attempts, result.booked.get() + result.conflicts.get());
+
+        int stored = 0;
+        for (Doctor doctor : doctors) {
+            for (int day = 0; day < days; day++) {
+                List<AppointmentSlot> slots = bookedSlots(doctor, firstDay.plusDays(day));
+                stored += slots.size();
+                for (int i = 1; i < slots.size(); i++) {
+                    assertFalse(slots.get(i).getDateTime().isBefore(slots.get(i - 1).getEndDateTime()),
+                            "Overlapping appointments " + slots.get(i - 1) + " and " + slots.get(i));
+                }
+            }
+        }
+        assertEquals(result.booked.get(), stored);
+    }
+
+    private BookingResult runConcurrently(int attempts, Attempt attempt) throws InterruptedException {
+        BookingResult result = new BookingResult();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < attempts; i++) {
+            int attemptNumber = i;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    attempt.run(attemptNumber);
+                    result.booked.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    result.conflicts.incrementAndGet();
+                } catch (Throwable e) {
+                    result.unexpected.add(e);
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        return result;
+    }
+
+    private List<AppointmentSlot> bookedSlots(Doctor doctor, LocalDate day) {
+        List<AppointmentSlot> slots = new ArrayList<>(appointmentRepository.findSlotsByDoctorIdAndDateTimeRange(
+                doctor.getId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay()));
+        slots.sort(Comparator.comparing(AppointmentSlot::getDateTime));
+        return slots;
+    }
+
+    private static Appointment appointment(Doctor doctor, MedicalService service, LocalDateTime dateTime) {
+        Appointment appointment = new Appointment();
+        appointment.setPatientName("Patient");
+        appointment.setDoctor(doctor);
+        appointment.setService(service);
+        appointment.setDateTime(dateTime);
+        return appointment;
+    }
+
+    private interface Attempt {
+        void run(int attempt) throws Exception;
+    }
+
+    private static class BookingResult {
+        private final AtomicInteger booked = new AtomicInteger();
+        private final AtomicInteger conflicts = new AtomicInteger();
+        private final Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+    }
+}
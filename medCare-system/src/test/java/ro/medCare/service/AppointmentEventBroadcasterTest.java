@@ -0,0 +1,148 @@
+package ro.medCare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ro.medCare.dto.AppointmentChangeRow;
+import ro.medCare.event.AppointmentChangeType;
+import ro.medCare.exception.TooManyRequestsException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentEventBroadcasterTest {
+
+    private static final long DOCTOR_ID = 7L;
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    private final AppointmentChangeLog changeLog = mock(AppointmentChangeLog.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @Test
+    void fullBufferIsReplacedByResyncInsteadOfEvictingTheSubscriber() {
+        AppointmentEventBroadcaster broadcaster = newBroadcaster(2, 10, 100, 60_000);
+        broadcaster.subscribe(DOCTOR_ID, DAY);
+
+        when(changeLog.readAfter(anyLong(), anyInt())).thenReturn(deletions(1, 5));
+        broadcaster.poll();
+
+        assertEquals(2, resyncs());
+        assertEquals(1, subscribers());
+        assertNull(meterRegistry.find("medcare.events.evictions").counter());
+    }
+
+    @Test
+    void burstForOneSubscriberIsCoalescedIntoSingleResync() {
+        AppointmentEventBroadcaster broadcaster = newBroadcaster(64, 10, 3, 60_000);
+        broadcaster.subscribe(DOCTOR_ID, DAY);
+        broadcaster.subscribe(DOCTOR_ID + 1, DAY);
+
+        when(changeLog.readAfter(anyLong(), anyInt())).thenReturn(deletions(1, 8));
+        broadcaster.poll();
+
+        assertEquals(1, resyncs());
+        assertEquals(2, subscribers());
+    }
+
+    @Test
+    void backlogBeyondPollLimitResyncsEverySubscriberAndSkipsToHead() {
+        AppointmentEventBroadcaster broadcaster = newBroadcaster(64, 4, 100, 60_000);
+        broadcaster.subscribe(DOCTOR_ID, DAY);
+        broadcaster.subscribe(null, null);
+
+        when(changeLog.readAfter(anyLong(), anyInt())).thenReturn(deletions(1, 5));
+        when(changeLog.head()).thenReturn(500L);
+        broadcaster.poll();
+
+        assertEquals(2, resyncs());
+        when(changeLog.readAfter(500L, 5)).thenReturn(List.of());
+        broadcaster.poll();
+        assertEquals(2, resyncs());
+    }
+
+    @Test
+    void subscriberThatStopsReadingIsEvictedAfterStallTimeout() {
+        AppointmentEventBroadcaster broadcaster = newBroadcaster(64, 10, 100, 0);
+        broadcaster.subscribe(DOCTOR_ID, DAY);
+
+        broadcaster.heartbeat();
+
+        assertEquals(0, subscribers());
+        assertEquals(1.0, meterRegistry.counter("medcare.events.evictions", "reason", "slow-consumer").count());
+    }
+
+    @Test
+    void concurrentSubscriptionsNeverExceedTheCap() throws Exception {
+        int maxSubscribers = 5;
+        AppointmentEventBroadcaster broadcaster = new AppointmentEventBroadcaster(changeLog, new CursorPaging(50, 200),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, Runnable::run, 60_000, 64, maxSubscribers,
+                5, 10, 100, 60_000);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                attempts.add(clients.submit(() -> {
+                    start.await();
+                    try {
+                        broadcaster.subscribe(null, null);
+                    } catch (TooManyRequestsException e) {
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> attempt : attempts) {
+                attempt.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        assertEquals(maxSubscribers, subscribers());
+        assertEquals(64 - maxSubscribers, rejected.get());
+    }
+
+    private AppointmentEventBroadcaster newBroadcaster(int bufferSize, int pollLimit, int coalesceThreshold,
+                                                       long stallTimeoutMillis) {
+        return new AppointmentEventBroadcaster(changeLog, new CursorPaging(50, 200),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, tasks::add, 60_000, bufferSize, 100, 5,
+                pollLimit, coalesceThreshold, stallTimeoutMillis);
+    }
+
+    private double resyncs() {
+        Counter counter = meterRegistry.find("medcare.events.resyncs").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("medcare.events.subscribers").gauge().value();
+    }
+
+    private static List<AppointmentChangeRow> deletions(long firstId, int count) {
+        return LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> new AppointmentChangeRow(id, 1000 + id, AppointmentChangeType.DELETED,
+                        LocalDateTime.now(), DOCTOR_ID, DAY, null, null))
+                .toList();
+    }
+}
@@ -0,0 +1,80 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.exception.BookingConflictException;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Import(ClinicFixtures.class)
+class AppointmentServiceTest {
+
+    private static final long LEGACY_ID = 900_000_000L;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void rowsWrittenWithoutAVersionCanStillBeUpdated() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDateTime slot = ClinicFixtures.futureDay().atTime(9, 0);
+
+        jdbcTemplate.update("INSERT INTO appointments (id, patient_name, doctor_id, date_time, service_id, status) "
+                + "VALUES (?, 'Legacy patient', ?, ?, ?, 'NEW')", LEGACY_ID, doctor.getId(), Timestamp.valueOf(slot),
+                service.getId());
+
+        Appointment updated = appointmentService.updateAppointmentStatus(LEGACY_ID, AppointmentStatus.IN_PROGRESS);
+
+        assertEquals(AppointmentStatus.IN_PROGRESS, updated.getStatus());
+        assertEquals(1L, updated.getVersion());
+    }
+
+    @Test
+    void canceledAppointmentFreesItsSlotUntilReactivated() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service();
+        LocalDateTime slot = ClinicFixtures.futureDay().atTime(10, 0);
+
+        Appointment canceled = appointmentService.createAppointment(booking(doctor, service, slot));
+        assertThrows(BookingConflictException.class,
+                () -> appointmentService.createAppointment(booking(doctor, service, slot)));
+
+        appointmentService.updateAppointmentStatus(canceled.getId(), AppointmentStatus.CANCELED);
+        Appointment rebooked = appointmentService.createAppointment(booking(doctor, service, slot));
+
+        assertNotEquals(canceled.getId(), rebooked.getId());
+        assertEquals(slot, rebooked.getDateTime());
+        assertThrows(BookingConflictException.class,
+                () -> appointmentService.updateAppointmentStatus(canceled.getId(), AppointmentStatus.NEW));
+        assertEquals(AppointmentStatus.CANCELED, appointmentService.getAppointmentById(canceled.getId()).getStatus());
+
+        appointmentService.updateAppointmentStatus(rebooked.getId(), AppointmentStatus.CANCELED);
+        assertEquals(AppointmentStatus.NEW,
+                appointmentService.updateAppointmentStatus(canceled.getId(), AppointmentStatus.NEW).getStatus());
+    }
+
+    private static Appointment booking(Doctor doctor, MedicalService service, LocalDateTime dateTime) {
+        return new Appointment(null, "Rebooking patient", doctor, dateTime, service, null, null);
+    }
+}
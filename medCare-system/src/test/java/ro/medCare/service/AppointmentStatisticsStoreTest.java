@@ -0,0 +1,192 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.dto.StatisticsSummaryDTO;
+import ro.medCare.exception.BookingConflictException;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCareStatistics;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "medcare.changes.superseded-grace-minutes=0"
+})
+@Import(ClinicFixtures.class)
+class AppointmentStatisticsStoreTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKINGS = 400;
+    private static final String ALL_APPOINTMENTS = "(SELECT doctor_id, service_id, status FROM appointments "
+            + "UNION ALL SELECT doctor_id, service_id, status FROM archived_appointments) a";
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentStatisticsStore statisticsStore;
+
+    @Autowired
+    private AppointmentChangeLog changeLog;
+
+    @Autowired
+    private MedicalServiceService medicalServiceService;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countersMatchTheTablesAfterConcurrentBookingsCancelsAndReconciles() throws Exception {
+        List<Doctor> doctors = fixtures.doctors(4, "Cardiology", ClinicFixtures.WORK_HOURS);
+        List<MedicalService> services = List.of(fixtures.service(20), fixtures.service(40));
+        int days = BOOKINGS / doctors.size() / 8;
+        LocalDate firstDay = ClinicFixtures.futureDays(days);
+
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        AtomicBoolean booking = new AtomicBoolean(true);
+        Thread reconciler = new Thread(() -> {
+            while (booking.get()) {
+                try {
+                    statisticsStore.reconcile();
+                    changeLog.sequenceChanges();
+                    statisticsStore.refresh();
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < BOOKINGS; i++) {
+            int attempt = i;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    Appointment appointment = new Appointment();
+                    appointment.setPatientName("Statistics patient " + attempt);
+                    appointment.setDoctor(doctors.get(attempt % doctors.size()));
+                    appointment.setService(services.get(attempt % services.size()));
+                    appointment.setDateTime(firstDay.plusDays(attempt / doctors.size() / 8)
+                            .atTime(8, 0).plusHours(attempt / doctors.size() % 8));
+                    Appointment booked = appointmentService.createAppointment(appointment);
+
+                    if (attempt % 3 == 0) {
+                        appointmentService.updateAppointmentStatus(booked.getId(), AppointmentStatus.CANCELED);
+                    } else if (attempt % 5 == 0) {
+                        appointmentService.deleteAppointment(booked.getId());
+                    } else if (attempt % 7 == 0) {
+                        appointmentService.updateAppointmentStatus(booked.getId(), AppointmentStatus.COMPLETED);
+                    }
+                } catch (BookingConflictException e) {
+                    unexpected.add(new AssertionError("Bookings use distinct slots", e));
+                } catch (Throwable e) {
+                    unexpected.add(e);
+                }
+            });
+        }
+
+        reconciler.start();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        booking.set(false);
+        reconciler.join();
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+
+        changeLog.sequenceChanges();
+        statisticsStore.refresh();
+        assertMatchesTables(statisticsStore.getSummary());
+
+        statisticsStore.reconcile();
+        assertMatchesTables(statisticsStore.getSummary());
+    }
+
+    @Test
+    void priceChangesApplyWithoutAReconcile() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service(30);
+        LocalDate day = ClinicFixtures.futureDay();
+        for (int hour = 8; hour < 11; hour++) {
+            Appointment appointment = new Appointment();
+            appointment.setPatientName("Priced patient");
+            appointment.setDoctor(doctor);
+            appointment.setService(service);
+            appointment.setDateTime(day.atTime(hour, 0));
+            appointmentService.createAppointment(appointment);
+        }
+        changeLog.sequenceChanges();
+        statisticsStore.refresh();
+        double revenueBefore = statisticsStore.getSummary().getRevenue();
+
+        service.setPrice(service.getPrice() + 50);
+        medicalServiceService.updateMedicalService(service);
+
+        assertEquals(revenueBefore + 150, statisticsStore.getSummary().getRevenue(), 0.001);
+    }
+
+    @Test
+    void storeBehindCompactedEntriesReconcilesInsteadOfDrifting() {
+        Appointment booked = fixtures.appointment(fixtures.doctor(), fixtures.service(), ClinicFixtures.futureDay()
+                .atTime(9, 0), AppointmentStatus.NEW);
+        statisticsStore.reconcile();
+
+        appointmentService.updateAppointmentStatus(booked.getId(), AppointmentStatus.CANCELED);
+        appointmentService.updateAppointmentStatus(booked.getId(), AppointmentStatus.COMPLETED);
+        changeLog.sequenceChanges();
+        assertTrue(changeLog.compact(LocalDate.now().minusDays(7).atStartOfDay()) > 0);
+
+        statisticsStore.refresh();
+        assertMatchesTables(statisticsStore.getSummary());
+    }
+
+    private void assertMatchesTables(StatisticsSummaryDTO summary) {
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + ALL_APPOINTMENTS, Long.class),
+                summary.getTotalAppointments());
+        assertEquals(grouped("doctor_id"), summary.getAppointmentsByDoctor());
+        assertEquals(grouped("service_id"), summary.getAppointmentsByService());
+
+        Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        jdbcTemplate.query("SELECT status, COUNT(*) FROM " + ALL_APPOINTMENTS + " GROUP BY status",
+                rs -> {
+                    byStatus.put(AppointmentStatus.valueOf(rs.getString(1)), rs.getLong(2));
+                });
+        assertEquals(byStatus, summary.getAppointmentsByStatus());
+    }
+
+    private Map<Long, Long> grouped(String column) {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query("SELECT " + column + ", COUNT(*) FROM " + ALL_APPOINTMENTS + " GROUP BY " + column,
+                rs -> {
+                    counts.put(rs.getLong(1), rs.getLong(2));
+                });
+        return counts;
+    }
+}
@@ -0,0 +1,89 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Test;
+import ro.medCare.dto.AppointmentRow;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CSVReportExporterTest {
+
+    private final CSVReportExporter exporter = new CSVReportExporter();
+
+    @Test
+    void valuesWithSeparatorsQuotesOrLineBreaksAreQuoted() throws IOException {
+        StringWriter output = new StringWriter();
+        CsvRowWriter rows = new CsvRowWriter(output);
+
+        rows.add("plain").add("Smith, John").add("Say \"hi\"").add("two\nlines").add("cr\r").endRow();
+        rows.add((String) null).add("").add("'single'").endRow();
+
+        assertEquals("plain,\"Smith, John\",\"Say \"\"hi\"\"\",\"two\nlines\",\"cr\r\"\n"
+                + ",,'single'\n", output.toString());
+    }
+
+    @Test
+    void numbersMoneyAndDatesAreFormattedWithoutLocaleDependence() throws IOException {
+        StringWriter output = new StringWriter();
+        CsvRowWriter rows = new CsvRowWriter(output);
+
+        rows.add(42L).addMoney(1234.5).addMoney(0.004).addMoney(-7.256)
+                .add(LocalDateTime.of(2025, 3, 7, 9, 5, 59)).endRow();
+        rows.addMoney(99.999).add(LocalDateTime.of(2025, 12, 31, 23, 0)).endRow();
+
+        assertEquals("42,1234.50,0.00,-7.26,2025-03-07 09:05\n"
+                + "100.00,2025-12-31 23:00\n", output.toString());
+    }
+
+    @Test
+    void rowsLongerThanTheReusedBufferAreWrittenWhole() throws IOException {
+        StringWriter output = new StringWriter();
+        CsvRowWriter rows = new CsvRowWriter(output);
+        String longValue = "x".repeat(1000);
+
+        rows.add("short").endRow();
+        rows.add(longValue).add(longValue).endRow();
+        rows.add("after").endRow();
+
+        assertEquals("short\n" + longValue + "," + longValue + "\nafter\n", output.toString());
+    }
+
+    @Test
+    void exportWritesAppointmentAndStatisticsSections() throws IOException {
+        Doctor doctor = new Doctor(1L, "Dr. Pop, Ana", "Cardiology", "08:00-16:00");
+        MedicalService service = new MedicalService(2L, "ECG \"rest\"", 150, 30);
+        Map<Doctor, Long> doctorStatistics = new LinkedHashMap<>();
+        doctorStatistics.put(doctor, 3L);
+        Map<MedicalService, Long> serviceStatistics = new LinkedHashMap<>();
+        serviceStatistics.put(service, 2L);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CsvRowWriter rows = exporter.open(output);
+        exporter.writeAppointmentHeader(rows);
+        exporter.writeAppointment(new AppointmentRow(10L, "Ionescu, Maria", 1L, doctor.getName(),
+                doctor.getSpecialization(), LocalDateTime.of(2025, 1, 2, 8, 30), 2L, service.getName(),
+                service.getPrice(), service.getDuration(), AppointmentStatus.NEW), rows);
+        exporter.writeStatistics(doctorStatistics, serviceStatistics, rows);
+
+        assertEquals("ID,Patient Name,Doctor,Specialization,Date & Time,Service,Price,Duration,Status\n"
+                + "10,\"Ionescu, Maria\",\"Dr. Pop, Ana\",Cardiology,2025-01-02 08:30,\"ECG \"\"rest\"\"\",150.00,30,NEW\n"
+                + "\n"
+                + "Doctor Statistics\n"
+                + "Doctor,Specialization,Appointments\n"
+                + "\"Dr. Pop, Ana\",Cardiology,3\n"
+                + "\n"
+                + "Service Statistics\n"
+                + "Service,Price,Duration,Appointments\n"
+                + "\"ECG \"\"rest\"\"\",150.00,30,2\n", output.toString(StandardCharsets.UTF_8));
+    }
+}
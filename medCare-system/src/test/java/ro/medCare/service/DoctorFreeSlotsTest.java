@@ -0,0 +1,135 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.dto.FreeSlotDTO;
+import ro.medCare.exception.ValidationException;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "medcare.slots.step-minutes=15",
+        "medcare.slots.max-range-days=7",
+        "medcare.slots.max-limit=5"
+})
+@Import(ClinicFixtures.class)
+class DoctorFreeSlotsTest {
+
+    private static final AtomicInteger NEXT_SPECIALIZATION = new AtomicInteger();
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void appointmentStartedBeforeTheWindowStillBlocksIt() {
+        String specialization = specialization();
+        Doctor doctor = fixtures.doctor(specialization, "08:00-12:00");
+        LocalDate day = ClinicFixtures.futureDay();
+        fixtures.appointment(doctor, fixtures.service(60), day.atTime(9, 0), AppointmentStatus.NEW);
+
+        List<FreeSlotDTO> slots = doctorService.findFreeSlots(specialization, day.atTime(9, 30), day.atTime(11, 0),
+                30, 10);
+
+        assertEquals(List.of(day.atTime(10, 0), day.atTime(10, 15), day.atTime(10, 30)), starts(slots));
+    }
+
+    @Test
+    void backToBackAppointmentsLeaveNoGapAndFreeTimeEndsAtTheNextBooking() {
+        String specialization = specialization();
+        Doctor doctor = fixtures.doctor(specialization, "08:00-12:00");
+        MedicalService service = fixtures.service(30);
+        LocalDate day = ClinicFixtures.futureDay();
+        fixtures.appointment(doctor, service, day.atTime(9, 0), AppointmentStatus.NEW);
+        fixtures.appointment(doctor, service, day.atTime(9, 30), AppointmentStatus.IN_PROGRESS);
+        fixtures.appointment(doctor, service, day.atTime(11, 0), AppointmentStatus.NEW);
+        fixtures.appointment(doctor, service, day.atTime(10, 0), AppointmentStatus.CANCELED);
+
+        List<FreeSlotDTO> slots = doctorService.findFreeSlots(specialization, day.atTime(9, 0), day.atTime(12, 0),
+                30, 5);
+
+        assertEquals(List.of(day.atTime(10, 0), day.atTime(10, 15), day.atTime(10, 30), day.atTime(11, 30)),
+                starts(slots));
+        assertEquals(day.atTime(10, 30), slots.get(0).getEnd());
+    }
+
+    @Test
+    void candidatesAlignToTheStepFromWorkStart() {
+        String specialization = specialization();
+        Doctor doctor = fixtures.doctor(specialization, "08:05-10:00");
+        LocalDate day = ClinicFixtures.futureDay();
+        fixtures.appointment(doctor, fixtures.service(20), day.atTime(8, 50), AppointmentStatus.NEW);
+
+        assertEquals(List.of(day.atTime(8, 20), day.atTime(9, 20), day.atTime(9, 35)),
+                starts(doctorService.findFreeSlots(specialization, day.atTime(8, 7), day.atTime(10, 0), 25, 5)));
+        assertEquals(day.atTime(8, 5),
+                starts(doctorService.findFreeSlots(specialization, day.atTime(7, 0), day.atTime(10, 0), 25, 1)).get(0));
+        assertEquals(day.atTime(9, 20),
+                starts(doctorService.findFreeSlots(specialization, day.atTime(9, 20), day.atTime(10, 0), 25, 1)).get(0));
+    }
+
+    @Test
+    void searchSpansSeveralWorkDays() {
+        String specialization = specialization();
+        Doctor doctor = fixtures.doctor(specialization, "08:00-09:00");
+        LocalDate first = ClinicFixtures.futureDays(3);
+        fixtures.appointment(doctor, fixtures.service(30), first.plusDays(1).atTime(8, 0), AppointmentStatus.NEW);
+
+        List<FreeSlotDTO> slots = doctorService.findFreeSlots(specialization, first.atTime(8, 30),
+                first.plusDays(2).atTime(8, 30), 30, 5);
+
+        assertEquals(List.of(first.atTime(8, 30), first.plusDays(1).atTime(8, 30), first.plusDays(2).atTime(8, 0)),
+                starts(slots));
+    }
+
+    @Test
+    void limitIsAppliedAcrossDoctorsAndCapped() {
+        String specialization = specialization();
+        List<Doctor> doctors = fixtures.doctors(3, specialization, "08:00-12:00");
+        LocalDate day = ClinicFixtures.futureDay();
+        LocalDateTime from = day.atTime(8, 0);
+        LocalDateTime to = day.atTime(12, 0);
+
+        List<FreeSlotDTO> four = doctorService.findFreeSlots(specialization, from, to, 30, 4);
+        assertEquals(List.of(from, from, from, from.plusMinutes(15)), starts(four));
+        assertEquals(List.of(doctors.get(0).getId(), doctors.get(1).getId(), doctors.get(2).getId(),
+                doctors.get(0).getId()), four.stream().map(FreeSlotDTO::getDoctorId).toList());
+
+        assertEquals(5, doctorService.findFreeSlots(specialization, from, to, 30, 100).size());
+        assertEquals(1, doctorService.findFreeSlots(specialization, from, to, 30, 0).size());
+    }
+
+    @Test
+    void invalidSearchesAreRejected() {
+        LocalDateTime from = ClinicFixtures.futureDay().atTime(8, 0);
+
+        assertThrows(ValidationException.class, () -> doctorService.findFreeSlots(null, from, from, 30, 5));
+        assertThrows(ValidationException.class,
+                () -> doctorService.findFreeSlots(null, from, from.plusDays(8), 30, 5));
+        assertThrows(ValidationException.class,
+                () -> doctorService.findFreeSlots(null, from, from.plusHours(1), 0, 5));
+        assertEquals(List.of(), doctorService.findFreeSlots(specialization(), from, from.plusHours(4), 30, 5));
+    }
+
+    private static String specialization() {
+        return "Free slots " + NEXT_SPECIALIZATION.incrementAndGet();
+    }
+
+    private static List<LocalDateTime> starts(List<FreeSlotDTO> slots) {
+        return slots.stream().map(FreeSlotDTO::getStart).toList();
+    }
+}
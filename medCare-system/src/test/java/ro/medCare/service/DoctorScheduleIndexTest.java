@@ -0,0 +1,148 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.event.AppointmentChangedEvent;
+import ro.medCare.event.AppointmentSnapshot;
+import ro.medCare.model.Appointment;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+import ro.medCare.repository.MedicalServiceDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medCareScheduleIndex;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "medcare.availability.index.history-days=1"
+})
+@Import(ClinicFixtures.class)
+class DoctorScheduleIndexTest {
+
+    @Autowired
+    private DoctorScheduleIndex scheduleIndex;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private MedicalServiceService medicalServiceService;
+
+    @Autowired
+    private MedicalServiceDAO medicalServiceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void overlapsAreHalfOpenInTheIndexAndInTheDatabase() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service(30);
+        LocalDateTime ten = ClinicFixtures.futureDay().atTime(10, 0);
+        Appointment booked = book(doctor, service, ten);
+
+        assertTrue(scheduleIndex.isIndexed(booked.getId()));
+        for (boolean database : new boolean[]{false, true}) {
+            assertFalse(overlaps(database, doctor, ten.minusMinutes(30), 30, null), "ends at start");
+            assertFalse(overlaps(database, doctor, ten.plusMinutes(30), 30, null), "starts at end");
+            assertTrue(overlaps(database, doctor, ten.minusMinutes(29), 30, null), "ends inside");
+            assertTrue(overlaps(database, doctor, ten.plusMinutes(29), 30, null), "starts inside");
+            assertTrue(overlaps(database, doctor, ten.minusMinutes(10), 60, null), "covers");
+            assertFalse(overlaps(database, doctor, ten, 30, booked.getId()), "excluded");
+            assertTrue(overlaps(database, doctor, ten, 30, booked.getId() + 1), "other id");
+        }
+    }
+
+    @Test
+    void lookBackFollowsTheLongestServiceDuration() {
+        LocalDateTime start = ClinicFixtures.futureDay().atTime(12, 0);
+        int longest = medicalServiceRepository.findLongestDuration();
+
+        MedicalService service = fixtures.service(longest + 60);
+        assertEquals(start.minusMinutes(longest + 60), scheduleIndex.lookBack(start));
+
+        service.setDuration(longest + 90);
+        medicalServiceService.updateMedicalService(service);
+        assertEquals(start.minusMinutes(longest + 90), scheduleIndex.lookBack(start));
+
+        medicalServiceService.deleteMedicalService(service.getId());
+        assertEquals(start.minusMinutes(longest), scheduleIndex.lookBack(start));
+    }
+
+    @Test
+    void serviceDurationChangesReachIndexedSlots() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService service = fixtures.service(30);
+        LocalDateTime ten = ClinicFixtures.futureDay().atTime(10, 0);
+        book(doctor, service, ten);
+        assertFalse(scheduleIndex.hasOverlap(doctor.getId(), ten.plusMinutes(45), 15, null));
+
+        service.setDuration(60);
+        medicalServiceService.updateMedicalService(service);
+
+        assertTrue(scheduleIndex.hasOverlap(doctor.getId(), ten.plusMinutes(45), 15, null));
+        assertFalse(scheduleIndex.hasOverlap(doctor.getId(), ten.plusMinutes(60), 15, null));
+    }
+
+    @Test
+    void pruneKeepsOnlySlotsThatCanStillReachTheIndexedWindow() {
+        Doctor doctor = fixtures.doctor();
+        MedicalService shortService = fixtures.service(30);
+        MedicalService longService = fixtures.service(medicalServiceRepository.findLongestDuration() + 120);
+        LocalDateTime indexedFrom = LocalDate.now().minusDays(1).atStartOfDay();
+
+        Appointment stale = fixtures.appointment(doctor, shortService, indexedFrom.minusDays(3),
+                AppointmentStatus.COMPLETED);
+        Appointment running = fixtures.appointment(doctor, longService, indexedFrom.minusMinutes(60),
+                AppointmentStatus.IN_PROGRESS);
+        index(stale);
+        index(running);
+
+        scheduleIndex.prune();
+
+        assertFalse(scheduleIndex.isIndexed(stale.getId()));
+        assertTrue(scheduleIndex.isIndexed(running.getId()));
+
+        assertTrue(scheduleIndex.hasOverlap(doctor.getId(), indexedFrom.plusMinutes(30), 15, null));
+    }
+
+    @Test
+    void indexHitsAreConfirmedAgainstTheDatabase() {
+        Doctor doctor = fixtures.doctor();
+        LocalDateTime ten = ClinicFixtures.futureDay().atTime(10, 0);
+        Appointment booked = book(doctor, fixtures.service(30), ten);
+
+        // Removed behind the index's back, as a delete on another node would be.
+        jdbcTemplate.update("DELETE FROM appointments WHERE id = ?", booked.getId());
+
+        assertFalse(scheduleIndex.hasOverlap(doctor.getId(), ten, 30, null));
+        assertFalse(scheduleIndex.isIndexed(booked.getId()));
+    }
+
+    private boolean overlaps(boolean database, Doctor doctor, LocalDateTime dateTime, int duration, Long excludedId) {
+        return database
+                ? scheduleIndex.hasOverlapInDatabase(doctor.getId(), dateTime, duration, excludedId)
+                : scheduleIndex.hasOverlap(doctor.getId(), dateTime, duration, excludedId);
+    }
+
+    private void index(Appointment appointment) {
+        scheduleIndex.onAppointmentChanged(AppointmentChangedEvent.created(AppointmentSnapshot.of(appointment)));
+    }
+
+    private Appointment book(Doctor doctor, MedicalService service, LocalDateTime dateTime) {
+        return appointmentService.createAppointment(
+                new Appointment(null, "Indexed patient", doctor, dateTime, service, null, null));
+    }
+}
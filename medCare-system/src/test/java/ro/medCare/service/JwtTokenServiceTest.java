@@ -0,0 +1,83 @@
+package ro.medCare.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ro.medCare.model.User;
+import ro.medCare.model.UserRole;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenServiceTest {
+
+    private static final String SECRET = "testSecretKeyThatIsLongEnoughForHmacSha256Signing";
+    private static final User USER = new User(7L, "Ana Pop", "ana", "hash", UserRole.RECEPTIONIST);
+
+    @Test
+    void expirationIsHonouredOnFirstAndCachedVerification() throws Exception {
+        JwtTokenService expired = service(-1_000);
+        String stale = expired.generateToken(USER);
+        assertThrows(ExpiredJwtException.class, () -> expired.verify(stale));
+
+        // exp has whole-second precision, so the token lives between one and two seconds.
+        JwtTokenService shortLived = service(2_000);
+        String token = shortLived.generateToken(USER);
+        assertEquals("ana", shortLived.verify(token).getSubject());
+        assertTrue(shortLived.validateToken(token, "ana"));
+
+        Thread.sleep(2_100);
+        assertThrows(ExpiredJwtException.class, () -> shortLived.verify(token));
+    }
+
+    @Test
+    void tamperedTokensAreRejectedEvenAfterTheOriginalWasCached() {
+        JwtTokenService tokens = service(60_000);
+        String token = tokens.generateToken(USER);
+        tokens.verify(token);
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]));
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replace("RECEPTIONIST", "ADMIN").getBytes());
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+        char first = parts[2].charAt(0);
+        String badSignature = parts[0] + "." + parts[1] + "." + (first == 'A' ? 'B' : 'A') + parts[2].substring(1);
+        String otherKey = new JwtTokenService(new SimpleMeterRegistry(), SECRET + "-other", 60_000, 100, 300_000)
+                .generateToken(USER);
+
+        assertThrows(JwtException.class, () -> tokens.verify(forged));
+        assertThrows(JwtException.class, () -> tokens.verify(badSignature));
+        assertThrows(JwtException.class, () -> tokens.verify(otherKey));
+        assertThrows(JwtException.class, () -> tokens.verify(parts[0] + "." + parts[1] + "."));
+        assertEquals("RECEPTIONIST", tokens.verify(token).get("role"));
+    }
+
+    @Test
+    void changesToReturnedClaimsDoNotReachTheCache() {
+        JwtTokenService tokens = service(60_000);
+        String token = tokens.generateToken(USER);
+
+        Claims first = tokens.verify(token);
+        first.put("role", "ADMIN");
+        first.setSubject("mallory");
+        first.setExpiration(new Date(System.currentTimeMillis() + 3_600_000_000L));
+
+        Claims second = tokens.verify(token);
+        assertEquals("RECEPTIONIST", second.get("role"));
+        assertEquals("ana", second.getSubject());
+        assertTrue(second.getExpiration().getTime() < System.currentTimeMillis() + 61_000);
+        assertFalse(tokens.validateToken(token, "mallory"));
+    }
+
+    private static JwtTokenService service(long expirationMillis) {
+        return new JwtTokenService(new SimpleMeterRegistry(), SECRET, expirationMillis, 100, 300_000);
+    }
+}
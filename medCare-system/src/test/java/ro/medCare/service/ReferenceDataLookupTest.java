@@ -0,0 +1,82 @@
+package ro.medCare.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Import(ClinicFixtures.class)
+class ReferenceDataLookupTest {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private MedicalServiceService medicalServiceService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ClinicFixtures fixtures;
+
+    @Test
+    void lookupsByIdLoadOnlyTheRequestedRows() {
+        List<Doctor> doctors = fixtures.doctors(20, "Neurology", ClinicFixtures.WORK_HOURS);
+        List<MedicalService> services = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            services.add(fixtures.service());
+        }
+        Set<Long> doctorIds = Set.of(doctors.get(2).getId(), doctors.get(7).getId(), doctors.get(19).getId());
+        Set<Long> serviceIds = Set.of(services.get(0).getId(), services.get(11).getId());
+        long missingId = Long.MAX_VALUE;
+
+        Statistics statistics = statistics();
+        assertEquals(doctorIds, doctorService.getDoctorsByIds(with(doctorIds, missingId)).stream()
+                .map(Doctor::getId).collect(Collectors.toSet()));
+        assertEquals(3, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics = statistics();
+        assertEquals(serviceIds, medicalServiceService.getMedicalServicesByIds(with(serviceIds, missingId)).stream()
+                .map(MedicalService::getId).collect(Collectors.toSet()));
+        assertEquals(2, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics = statistics();
+        assertEquals(List.of(), doctorService.getDoctorsByIds(List.of()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    private static List<Long> with(Set<Long> ids, long extra) {
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(extra);
+        return requested;
+    }
+}
@@ -0,0 +1,175 @@
+package ro.medCare.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ro.medCare.dto.ReportFormat;
+import ro.medCare.dto.ReportJobDTO;
+import ro.medCare.dto.ReportJobStatus;
+import ro.medCare.exception.ResourceNotFoundException;
+import ro.medCare.exception.TooManyRequestsException;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:medCareReportJobs;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class ReportJobServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ReportService reportService = mock(ReportService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ReportJobService jobs;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (jobs != null) {
+            jobs.shutdown();
+        }
+    }
+
+    @Test
+    void identicalSubmissionsShareOneJobUntilItCompletes() throws Exception {
+        blockCsvWrites();
+        jobs = newService(1, 60);
+
+        ReportJobDTO first = jobs.submit(START, END, ReportFormat.CSV, false);
+        ReportJobDTO second = jobs.submit(START, END, ReportFormat.CSV, true);
+        ReportJobDTO otherRange = jobs.submit(START, END.plusDays(1), ReportFormat.CSV, false);
+
+        assertEquals(first.getId(), second.getId());
+        assertNotEquals(first.getId(), otherRange.getId());
+        assertThrows(IllegalStateException.class, () -> jobs.getResult(first.getId()));
+
+        release.countDown();
+        awaitStatus(first.getId(), ReportJobStatus.COMPLETED);
+
+        ReportJobService.ReportJobResult result = jobs.getResult(first.getId());
+        assertEquals("id,patient\n", Files.readString(result.file()));
+        assertEquals(result.sizeBytes(), jobs.getJob(first.getId()).getSizeBytes());
+
+        ReportJobDTO afterCompletion = jobs.submit(START, END, ReportFormat.CSV, false);
+        assertNotEquals(first.getId(), afterCompletion.getId());
+    }
+
+    @Test
+    void submissionsBeyondTheQueueAreRejected() {
+        blockCsvWrites();
+        jobs = newService(1, 60);
+
+        jobs.submit(START, END, ReportFormat.CSV, false);
+        jobs.submit(START, END.plusDays(1), ReportFormat.CSV, false);
+
+        assertThrows(TooManyRequestsException.class, () -> jobs.submit(START, END.plusDays(2), ReportFormat.CSV, false));
+    }
+
+    @Test
+    void cleanupRemovesExpiredJobsAndTheirFiles() throws Exception {
+        release.countDown();
+        blockCsvWrites();
+        jobs = newService(4, 0);
+
+        String id = jobs.submit(START, END, ReportFormat.CSV, false).getId();
+        awaitStatus(id, ReportJobStatus.COMPLETED);
+        Path file = jobs.getResult(id).file();
+
+        jobs.cleanup();
+
+        assertFalse(Files.exists(file));
+        assertThrows(ResourceNotFoundException.class, () -> jobs.getJob(id));
+    }
+
+    @Test
+    void completedJobsOutliveARestartUntilTheyExpire() throws Exception {
+        release.countDown();
+        blockCsvWrites();
+        jobs = newService(4, 60);
+        String id = jobs.submit(START, END, ReportFormat.CSV, false).getId();
+        awaitStatus(id, ReportJobStatus.COMPLETED);
+        jobs.shutdown();
+
+        Path orphan = spoolDirectory.resolve("report-job-orphan.csv");
+        Files.writeString(orphan, "id,patient\n");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        jobs = newService(4, 60);
+        jobs.cleanup();
+
+        assertEquals(ReportJobStatus.COMPLETED, jobs.getJob(id).getStatus());
+        assertEquals("id,patient\n", Files.readString(jobs.getResult(id).file()));
+        assertFalse(Files.exists(orphan));
+    }
+
+    @Test
+    void jobsThatNeverFinishFailOnceTheyExpire() {
+        blockCsvWrites();
+        jobs = newService(4, 0);
+
+        String id = jobs.submit(START, END, ReportFormat.CSV, false).getId();
+        jobs.cleanup();
+
+        ReportJobDTO job = jobs.getJob(id);
+        assertEquals(ReportJobStatus.FAILED, job.getStatus());
+        assertThrows(IllegalStateException.class, () -> jobs.getResult(id));
+    }
+
+    private ReportJobService newService(int queueCapacity, long ttlMinutes) {
+        try {
+            return new ReportJobService(reportService, jdbcTemplate, new ObjectMapper(), new SimpleMeterRegistry(), 1, queueCapacity,
+                    spoolDirectory.toString(), ttlMinutes, 1, false);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void blockCsvWrites() {
+        try {
+            doAnswer(invocation -> {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+                invocation.getArgument(2, OutputStream.class).write("id,patient\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(reportService).writeCSV(any(), any(), any());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitStatus(String id, ReportJobStatus status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jobs.getJob(id).getStatus() != status) {
+            assertTrue(System.currentTimeMillis() < deadline, "job did not reach " + status);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import ro.medCare.ClinicFixtures;
+import ro.medCare.MedCareSystemApplication;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class VirtualThreadBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadBenchmarkTest.class);
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1_000);
+    private static final int PLATFORM_THREADS = Integer.getInteger("benchmark.platform-threads", 200);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool-size", 400);
+    private static final long IO_LATENCY_MS = Long.getLong("benchmark.io-latency-ms", 100);
+
+    @Test
+    void compareBlockingRequestThroughputOverHttp() throws Exception {
+        Result platform = benchmark("platform(" + PLATFORM_THREADS + ")", false);
+        Result virtual = benchmark("virtual", true);
+
+        logger.info(String.format("%-16s %10s %10s %10s %10s %8s", "tomcat threads", "req/s", "p50 ms", "p99 ms",
+                "max ms", "errors"));
+        for (Result result : List.of(platform, virtual)) {
+            logger.info(String.format("%-16s %10.0f %10.1f %10.1f %10.1f %8d", result.name, result.throughput(),
+                    result.percentile(50), result.percentile(99), result.percentile(100), result.errors));
+        }
+        logger.info(String.format("requests=%d, clients=%d, simulated database latency=%d ms, speedup=%.2fx",
+                REQUESTS, CLIENTS, IO_LATENCY_MS, virtual.throughput() / platform.throughput()));
+
+        assertEquals(0, platform.errors);
+        assertEquals(0, virtual.errors);
+    }
+
+    // Each mode gets its own application, embedded Tomcat and database, so the two runs share nothing but the JVM.
+    private Result benchmark(String name, boolean virtualThreads) throws Exception {
+        SlowConnections.latencyMillis = 0;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MedCareSystemApplication.class,
+                ClinicFixtures.class, SlowConnections.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("testComponentExcludeFilter", new TestComponentExcludeFilter()))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "--spring.datasource.url=jdbc:h2:mem:medCareBenchmark" + (virtualThreads ? "Virtual" : "Platform")
+                                + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.org.springframework.security=INFO")) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            LocalDate day = ClinicFixtures.futureDay();
+            seed(context.getBean(ClinicFixtures.class), day);
+
+            URI uri = URI.create("http://localhost:" + port + "/api/appointments/page?size=50&start="
+                    + day.atStartOfDay() + "&end=" + day.plusDays(1).atStartOfDay());
+            SlowConnections.latencyMillis = IO_LATENCY_MS;
+            run(name, uri, REQUESTS / 10);
+            return run(name, uri, REQUESTS);
+        }
+    }
+
+    private Result run(String name, URI uri, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+        long started = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    for (int index = next.getAndIncrement(); index < requests; index = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        if (send(client, request) != 200) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[index] = System.nanoTime() - sent;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        return new Result(name, latencies, errors.get(), elapsed);
+    }
+
+    private static int send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static void seed(ClinicFixtures fixtures, LocalDate day) {
+        MedicalService service = fixtures.service();
+        for (Doctor doctor : fixtures.doctors(20, "General", ClinicFixtures.WORK_HOURS)) {
+            for (int slot = 0; slot < 8; slot++) {
+                fixtures.appointment(doctor, service, day.atTime(8, 0).plusMinutes(30L * slot), AppointmentStatus.NEW);
+            }
+        }
+    }
+
+    // Outside @SpringBootTest nothing keeps the scan from picking up other tests' configurations.
+    private static final class TestComponentExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            AnnotationMetadata metadata = metadataReader.getAnnotationMetadata();
+            return metadata.hasAnnotation(TestConfiguration.class.getName())
+                    || metadata.hasAnnotation(TestComponent.class.getName());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other != null && other.getClass() == getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+
+    // Holds every connection checkout for the simulated round trip, so request threads block the way they do on MySQL.
+    @TestConfiguration
+    static class SlowConnections {
+
+        private static volatile long latencyMillis;
+
+        @Bean
+        static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? slow(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource slow(DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(latencyMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+    }
+
+    private record Result(String name, long[] latenciesNanos, int errors, long elapsedNanos) {
+
+        double throughput() {
+            return latenciesNanos.length / (elapsedNanos / 1e9);
+        }
+
+        double percentile(int percentile) {
+            int index = Math.min(latenciesNanos.length - 1,
+                    (int) Math.ceil(percentile / 100.0 * latenciesNanos.length) - 1);
+            return latenciesNanos[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ro.medCare.service;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+import ro.medCare.dto.AppointmentRow;
+import ro.medCare.model.AppointmentStatus;
+import ro.medCare.model.Doctor;
+import ro.medCare.model.MedicalService;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XMLReportExporterTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+    private final XMLReportExporter exporter = new XMLReportExporter();
+
+    @Test
+    void markupCharactersInNamesAreEscapedAndTheDocumentParses() throws Exception {
+        String patient = "O'Brien <Jr.> & \"Sons\"";
+        Doctor doctor = new Doctor(1L, "Dr. <b>Pop</b> & Co", "Cardiology", "08:00-16:00");
+        MedicalService service = new MedicalService(2L, "ECG \"rest\" & <stress>", 150, 30);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XMLStreamWriter xml = exporter.open(output);
+        exporter.writeHeader(xml, START, END, Map.of(doctor, 3L), Map.of(service, 2L));
+        exporter.startAppointments(xml);
+        exporter.writeAppointment(new AppointmentRow(10L, patient, 1L, doctor.getName(), doctor.getSpecialization(),
+                LocalDateTime.of(2025, 1, 2, 8, 30), 2L, service.getName(), service.getPrice(),
+                service.getDuration(), AppointmentStatus.NEW), xml);
+        exporter.endAppointments(xml);
+        exporter.close(xml);
+
+        String raw = output.toString(StandardCharsets.UTF_8);
+        assertFalse(raw.contains("<Jr.>"));
+        assertFalse(raw.contains("<b>"));
+        assertTrue(raw.contains("&lt;Jr."));
+        assertTrue(raw.contains("&amp;"));
+
+        Document document = parse(output.toByteArray());
+        Element appointment = only(document, "appointment");
+        assertEquals("10", appointment.getAttribute("id"));
+        assertEquals(patient, text(appointment, "patientName"));
+        assertEquals(doctor.getName(), text(appointment, "doctor"));
+        assertEquals(service.getName(), text(appointment, "service"));
+        assertEquals("2025-01-02 08:30", text(appointment, "dateTime"));
+        assertEquals(doctor.getName(), text(only(document, "topDoctors"), "name"));
+        assertEquals(service.getName(), text(only(document, "topServices"), "name"));
+    }
+
+    @Test
+    void emptyRangeStillProducesEveryEnclosingElement() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        XMLStreamWriter xml = exporter.open(output);
+        exporter.writeHeader(xml, START, END, Map.of(), Map.of());
+        exporter.startAppointments(xml);
+        exporter.endAppointments(xml);
+        exporter.close(xml);
+
+        Document document = parse(output.toByteArray());
+        assertEquals("statisticsReport", document.getDocumentElement().getTagName());
+        assertEquals("2025-01-01 00:00", text(only(document, "reportPeriod"), "startDate"));
+        assertEquals("2025-01-31 23:59", text(only(document, "reportPeriod"), "endDate"));
+        assertEquals(0, only(document, "topDoctors").getElementsByTagName("doctor").getLength());
+        assertEquals(0, only(document, "topServices").getElementsByTagName("service").getLength());
+        assertEquals(0, only(document, "appointments").getElementsByTagName("appointment").getLength());
+    }
+
+    private static Document parse(byte[] xml) throws ParserConfigurationException, IOException, SAXException {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+
+    private static Element only(Document document, String tagName) {
+        assertEquals(1, document.getElementsByTagName(tagName).getLength(), tagName);
+        return (Element) document.getElementsByTagName(tagName).item(0);
+    }
+
+    private static String text(Element parent, String tagName) {
+        return parent.getElementsByTagName(tagName).item(0).getTextContent();
+    }
+}
@@ -0,0 +1,8 @@
+-- Hibernate 6.4 MySQL DDL for the pre-Flyway entities (ddl-auto=update), as found in databases that predate V1.
+create table appointments (date_time datetime(6) not null, doctor_id bigint not null, id bigint not null auto_increment, service_id bigint not null, patient_name varchar(255) not null, status enum ('NEW','IN_PROGRESS','COMPLETED') not null, primary key (id)) engine=InnoDB;
+create table doctors (id bigint not null auto_increment, name varchar(255) not null, specialization varchar(255) not null, work_hours varchar(255) not null, primary key (id)) engine=InnoDB;
+create table medical_services (duration integer not null, price float(53) not null, id bigint not null auto_increment, name varchar(255) not null, primary key (id)) engine=InnoDB;
+create table users (id bigint not null auto_increment, name varchar(255) not null, password varchar(255) not null, username varchar(255) not null, role enum ('ADMIN','RECEPTIONIST') not null, primary key (id)) engine=InnoDB;
+alter table users add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+alter table appointments add constraint FKmujeo4tymoo98cmf7uj3vsv76 foreign key (doctor_id) references doctors (id);
+alter table appointments add constraint FKn3l3mhd2vs7vn3njn2t6lijkb foreign key (service_id) references medical_services (id);
@@ -1,11 +1,36 @@
 // src/api/appointment.api.ts
 import api from './api';
-import { Appointment } from '../types/appointment.types';
+import { Appointment, AppointmentStatus } from '../types/appointment.types';
+import { CursorPage, CursorPageParams } from '../types/page.types';
+
+export interface AppointmentPageParams extends CursorPageParams {
+  direction?: 'asc' | 'desc';
+  start?: string;
+  end?: string;
+  status?: AppointmentStatus;
+}
 
 export const getAllAppointments = () => {
   return api.get('/appointments');
 };
 
+export const getAppointmentsPage = (params: AppointmentPageParams = {}) => {
+  return api.get('/appointments/page', { params });
+};
+
+// Follows nextCursor until the last page, for views that must show every appointment in a range.
+export const getAllAppointmentPages = async (params: AppointmentPageParams = {}) => {
+  const appointments: Appointment[] = [];
+  let cursor = params.cursor;
+  do {
+    const response = await getAppointmentsPage({ ...params, cursor });
+    const page = response.data as CursorPage<Appointment>;
+    appointments.push(...page.items);
+    cursor = page.hasMore ? page.nextCursor : null;
+  } while (cursor);
+  return appointments;
+};
+
 export const getAppointmentById = (id: number) => {
   return api.get(`/appointments/${id}`);
 };
@@ -1,11 +1,16 @@
 // src/api/doctor.api.ts
 import api from './api';
 import { Doctor } from '../types/doctor.types';
+import { CursorPageParams } from '../types/page.types';
 
 export const getAllDoctors = () => {
   return api.get('/doctors');
 };
 
+export const getDoctorsPage = (params: CursorPageParams = {}) => {
+  return api.get('/doctors/page', { params });
+};
+
 export const getDoctorById = (id: number) => {
   return api.get(`/doctors/${id}`);
 };
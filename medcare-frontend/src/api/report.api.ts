@@ -1,5 +1,6 @@
 // src/api/report.api.ts
 import api from './api';
+import { ReportFormat, ReportJob } from '../types/report.types';
 
 export const generateReport = (startDate: string, endDate: string) => {
   return api.get(`/reports?startDate=${startDate}&endDate=${endDate}`);
@@ -15,4 +16,46 @@ export const exportReportToXml = (startDate: string, endDate: string) => {
   return api.get(`/reports/export/xml?startDate=${startDate}&endDate=${endDate}`, {
     responseType: 'blob'
   });
-};
\ No newline at end of file
+};
+export const getStatisticsSummary = () => {
+  return api.get('/reports/statistics');
+};
+
+export const submitReportJob = (
+  startDate: string,
+  endDate: string,
+  format: ReportFormat,
+  includeAppointments = false
+) => {
+  return api.post<ReportJob>('/reports/jobs', null, {
+    params: { startDate, endDate, format: format.toLowerCase(), includeAppointments }
+  });
+};
+
+export const getReportJob = (id: string) => {
+  return api.get<ReportJob>(`/reports/jobs/${id}`);
+};
+
+export const downloadReportJob = (id: string) => {
+  return api.get(`/reports/jobs/${id}/download`, {
+    responseType: 'blob'
+  });
+};
+
+export const runReportJob = async (
+  startDate: string,
+  endDate: string,
+  format: ReportFormat,
+  includeAppointments = false,
+  pollIntervalMs = 1000
+) => {
+  let job = (await submitReportJob(startDate, endDate, format, includeAppointments)).data;
+  while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+    await new Promise((resolve) => setTimeout(resolve, pollIntervalMs));
+    job = (await getReportJob(job.id)).data;
+  }
+  if (job.status === 'FAILED') {
+    throw new Error(job.error || 'Report job failed');
+  }
+  return downloadReportJob(job.id);
+};
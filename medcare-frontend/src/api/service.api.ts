@@ -1,11 +1,16 @@
 // src/api/service.api.ts
 import api from './api';
 import { MedicalService } from '../types/service.types';
+import { CursorPageParams } from '../types/page.types';
 
 export const getAllMedicalServices = () => {
   return api.get('/services');
 };
 
+export const getMedicalServicesPage = (params: CursorPageParams = {}) => {
+  return api.get('/services/page', { params });
+};
+
 export const getMedicalServiceById = (id: number) => {
   return api.get(`/services/${id}`);
 };
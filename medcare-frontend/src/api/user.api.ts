@@ -1,11 +1,16 @@
 // src/api/user.api.ts
 import api from './api';
 import { User } from '../types/user.types';
+import { CursorPageParams } from '../types/page.types';
 
 export const getAllUsers = () => {
   return api.get('/users');
 };
 
+export const getUsersPage = (params: CursorPageParams = {}) => {
+  return api.get('/users/page', { params });
+};
+
 export const getUserById = (id: number) => {
   return api.get(`/users/${id}`);
 };
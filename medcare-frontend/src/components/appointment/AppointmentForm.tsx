@@ -205,6 +205,7 @@ const AppointmentForm: React.FC<AppointmentFormProps> = ({ open, appointment, on
           dateTime: format(values.dateTime, "yyyy-MM-dd'T'HH:mm:ss"),
           service: service,
           status: values.status,
+          version: appointment?.version,
         };
 
         if (isNewAppointment) {
@@ -341,6 +342,7 @@ const AppointmentForm: React.FC<AppointmentFormProps> = ({ open, appointment, on
                   <MenuItem value={AppointmentStatus.NEW}>New</MenuItem>
                   <MenuItem value={AppointmentStatus.IN_PROGRESS}>In Progress</MenuItem>
                   <MenuItem value={AppointmentStatus.COMPLETED}>Completed</MenuItem>
+                  <MenuItem value={AppointmentStatus.CANCELED}>Canceled</MenuItem>
                 </Select>
               </FormControl>
             </Grid>
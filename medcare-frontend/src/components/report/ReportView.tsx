@@ -77,6 +77,8 @@ const ReportView: React.FC<ReportViewProps> = ({ report }) => {
         return <Chip label="In Progress" color="warning" size="small" />;
       case AppointmentStatus.COMPLETED:
         return <Chip label="Completed" color="success" size="small" />;
+      case AppointmentStatus.CANCELED:
+        return <Chip label="Canceled" color="default" size="small" />;
       default:
         return <Chip label={status} size="small" />;
     }
@@ -27,12 +27,15 @@ import { useNavigate } from 'react-router-dom';
 import { getAllUsers } from '../../api/user.api';
 import { getAllDoctors } from '../../api/doctor.api';
 import { getAllMedicalServices } from '../../api/service.api';
-import { getAllAppointments } from '../../api/appointment.api';
+import { getAppointmentsPage } from '../../api/appointment.api';
+import { getStatisticsSummary } from '../../api/report.api';
 import { format, parseISO } from 'date-fns';
 import { Appointment, AppointmentStatus } from '../../types/appointment.types';
 import { User } from '../../types/user.types';
 import { Doctor } from '../../types/doctor.types';
 import { MedicalService } from '../../types/service.types';
+import { StatisticsSummary } from '../../types/report.types';
+import { CursorPage } from '../../types/page.types';
 import LoadingSpinner from '../../components/common/LoadingSpinner';
 import StatsCard from '../../components/common/StatsCard';
 
@@ -54,38 +57,35 @@ const AdminDashboard: React.FC = () => {
     const fetchDashboardData = async () => {
       setLoading(true);
       try {
-        const [usersRes, doctorsRes, servicesRes, appointmentsRes] = await Promise.all([
+        const [usersRes, doctorsRes, servicesRes, appointmentsRes, statisticsRes] = await Promise.all([
           getAllUsers(),
           getAllDoctors(),
           getAllMedicalServices(),
-          getAllAppointments()
+          getAppointmentsPage({ size: 5, direction: 'desc' }),
+          getStatisticsSummary()
         ]);
 
         const users = usersRes.data as User[];
         const doctors = doctorsRes.data as Doctor[];
         const services = servicesRes.data as MedicalService[];
-        const appointments = appointmentsRes.data as Appointment[];
-        
-        const sortedAppointments = [...appointments].sort(
-          (a: Appointment, b: Appointment) => 
-            new Date(b.dateTime).getTime() - new Date(a.dateTime).getTime()
-        );
+        const latestAppointments = (appointmentsRes.data as CursorPage<Appointment>).items;
+        const statistics = statisticsRes.data as StatisticsSummary;
         
         const sortedUsers = [...users].sort((a: User, b: User) => b.id - a.id);
         
-        const pendingAppointments = appointments.filter(
-          (a: Appointment) => a.status === AppointmentStatus.NEW || a.status === AppointmentStatus.IN_PROGRESS
-        ).length;
+        const pendingAppointments =
+          (statistics.appointmentsByStatus[AppointmentStatus.NEW] ?? 0) +
+          (statistics.appointmentsByStatus[AppointmentStatus.IN_PROGRESS] ?? 0);
 
         setStats({
           users: users.length,
           doctors: doctors.length,
           services: services.length,
-          appointments: appointments.length,
+          appointments: statistics.totalAppointments,
           pendingAppointments
         });
         
-        setLatestAppointments(sortedAppointments.slice(0, 5)); 
+        setLatestAppointments(latestAppointments); 
         setRecentUsers(sortedUsers.slice(0, 5)); 
       } catch (error) {
         console.error('Error fetching dashboard data:', error);
@@ -109,6 +109,8 @@ const AdminDashboard: React.FC = () => {
         return <Chip label="In Progress" color="warning" size="small" />;
       case AppointmentStatus.COMPLETED:
         return <Chip label="Completed" color="success" size="small" />;
+      case AppointmentStatus.CANCELED:
+        return <Chip label="Canceled" color="default" size="small" />;
       default:
         return <Chip label={status} size="small" />;
     }
@@ -32,8 +32,7 @@ import { AdapterDateFns } from '@mui/x-date-pickers/AdapterDateFns';
 import { format } from 'date-fns';
 import { 
   generateReport, 
-  exportReportToCsv, 
-  exportReportToXml 
+  runReportJob 
 } from '../../api/report.api';
 import { toISOString } from '../../utils/date.utils';
 import { ReportDTO } from '../../types/report.types';
@@ -92,7 +91,7 @@ const Reports: React.FC = () => {
       const formattedStartDate = toISOString(startDate);
       const formattedEndDate = toISOString(endDate);
       
-      const response = await exportReportToCsv(formattedStartDate, formattedEndDate);
+      const response = await runReportJob(formattedStartDate, formattedEndDate, 'CSV');
       
       const url = window.URL.createObjectURL(new Blob([response.data]));
       const link = document.createElement('a');
@@ -125,7 +124,7 @@ const Reports: React.FC = () => {
       const formattedStartDate = toISOString(startDate);
       const formattedEndDate = toISOString(endDate);
       
-      const response = await exportReportToXml(formattedStartDate, formattedEndDate);
+      const response = await runReportJob(formattedStartDate, formattedEndDate, 'XML');
       
       const url = window.URL.createObjectURL(new Blob([response.data]));
       const link = document.createElement('a');
@@ -17,20 +17,32 @@ import EditIcon from '@mui/icons-material/Edit';
 import DeleteIcon from '@mui/icons-material/Delete';
 import CheckCircleIcon from '@mui/icons-material/CheckCircle';
 import PlayArrowIcon from '@mui/icons-material/PlayArrow';
+import CancelIcon from '@mui/icons-material/Cancel';
 import { DataGrid, GridColDef, GridRenderCellParams } from '@mui/x-data-grid';
 import { format, parseISO } from 'date-fns';
 import { 
-  getAllAppointments, 
+  getAppointmentsPage, 
   updateAppointmentStatus, 
   deleteAppointment 
 } from '../../api/appointment.api';
 import AppointmentForm from '../../components/appointment/AppointmentForm';
 import ConfirmDialog from '../../components/common/ConfirmDialog';
 import { Appointment, AppointmentStatus } from '../../types/appointment.types';
+import { CursorPage } from '../../types/page.types';
+
+const PAGE_SIZE = 100;
+
+const TAB_STATUSES: (AppointmentStatus | undefined)[] = [
+  undefined,
+  AppointmentStatus.NEW,
+  AppointmentStatus.IN_PROGRESS,
+  AppointmentStatus.COMPLETED,
+  AppointmentStatus.CANCELED,
+];
 
 const AppointmentManagement: React.FC = () => {
   const [appointments, setAppointments] = useState<Appointment[]>([]);
-  const [filteredAppointments, setFilteredAppointments] = useState<Appointment[]>([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
   const [loading, setLoading] = useState(false);
   const [selectedAppointment, setSelectedAppointment] = useState<Appointment | null>(null);
   const [isFormOpen, setIsFormOpen] = useState(false);
@@ -38,12 +50,17 @@ const AppointmentManagement: React.FC = () => {
   const [alertMessage, setAlertMessage] = useState<{ type: 'success' | 'error', message: string } | null>(null);
   const [tabValue, setTabValue] = useState(0);
 
-  const fetchAppointments = async () => {
+  const fetchAppointments = async (tabIndex: number = tabValue, cursor: string | null = null) => {
     setLoading(true);
     try {
-      const response = await getAllAppointments();
-      setAppointments(response.data);
-      filterAppointments(response.data, tabValue);
+      const response = await getAppointmentsPage({
+        cursor,
+        size: PAGE_SIZE,
+        status: TAB_STATUSES[tabIndex],
+      });
+      const page = response.data as CursorPage<Appointment>;
+      setAppointments(previous => cursor ? [...previous, ...page.items] : page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching appointments:', error);
       setAlertMessage({ type: 'error', message: 'Failed to load appointments. Please try again.' });
@@ -56,28 +73,13 @@ const AppointmentManagement: React.FC = () => {
     fetchAppointments();
   }, []);
 
-  const filterAppointments = (appointments: Appointment[], tabIndex: number) => {
-    switch (tabIndex) {
-      case 0: 
-        setFilteredAppointments(appointments);
-        break;
-      case 1: 
-        setFilteredAppointments(appointments.filter(a => a.status === AppointmentStatus.NEW));
-        break;
-      case 2: 
-        setFilteredAppointments(appointments.filter(a => a.status === AppointmentStatus.IN_PROGRESS));
-        break;
-      case 3: 
-        setFilteredAppointments(appointments.filter(a => a.status === AppointmentStatus.COMPLETED));
-        break;
-      default:
-        setFilteredAppointments(appointments);
-    }
-  };
-
   const handleTabChange = (_event: React.SyntheticEvent, newValue: number) => {
     setTabValue(newValue);
-    filterAppointments(appointments, newValue);
+    fetchAppointments(newValue);
+  };
+
+  const handleLoadMore = () => {
+    fetchAppointments(tabValue, nextCursor);
   };
 
   const handleAddAppointment = () => {
@@ -139,6 +141,8 @@ const AppointmentManagement: React.FC = () => {
         return <Chip label="In Progress" color="warning" size="small" />;
       case AppointmentStatus.COMPLETED:
         return <Chip label="Completed" color="success" size="small" />;
+      case AppointmentStatus.CANCELED:
+        return <Chip label="Canceled" color="default" size="small" />;
       default:
         return <Chip label={status} size="small" />;
     }
@@ -210,6 +214,18 @@ const AppointmentManagement: React.FC = () => {
                 </IconButton>
               </Tooltip>
             )}
+
+            {appointment.status === AppointmentStatus.NEW && (
+              <Tooltip title="Cancel Appointment">
+                <IconButton
+                  color="default"
+                  size="small"
+                  onClick={() => handleUpdateStatus(appointment, AppointmentStatus.CANCELED)}
+                >
+                  <CancelIcon />
+                </IconButton>
+              </Tooltip>
+            )}
             
             {appointment.status === AppointmentStatus.IN_PROGRESS && (
               <Tooltip title="Complete Appointment">
@@ -269,12 +285,13 @@ const AppointmentManagement: React.FC = () => {
           <Tab label="New" />
           <Tab label="In Progress" />
           <Tab label="Completed" />
+          <Tab label="Canceled" />
         </Tabs>
       </Paper>
 
       <Paper sx={{ p: 2, height: 'calc(100vh - 270px)' }}>
         <DataGrid
-          rows={filteredAppointments}
+          rows={appointments}
           columns={columns}
           loading={loading}
           pagination
@@ -285,6 +302,13 @@ const AppointmentManagement: React.FC = () => {
             pagination: { paginationModel: { pageSize: 10 } },
           }}
         />
+        {nextCursor && (
+          <Box sx={{ display: 'flex', justifyContent: 'center', mt: 2 }}>
+            <Button variant="outlined" onClick={handleLoadMore} disabled={loading}>
+              Load more
+            </Button>
+          </Box>
+        )}
       </Paper>
 
       {isFormOpen && (
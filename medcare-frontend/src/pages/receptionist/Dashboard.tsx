@@ -26,12 +26,15 @@ import {
 } from '@mui/icons-material';
 import { useNavigate } from 'react-router-dom';
 import { getAllDoctors } from '../../api/doctor.api';
-import { getAllAppointments } from '../../api/appointment.api';
-import { formatDateTime } from '../../utils/date.utils';
+import { getAllAppointmentPages, getAppointmentsPage } from '../../api/appointment.api';
+import { getStatisticsSummary } from '../../api/report.api';
+import { formatDateTime, toISOString } from '../../utils/date.utils';
 import LoadingSpinner from '../../components/common/LoadingSpinner';
 import { Appointment, AppointmentStatus } from '../../types/appointment.types';
 import { Doctor } from '../../types/doctor.types';
-import { format, isToday, parseISO, startOfDay, endOfDay } from 'date-fns';
+import { CursorPage } from '../../types/page.types';
+import { StatisticsSummary } from '../../types/report.types';
+import { addDays, format, parseISO, startOfDay, endOfDay } from 'date-fns';
 import HourglassEmptyIcon from '@mui/icons-material/HourglassEmpty';
 
 const ReceptionistDashboard: React.FC = () => {
@@ -51,34 +54,26 @@ const ReceptionistDashboard: React.FC = () => {
     const fetchDashboardData = async () => {
       setLoading(true);
       try {
-        const [appointmentsRes, doctorsRes] = await Promise.all([
-          getAllAppointments(),
-          getAllDoctors()
+        const now = new Date();
+        const [today, upcomingRes, doctorsRes, statisticsRes] = await Promise.all([
+          getAllAppointmentPages({ start: toISOString(startOfDay(now)), end: toISOString(endOfDay(now)) }),
+          getAppointmentsPage({ start: toISOString(addDays(startOfDay(now), 1)), size: 5 }),
+          getAllDoctors(),
+          getStatisticsSummary()
         ]);
 
-        const appointments = appointmentsRes.data;
-        
-        const today = appointments.filter((appointment: Appointment) => 
-          isToday(parseISO(appointment.dateTime))
-        ).sort((a: Appointment, b: Appointment) => 
-          parseISO(a.dateTime).getTime() - parseISO(b.dateTime).getTime()
-        );
-        
-        const upcoming = appointments.filter((appointment: Appointment) => 
-          parseISO(appointment.dateTime) > endOfDay(new Date())
-        ).sort((a: Appointment, b: Appointment) => 
-          parseISO(a.dateTime).getTime() - parseISO(b.dateTime).getTime()
-        ).slice(0, 5); 
+        const upcoming = (upcomingRes.data as CursorPage<Appointment>).items;
+        const statistics = statisticsRes.data as StatisticsSummary;
 
-        const newAppointments = appointments.filter((a: Appointment) => a.status === AppointmentStatus.NEW).length;
-        const inProgressAppointments = appointments.filter((a: Appointment) => a.status === AppointmentStatus.IN_PROGRESS).length;
-        const completedAppointments = appointments.filter((a: Appointment) => a.status === AppointmentStatus.COMPLETED).length;
+        const newAppointments = statistics.appointmentsByStatus[AppointmentStatus.NEW] ?? 0;
+        const inProgressAppointments = statistics.appointmentsByStatus[AppointmentStatus.IN_PROGRESS] ?? 0;
+        const completedAppointments = statistics.appointmentsByStatus[AppointmentStatus.COMPLETED] ?? 0;
 
         setTodayAppointments(today);
         setUpcomingAppointments(upcoming);
         setDoctors(doctorsRes.data);
         setStats({
-          total: appointments.length,
+          total: statistics.totalAppointments,
           new: newAppointments,
           inProgress: inProgressAppointments,
           completed: completedAppointments
@@ -105,6 +100,8 @@ const ReceptionistDashboard: React.FC = () => {
         return <Chip label="In Progress" color="warning" size="small" />;
       case AppointmentStatus.COMPLETED:
         return <Chip label="Completed" color="success" size="small" />;
+      case AppointmentStatus.CANCELED:
+        return <Chip label="Canceled" color="default" size="small" />;
       default:
         return <Chip label={status} size="small" />;
     }
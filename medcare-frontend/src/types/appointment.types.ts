@@ -2,6 +2,7 @@ export enum AppointmentStatus {
     NEW = 'NEW',
     IN_PROGRESS = 'IN_PROGRESS',
     COMPLETED = 'COMPLETED',
+    CANCELED = 'CANCELED',
   }
   
   export interface Appointment {
@@ -21,4 +22,5 @@ export enum AppointmentStatus {
       duration: number;
     };
     status: AppointmentStatus;
+    version?: number;
   }
\ No newline at end of file
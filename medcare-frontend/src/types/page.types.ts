@@ -0,0 +1,11 @@
+// src/types/page.types.ts
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+export interface CursorPageParams {
+  cursor?: string | null;
+  size?: number;
+}
@@ -19,4 +19,30 @@ export interface DoctorStatistics {
 export interface ServiceStatistics {
   service: MedicalService;
   count: number;
-}
\ No newline at end of file
+}
+export interface StatisticsSummary {
+  totalAppointments: number;
+  appointmentsByStatus: Record<string, number>;
+  appointmentsByDoctor: Record<string, number>;
+  appointmentsByService: Record<string, number>;
+  bookedMinutes: number;
+  revenue: number;
+  reconciledAt: string | null;
+}
+
+export type ReportFormat = 'JSON' | 'CSV' | 'XML';
+
+export type ReportJobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+
+export interface ReportJob {
+  id: string;
+  status: ReportJobStatus;
+  format: ReportFormat;
+  startDate: string;
+  endDate: string;
+  includeAppointments: boolean;
+  submittedAt: string;
+  completedAt: string | null;
+  sizeBytes: number | null;
+  error: string | null;
+}